@@ -0,0 +1,144 @@
+// Prueba de carga de EduData con k6: concurrencia máxima que aguanta un endpoint con un heap fijo.
+//
+// Sube los usuarios virtuales (VUs) por escalones; cada VU repite peticiones sin pausa, así que
+// el número de VUs es el número de peticiones en curso. Al final se informa, por escalón, el total
+// de peticiones, la tasa de error y el p95, y la concurrencia máxima sostenida: el escalón más alto
+// con menos de un 1 % de errores y el p95 por debajo del límite. Ver carga/README.md.
+//
+//   k6 run -e ESCENARIO=estudiantes -e MODO=plataforma carga/edudata.js
+//   k6 run -e ESCENARIO=nlq -e MODO=virtual carga/edudata.js
+
+import http from 'k6/http';
+import exec from 'k6/execution';
+import { check } from 'k6';
+import { textSummary } from 'https://jslib.k6.io/k6-summary/0.0.2/index.js';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const ESCENARIO = __ENV.ESCENARIO || 'estudiantes';
+const MODO = __ENV.MODO || 'sin-modo';
+const USUARIO = __ENV.USUARIO || 'admin';
+const CLAVE = __ENV.CLAVE || 'admin123';
+// locales: preguntas que resuelve NlqTraductorLocal (solo base de datos)
+// llm: preguntas que siempre llegan al modelo (usar con carga/llm-simulado.py)
+const PREGUNTAS = __ENV.PREGUNTAS || 'llm';
+
+const ESCALON = parseInt(__ENV.ESCALON || '100');
+const MAX_VUS = parseInt(__ENV.MAX_VUS || '2000');
+const RAMPA_S = parseInt(__ENV.RAMPA_S || '5');
+const DURACION_S = parseInt(__ENV.DURACION_S || '30');
+const P95_MAX_MS = parseInt(__ENV.P95_MAX_MS || (ESCENARIO === 'nlq' ? '3000' : '1000'));
+
+const NIVELES = [];
+for (let vus = ESCALON; vus <= MAX_VUS; vus += ESCALON) {
+    NIVELES.push(vus);
+}
+
+// Submétricas por escalón: k6 solo las resume si aparecen en un umbral, de ahí los umbrales triviales
+const umbrales = {
+    // Corta la prueba cuando ya está claramente saturada
+    http_req_failed: [{ threshold: 'rate<0.10', abortOnFail: true, delayAbortEval: '10s' }],
+};
+for (const vus of NIVELES) {
+    umbrales[`http_reqs{escalon:${vus}}`] = ['count>=0'];
+    umbrales[`http_req_failed{escalon:${vus}}`] = ['rate>=0'];
+    umbrales[`http_req_duration{escalon:${vus}}`] = ['p(95)>=0'];
+}
+
+export const options = {
+    scenarios: {
+        [ESCENARIO]: {
+            executor: 'ramping-vus',
+            exec: ESCENARIO,
+            startVUs: 0,
+            stages: NIVELES.flatMap(vus => [
+                { duration: `${RAMPA_S}s`, target: vus },
+                { duration: `${DURACION_S}s`, target: vus },
+            ]),
+            gracefulRampDown: '0s',
+        },
+    },
+    thresholds: umbrales,
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+const PREGUNTAS_LOCALES = [
+    'cuántos estudiantes hay',
+    'cuantos cursos hay',
+    'estudiantes del 2024',
+    'estudiantes masculinos',
+    'todos los cursos',
+    'estudiantes llamados juan',
+];
+
+export function setup() {
+    const respuesta = http.post(`${BASE_URL}/api/auth/login`,
+        JSON.stringify({ username: USUARIO, password: CLAVE }),
+        { headers: { 'Content-Type': 'application/json' } });
+    if (respuesta.status !== 200) {
+        throw new Error(`No se pudo iniciar sesión como ${USUARIO}: HTTP ${respuesta.status}`);
+    }
+    return { token: respuesta.json('token') };
+}
+
+// Escalón en curso según el tiempo transcurrido del escenario
+function escalonActual() {
+    const transcurrido = (Date.now() - exec.scenario.startTime) / 1000;
+    const indice = Math.min(Math.floor(transcurrido / (RAMPA_S + DURACION_S)), NIVELES.length - 1);
+    return NIVELES[indice];
+}
+
+function parametros(datos, tipo) {
+    return {
+        headers: { Authorization: `Bearer ${datos.token}`, 'Content-Type': tipo },
+        tags: { escalon: String(escalonActual()) },
+        timeout: '30s',
+    };
+}
+
+export function estudiantes(datos) {
+    const respuesta = http.get(`${BASE_URL}/api/estudiantes?tamanio=20&orden=apellido`,
+        parametros(datos, 'application/json'));
+    check(respuesta, { 'estudiantes 200': r => r.status === 200 });
+}
+
+export function nlq(datos) {
+    const pregunta = PREGUNTAS === 'locales'
+        ? PREGUNTAS_LOCALES[exec.scenario.iterationInTest % PREGUNTAS_LOCALES.length]
+        // Una palabra nueva en cada pregunta evita la cache de traducciones y el traductor local
+        : `qué estudiantes prefieren la asignatura ${Math.random().toString(36).slice(2, 10)}`;
+    const respuesta = http.post(`${BASE_URL}/api/nlq/pregunta`, pregunta, parametros(datos, 'text/plain'));
+    check(respuesta, {
+        'nlq 200': r => r.status === 200,
+        'nlq sin error': r => r.body !== null && !r.body.includes('"error"'),
+    });
+}
+
+export function handleSummary(datos) {
+    const filas = [];
+    let sostenida = 0;
+    for (const vus of NIVELES) {
+        const total = datos.metrics[`http_reqs{escalon:${vus}}`];
+        if (!total || total.values.count === 0) {
+            break;
+        }
+        const errores = datos.metrics[`http_req_failed{escalon:${vus}}`].values.rate;
+        const p95 = datos.metrics[`http_req_duration{escalon:${vus}}`].values['p(95)'];
+        const aguanta = errores < 0.01 && p95 < P95_MAX_MS;
+        if (aguanta && sostenida === vus - ESCALON) {
+            sostenida = vus;
+        }
+        filas.push({ vus, peticiones: total.values.count, errores, p95Ms: Math.round(p95), aguanta });
+    }
+
+    const resultado = { escenario: ESCENARIO, modo: MODO, p95MaxMs: P95_MAX_MS, concurrenciaSostenida: sostenida, escalones: filas };
+    const tabla = [`\n${ESCENARIO} (${MODO}): concurrencia máxima sostenida = ${sostenida} peticiones en curso`,
+        '   VUs  peticiones  errores    p95 ms',
+        ...filas.map(f => `${String(f.vus).padStart(6)}  ${String(f.peticiones).padStart(10)}  ` +
+            `${(f.errores * 100).toFixed(2).padStart(6)} %  ${String(f.p95Ms).padStart(8)}${f.aguanta ? '' : '  x'}`)]
+        .join('\n');
+
+    return {
+        stdout: textSummary(datos, { indent: ' ', enableColors: true }) + tabla + '\n',
+        [`resultado-${ESCENARIO}-${MODO}.json`]: JSON.stringify(resultado, null, 2),
+    };
+}
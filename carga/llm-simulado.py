@@ -0,0 +1,48 @@
+#!/usr/bin/env python3
+"""
+Servidor que imita /api/v1/chat/completions de OpenRouter para las pruebas de carga.
+
+Responde siempre la misma consulta JPQL después de un retardo fijo, como un modelo real que
+tarda en contestar. Así las preguntas NLQ que no resuelve NlqTraductorLocal pasan por todo el
+camino de la aplicación (WebClient, procesamiento de la respuesta y consulta a la base) sin gastar
+créditos ni depender de la latencia variable del proveedor.
+
+Uso: python3 carga/llm-simulado.py [puerto] [retardo_ms]     (por defecto 8089 y 800)
+"""
+import json
+import sys
+import time
+from http.server import BaseHTTPRequestHandler, ThreadingHTTPServer
+
+PUERTO = int(sys.argv[1]) if len(sys.argv) > 1 else 8089
+RETARDO_MS = int(sys.argv[2]) if len(sys.argv) > 2 else 800
+RESPUESTA = json.dumps({
+    "choices": [{"message": {"role": "assistant", "content": "SELECT COUNT(e) FROM Estudiante e"}}]
+}).encode("utf-8")
+
+
+class Manejador(BaseHTTPRequestHandler):
+    # HTTP/1.1 con Content-Length: el pool de conexiones de la aplicación las reutiliza
+    protocol_version = "HTTP/1.1"
+
+    def do_POST(self):
+        self.rfile.read(int(self.headers.get("Content-Length", 0)))
+        time.sleep(RETARDO_MS / 1000.0)
+        self.send_response(200)
+        self.send_header("Content-Type", "application/json")
+        self.send_header("Content-Length", str(len(RESPUESTA)))
+        self.end_headers()
+        self.wfile.write(RESPUESTA)
+
+    def log_message(self, formato, *args):
+        pass
+
+
+class Servidor(ThreadingHTTPServer):
+    daemon_threads = True
+    request_queue_size = 4096
+
+
+if __name__ == "__main__":
+    print(f"LLM simulado en http://localhost:{PUERTO} con {RETARDO_MS} ms de retardo")
+    Servidor(("", PUERTO), Manejador).serve_forever()
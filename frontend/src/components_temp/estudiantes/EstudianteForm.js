@@ -26,7 +26,7 @@ export default function EstudianteForm() {
     const cargarEstudiantes = async () => {
         try {
             console.log("Intentando cargar estudiantes...");
-            const response = await api.get("/estudiantes");
+            const response = await api.get("/estudiantes", { params: { todos: true } });
             console.log("Respuesta del servidor:", response.data);
             setEstudiantes(response.data);
         } catch (error) {
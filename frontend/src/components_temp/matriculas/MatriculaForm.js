@@ -31,7 +31,7 @@ export default function MatriculaForm() {
 
     const cargarEstudiantes = async () => {
         try {
-            const response = await api.get("/estudiantes");
+            const response = await api.get("/estudiantes", { params: { todos: true } });
             setEstudiantes(response.data);
         } catch (error) {
             console.error("Error al cargar estudiantes:", error);
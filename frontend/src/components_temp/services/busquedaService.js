@@ -54,21 +54,14 @@ export const busquedaService = {
                 };
             }
             
-            // Hacer llamadas en paralelo con timeout reducido
-            const promises = [
-                api.get('/estudiantes').catch(() => ({ data: [] })),
-                api.get('/cursos').catch(() => ({ data: [] })),
-                api.get('/docentes').catch(() => ({ data: [] })),
-                api.get('/matriculas').catch(() => ({ data: [] }))
-            ];
-            
-            const [estudiantes, cursos, docentes, matriculas] = await Promise.all(promises);
+            // Una sola llamada: el backend calcula los totales con COUNT
+            const response = await api.get('/stats');
             
             const stats = {
-                totalEstudiantes: estudiantes.data.length || 0,
-                totalCursos: cursos.data.length || 0,
-                totalDocentes: docentes.data.length || 0,
-                totalMatriculas: matriculas.data.length || 0
+                totalEstudiantes: response.data.totalEstudiantes || 0,
+                totalCursos: response.data.totalCursos || 0,
+                totalDocentes: response.data.totalDocentes || 0,
+                totalMatriculas: response.data.totalMatriculas || 0
             };
             
             console.log('📊 Estadísticas cargadas:', stats);
@@ -0,0 +1,81 @@
+package EduData.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Adelanta las secuencias de ids hasta el id máximo de cada tabla.
+ *
+ * En bases creadas cuando los ids eran IDENTITY las secuencias nuevas empiezan en 1 y el primer
+ * INSERT chocaría con un id existente. La alineación se hace al crear este bean, después de que
+ * Hibernate actualice el esquema (depende de entityManagerFactory) y antes de que se ejecuten los
+ * CommandLineRunner y Tomcat acepte peticiones; los beans que insertan al arrancar, como
+ * DataInitializationService, declaran @DependsOn sobre él. En una base ya alineada no hace nada.
+ */
+@Component(AlineadorSecuencias.NOMBRE)
+@DependsOn("entityManagerFactory")
+@Slf4j
+public class AlineadorSecuencias implements InitializingBean {
+
+    public static final String NOMBRE = "alineadorSecuencias";
+
+    // Tabla -> secuencia de ids; los nombres deben coincidir con los @SequenceGenerator de las entidades
+    private static final Map<String, String> SECUENCIAS = Map.of(
+            "estudiante", "estudiante_seq",
+            "docente", "docente_seq",
+            "curso", "curso_seq",
+            "matricula", "matricula_seq",
+            "calificacion", "calificacion_seq",
+            "asistencia", "asistencia_seq",
+            "asistencia_bitmap", "asistencia_bitmap_seq",
+            "usuario", "usuario_seq");
+
+    private static final Pattern IDENTIFICADOR = Pattern.compile("[a-z][a-z_]*");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AlineadorSecuencias(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        SECUENCIAS.forEach(this::alinear);
+    }
+
+    private void alinear(String tabla, String secuencia) {
+        // Los nombres van concatenados en el SQL: solo se admiten los de la lista fija
+        String tablaValida = identificador(tabla);
+        String secuenciaValida = identificador(secuencia);
+        try {
+            if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL AND to_regclass(?) IS NOT NULL",
+                    Boolean.class, tablaValida, secuenciaValida) != Boolean.TRUE) {
+                return;
+            }
+            // setval(s, n) deja last_value = n, así que el siguiente bloque pooled empieza en n + 1
+            jdbcTemplate.queryForList(
+                    "SELECT setval('" + secuenciaValida + "', m.maximo) " +
+                    "FROM (SELECT MAX(id) AS maximo FROM " + tablaValida + ") m " +
+                    "WHERE m.maximo >= (SELECT last_value FROM " + secuenciaValida + ")",
+                    Long.class)
+                    .forEach(valor -> log.info("Secuencia {} adelantada a {}", secuenciaValida, valor));
+        } catch (DataAccessException e) {
+            log.warn("No se pudo alinear la secuencia {} con la tabla {}: {}", secuenciaValida, tablaValida, e.getMessage());
+        }
+    }
+
+    private static String identificador(String nombre) {
+        if (!(SECUENCIAS.containsKey(nombre) || SECUENCIAS.containsValue(nombre))
+                || !IDENTIFICADOR.matcher(nombre).matches()) {
+            throw new IllegalArgumentException("Identificador no admitido: " + nombre);
+        }
+        return nombre;
+    }
+}
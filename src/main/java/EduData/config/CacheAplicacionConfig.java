@@ -0,0 +1,74 @@
+package EduData.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Cache de lecturas de los servicios CRUD con la abstracción de cache de Spring.
+ *
+ * Se cachean las búsquedas por id de las seis entidades y los listados de tablas pequeñas (cursos y
+ * docentes) en la cache "listados". Los listados de tablas grandes no se cachean: para ellos están
+ * la paginación por cursor y las exportaciones. Cada cache es un Caffeine acotado en entradas y con
+ * expiración tras la escritura, y registra estadísticas: Spring Boot las publica en /actuator/metrics
+ * como cache.gets, cache.evictions y cache.size, y CacheAplicacionEndpoint las resume por cache.
+ *
+ * Las altas, modificaciones y bajas de los servicios invalidan con @CacheEvict la entrada afectada y
+ * las caches que contienen la entidad anidada (una matrícula cacheada incluye su estudiante y su
+ * curso). El CacheManager es transaccional: la invalidación se aplica después del commit, de modo
+ * que una lectura concurrente no vuelve a cachear el estado anterior. Las búsquedas sin resultado no
+ * se guardan.
+ */
+@Configuration
+@EnableCaching
+public class CacheAplicacionConfig {
+
+    public static final String ESTUDIANTES = "estudiantes";
+    public static final String CURSOS = "cursos";
+    public static final String DOCENTES = "docentes";
+    public static final String MATRICULAS = "matriculas";
+    public static final String CALIFICACIONES = "calificaciones";
+    public static final String ASISTENCIAS = "asistencias";
+    public static final String LISTADOS = "listados";
+
+    @Value("${edudata.cache.aplicacion.max-entradas:10000}")
+    private long maxEntradas;
+
+    @Value("${edudata.cache.aplicacion.max-listados:50}")
+    private long maxListados;
+
+    @Value("${edudata.cache.aplicacion.ttl-segundos:300}")
+    private long ttlSegundos;
+
+    @Bean
+    public CacheManager cacheManager() {
+        SimpleCacheManager caches = new SimpleCacheManager();
+        caches.setCaches(List.of(
+                cache(ESTUDIANTES, maxEntradas),
+                cache(CURSOS, maxEntradas),
+                cache(DOCENTES, maxEntradas),
+                cache(MATRICULAS, maxEntradas),
+                cache(CALIFICACIONES, maxEntradas),
+                cache(ASISTENCIAS, maxEntradas),
+                cache(LISTADOS, maxListados)));
+        caches.initializeCaches();
+        return new TransactionAwareCacheManagerProxy(caches);
+    }
+
+    private CaffeineCache cache(String nombre, long maximo) {
+        return new CaffeineCache(nombre, Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build(), false);
+    }
+}
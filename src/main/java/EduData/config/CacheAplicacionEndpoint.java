@@ -0,0 +1,52 @@
+package EduData.config;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Endpoint de actuator /actuator/cacheaplicacion con los aciertos, fallos, desalojos y entradas de
+ * cada cache de CacheAplicacionConfig. Como /actuator/cachehibernate, se publica por HTTP al incluirlo
+ * en management.endpoints.web.exposure.include. Las mismas cifras están en /actuator/metrics como
+ * cache.gets (etiqueta result=hit|miss), cache.evictions y cache.size.
+ */
+@Component
+@Endpoint(id = "cacheaplicacion")
+public class CacheAplicacionEndpoint {
+
+    private final CacheManager cacheManager;
+
+    public CacheAplicacionEndpoint(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @ReadOperation
+    public Map<String, Object> caches() {
+        Map<String, Object> caches = new LinkedHashMap<>();
+        for (String nombre : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(nombre);
+            if (cache instanceof TransactionAwareCacheDecorator decorador) {
+                cache = decorador.getTargetCache();
+            }
+            if (cache instanceof CaffeineCache caffeine) {
+                CacheStats stats = caffeine.getNativeCache().stats();
+                Map<String, Object> resumen = new LinkedHashMap<>();
+                resumen.put("aciertos", stats.hitCount());
+                resumen.put("fallos", stats.missCount());
+                resumen.put("tasaAciertos", stats.requestCount() == 0 ? 0.0 : stats.hitRate());
+                resumen.put("desalojos", stats.evictionCount());
+                resumen.put("entradas", caffeine.getNativeCache().estimatedSize());
+                caches.put(nombre, resumen);
+            }
+        }
+        return caches;
+    }
+}
@@ -0,0 +1,91 @@
+package EduData.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache de segundo nivel de Hibernate para las entidades de referencia (Curso y Docente) y para
+ * las consultas marcadas como cacheables.
+ *
+ * Las regiones se crean aquí, acotadas en número de entradas y con expiración, en un CacheManager
+ * JCache de Caffeine propio que se entrega a Hibernate. Las escrituras hechas con Hibernate
+ * actualizan la región de la entidad e invalidan las consultas cacheadas de esa tabla; los cambios
+ * hechos con SQL directo sobre curso o docente no se verían hasta que expire la entrada.
+ */
+@Configuration
+public class CacheHibernateConfig {
+
+    // Regiones de entidad; deben coincidir con @Cache(region = ...) en Curso y Docente
+    public static final String REGION_CURSO = "curso";
+    public static final String REGION_DOCENTE = "docente";
+
+    @Value("${edudata.cache.hibernate.max-entradas:10000}")
+    private long maxEntradas;
+
+    @Value("${edudata.cache.hibernate.ttl-segundos:3600}")
+    private long ttlSegundos;
+
+    @Value("${edudata.cache.hibernate.max-consultas:1000}")
+    private long maxConsultas;
+
+    /**
+     * El proveedor JCache es único en la JVM y su CacheManager por defecto es compartido: con varios
+     * contextos de Spring a la vez (por ejemplo en las pruebas) el segundo fallaría al crear regiones
+     * que ya existen. Cada contexto usa su propio CacheManager, con una URI única, y lo cierra al
+     * terminar, lo que además lo quita del proveedor.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerHibernate() {
+        CachingProvider proveedor = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = proveedor.getCacheManager(
+                URI.create("edudata:hibernate:" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(REGION_CURSO, configuracion(maxEntradas, ttlSegundos));
+        cacheManager.createCache(REGION_DOCENTE, configuracion(maxEntradas, ttlSegundos));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                configuracion(maxConsultas, ttlSegundos));
+        // Marcas de última modificación por tabla: una entrada por tabla y sin expiración, porque
+        // perder una marca haría válidos resultados de consultas ya obsoletos
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                configuracion(1000, 0));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivel(CacheManager cacheManagerHibernate) {
+        return propiedades -> {
+            propiedades.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            propiedades.put(AvailableSettings.USE_QUERY_CACHE, true);
+            propiedades.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            propiedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerHibernate);
+            // Una región sin configurar se crearía sin límite: se avisa en el log
+            propiedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, "create-warn");
+            // Necesario para las métricas de Hibernate en actuator y para CacheHibernateEndpoint
+            propiedades.putIfAbsent(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuracion(long maximo, long ttlSegundos) {
+        CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+        configuracion.setMaximumSize(OptionalLong.of(maximo));
+        if (ttlSegundos > 0) {
+            configuracion.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSegundos)));
+        }
+        configuracion.setStatisticsEnabled(true);
+        return configuracion;
+    }
+}
@@ -0,0 +1,58 @@
+package EduData.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Endpoint de actuator /actuator/cachehibernate con los aciertos, fallos y entradas de cada región
+ * de la cache de segundo nivel y de la cache de consultas. Para publicarlo por HTTP se incluye en
+ * management.endpoints.web.exposure.include. Las mismas cifras están en /actuator/metrics como
+ * hibernate.second.level.cache.requests y hibernate.cache.query.requests.
+ */
+@Component
+@Endpoint(id = "cachehibernate")
+public class CacheHibernateEndpoint {
+
+    private final Statistics estadisticas;
+
+    public CacheHibernateEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ReadOperation
+    public Map<String, Object> regiones() {
+        Map<String, Object> regiones = new LinkedHashMap<>();
+        for (String nombre : estadisticas.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = estadisticas.getDomainDataRegionStatistics(nombre);
+            regiones.put(nombre, resumen(region.getHitCount(), region.getMissCount(), region.getPutCount(),
+                    region.getElementCountInMemory()));
+        }
+
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("estadisticasActivas", estadisticas.isStatisticsEnabled());
+        resultado.put("regiones", regiones);
+        resultado.put("consultas", resumen(estadisticas.getQueryCacheHitCount(), estadisticas.getQueryCacheMissCount(),
+                estadisticas.getQueryCachePutCount(), -1));
+        return resultado;
+    }
+
+    private static Map<String, Object> resumen(long aciertos, long fallos, long guardados, long entradas) {
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("aciertos", aciertos);
+        resumen.put("fallos", fallos);
+        resumen.put("tasaAciertos", aciertos + fallos == 0 ? 0.0 : (double) aciertos / (aciertos + fallos));
+        resumen.put("guardados", guardados);
+        if (entradas >= 0) {
+            resumen.put("entradas", entradas);
+        }
+        return resumen;
+    }
+}
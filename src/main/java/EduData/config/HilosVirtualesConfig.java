@@ -0,0 +1,57 @@
+package EduData.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Modo de ejecución con hilos virtuales (Java 21), activado con spring.threads.virtual.enabled=true
+ * (variable SPRING_THREADS_VIRTUAL_ENABLED en el contenedor).
+ *
+ * Con el modo activo, Spring Boot atiende cada petición de Tomcat en un hilo virtual y usa hilos
+ * virtuales en el ejecutor de @Async y de las peticiones asíncronas de MVC y en el planificador de
+ * @Scheduled. Aquí se añade el planificador de Reactor donde NlqServiceMejorado ejecuta el trabajo
+ * bloqueante (JPQL y el procesamiento de la respuesta de OpenRouter), que en modo normal es
+ * boundedElastic. Los pools de ReporteJobServicio y BoletinServicio siguen con hilos de plataforma:
+ * limitan a propósito la generación de PDF, que consume CPU.
+ *
+ * Sin el límite de hilos de Tomcat, la concurrencia contra la base de datos la fija el pool de
+ * conexiones (spring.datasource.hikari.maximum-pool-size): las peticiones esperan conexión en lugar
+ * de esperar un hilo libre.
+ */
+@Configuration
+@Slf4j
+public class HilosVirtualesConfig {
+
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Scheduler planificadorBloqueante() {
+        return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "bloqueante-virtual");
+    }
+
+    @Bean(name = "planificadorBloqueante", destroyMethod = "")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Scheduler planificadorBloqueantePlataforma() {
+        // Scheduler compartido de Reactor: no se libera al cerrar el contexto
+        return Schedulers.boundedElastic();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void informarModo(ApplicationReadyEvent evento) {
+        Environment entorno = evento.getApplicationContext().getEnvironment();
+        if (Threading.VIRTUAL.isActive(entorno)) {
+            log.info("Ejecución con hilos virtuales: Tomcat, @Async, @Scheduled y consultas NLQ bloqueantes");
+        } else {
+            log.info("Ejecución con hilos de plataforma (spring.threads.virtual.enabled=false)");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package EduData.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Cliente HTTP compartido para OpenRouter.
+ *
+ * Se crea una sola vez con un pool de conexiones acotado, keep-alive y timeouts, de modo que
+ * las preguntas NLQ reutilizan conexiones TLS abiertas en lugar de crear un cliente por llamada.
+ * El tamaño del pool más la cola de espera limita cuántas llamadas concurrentes se hacen a la IA.
+ */
+@Configuration
+public class OpenRouterConfig {
+
+    @Value("${spring.ai.openai.api-key:}")
+    private String apiKey;
+
+    // Se puede apuntar a un servidor simulado para las pruebas de carga (carga/llm-simulado.py)
+    @Value("${edudata.openrouter.url:https://openrouter.ai}")
+    private String url;
+
+    @Value("${server.url:https://edudata-backend.onrender.com}")
+    private String serverUrl;
+
+    @Value("${edudata.openrouter.max-conexiones:20}")
+    private int maxConexiones;
+
+    @Value("${edudata.openrouter.max-en-espera:100}")
+    private int maxEnEspera;
+
+    @Value("${edudata.openrouter.connect-timeout-ms:5000}")
+    private int connectTimeoutMs;
+
+    @Value("${edudata.openrouter.read-timeout-s:60}")
+    private long readTimeoutSegundos;
+
+    @Value("${edudata.openrouter.idle-timeout-s:30}")
+    private long idleTimeoutSegundos;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider openRouterConnectionProvider() {
+        return ConnectionProvider.builder("openrouter")
+                .maxConnections(maxConexiones)
+                .pendingAcquireMaxCount(maxEnEspera)
+                .pendingAcquireTimeout(Duration.ofSeconds(readTimeoutSegundos))
+                .maxIdleTime(Duration.ofSeconds(idleTimeoutSegundos))
+                .evictInBackground(Duration.ofSeconds(idleTimeoutSegundos))
+                .build();
+    }
+
+    @Bean
+    public WebClient openRouterWebClient(ConnectionProvider openRouterConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(openRouterConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .responseTimeout(Duration.ofSeconds(readTimeoutSegundos));
+
+        return WebClient.builder()
+                .baseUrl(url)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey.trim())
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .defaultHeader("HTTP-Referer", serverUrl) // Referer dinámico según entorno
+                .defaultHeader("X-Title", "EduData") // Opcional pero recomendado
+                .build();
+    }
+}
@@ -47,9 +47,14 @@ public class SecurityConfig {
                         .requestMatchers("/api/docentes/**").hasAnyRole("ADMIN", "DOCENTE")
                         .requestMatchers("/api/cursos/**").hasAnyRole("ADMIN", "DOCENTE", "INVITADO")
                         .requestMatchers("/api/matriculas/**").hasAnyRole("ADMIN", "DOCENTE")
+                        .requestMatchers("/api/asistencias/resumen/migrar").hasRole("ADMIN")
                         .requestMatchers("/api/asistencias/**").hasAnyRole("ADMIN", "DOCENTE")
+                        .requestMatchers("/api/calificaciones/resumen/reconstruir").hasRole("ADMIN")
                         .requestMatchers("/api/calificaciones/**").hasAnyRole("ADMIN", "DOCENTE")
                         .requestMatchers("/api/nlq/**").hasAnyRole("ADMIN", "DOCENTE", "INVITADO")
+                        .requestMatchers("/api/stats/**").hasAnyRole("ADMIN", "DOCENTE", "INVITADO")
+                        .requestMatchers("/api/reportes/**").hasAnyRole("ADMIN", "DOCENTE", "INVITADO")
+                        .requestMatchers("/api/importacion/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
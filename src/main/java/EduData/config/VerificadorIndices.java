@@ -0,0 +1,170 @@
+package EduData.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Comprueba al arrancar que la base tiene los índices declarados en las entidades.
+ *
+ * Hibernate solo crea los @Index con ddl-auto create o update; con el esquema gestionado a mano
+ * un índice olvidado no da ningún error, solo consultas lentas. Aquí se comparan los @Index y
+ * @UniqueConstraint de cada entidad con los índices reales de PostgreSQL (pg_index). Un @Index
+ * cuenta como presente si existe algún índice, con cualquier nombre, cuyas primeras columnas sean
+ * las declaradas. Una restricción única solo la cumple un índice único con exactamente esas
+ * columnas: uno normal no impide duplicados, y ON CONFLICT necesita el índice único. Los que
+ * faltan se informan en el log con la sentencia para crearlos y, con
+ * edudata.indices.crear-faltantes=true, se crean.
+ */
+@Component
+@Slf4j
+public class VerificadorIndices {
+
+    private static final String INDICES_EXISTENTES =
+            "SELECT t.relname, array_to_string(array_agg(a.attname ORDER BY k.orden), ','), x.indisunique " +
+            "FROM pg_index x " +
+            "JOIN pg_class t ON t.oid = x.indrelid " +
+            "JOIN pg_namespace n ON n.oid = t.relnamespace " +
+            "CROSS JOIN LATERAL unnest(x.indkey) WITH ORDINALITY AS k(attnum, orden) " +
+            "JOIN pg_attribute a ON a.attrelid = t.oid AND a.attnum = k.attnum " +
+            "WHERE n.nspname = current_schema() " +
+            "GROUP BY t.relname, x.indexrelid, x.indisunique";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean crearFaltantes;
+
+    public VerificadorIndices(EntityManagerFactory entityManagerFactory,
+                              JdbcTemplate jdbcTemplate,
+                              @Value("${edudata.indices.crear-faltantes:false}") boolean crearFaltantes) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+        this.crearFaltantes = crearFaltantes;
+    }
+
+    /**
+     * Índice declarado en una entidad: nombre (puede estar vacío en las restricciones únicas),
+     * tabla, columnas en orden y si viene de una restricción única.
+     */
+    public record IndiceEsperado(String nombre, String tabla, List<String> columnas, boolean unico) {
+
+        String sentencia() {
+            String nombreIndice = !nombre.isEmpty() ? nombre
+                    : (unico ? "uk_" : "idx_") + tabla + "_" + String.join("_", columnas);
+            return "CREATE " + (unico ? "UNIQUE " : "") + "INDEX IF NOT EXISTS " + nombreIndice
+                    + " ON " + tabla + " (" + String.join(", ", columnas) + ")";
+        }
+
+        boolean cubiertoPor(IndiceExistente existente) {
+            if (unico) {
+                return existente.unico() && existente.columnas().size() == columnas.size()
+                        && existente.columnas().containsAll(columnas);
+            }
+            return existente.columnas().size() >= columnas.size()
+                    && existente.columnas().subList(0, columnas.size()).equals(columnas);
+        }
+    }
+
+    record IndiceExistente(List<String> columnas, boolean unico) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void verificarAlArrancar() {
+        try {
+            List<IndiceEsperado> faltantes = faltantes();
+            if (faltantes.isEmpty()) {
+                log.info("Índices verificados: todos los índices declarados existen");
+                return;
+            }
+            for (IndiceEsperado indice : faltantes) {
+                if (crearFaltantes) {
+                    crear(indice);
+                } else {
+                    log.warn("Falta un índice en {} {}: {}", indice.tabla(), indice.columnas(), indice.sentencia());
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("No se pudieron verificar los índices: {}", e.getMessage());
+        }
+    }
+
+    private void crear(IndiceEsperado indice) {
+        try {
+            jdbcTemplate.execute(indice.sentencia());
+            log.info("Índice creado: {}", indice.sentencia());
+        } catch (DataAccessException e) {
+            // Un índice único no se puede crear si la tabla ya tiene filas repetidas
+            log.warn("No se pudo crear el índice {} en {}: {}", indice.columnas(), indice.tabla(), e.getMessage());
+        }
+    }
+
+    /**
+     * Índices declarados en las entidades que no tienen equivalente en la base.
+     */
+    public List<IndiceEsperado> faltantes() {
+        Map<String, List<IndiceExistente>> existentes = new HashMap<>();
+        jdbcTemplate.query(INDICES_EXISTENTES, rs -> {
+            existentes.computeIfAbsent(rs.getString(1), t -> new ArrayList<>())
+                    .add(new IndiceExistente(Arrays.asList(rs.getString(2).split(",")), rs.getBoolean(3)));
+        });
+
+        List<IndiceEsperado> faltantes = new ArrayList<>();
+        for (IndiceEsperado esperado : esperados()) {
+            boolean cubierto = existentes.getOrDefault(esperado.tabla(), List.of()).stream()
+                    .anyMatch(esperado::cubiertoPor);
+            if (!cubierto) {
+                faltantes.add(esperado);
+            }
+        }
+        return faltantes;
+    }
+
+    private List<IndiceEsperado> esperados() {
+        List<IndiceEsperado> esperados = new ArrayList<>();
+        for (EntityType<?> entidad : entityManagerFactory.getMetamodel().getEntities()) {
+            Table tabla = entidad.getJavaType().getAnnotation(Table.class);
+            if (tabla == null) {
+                continue;
+            }
+            String nombreTabla = tabla.name().isEmpty() ? nombreFisico(entidad.getJavaType().getSimpleName()) : tabla.name();
+            for (Index indice : tabla.indexes()) {
+                esperados.add(new IndiceEsperado(indice.name(), nombreTabla, columnas(indice.columnList().split(",")), indice.unique()));
+            }
+            for (UniqueConstraint restriccion : tabla.uniqueConstraints()) {
+                esperados.add(new IndiceEsperado(restriccion.name(), nombreTabla, columnas(restriccion.columnNames()), true));
+            }
+        }
+        return esperados;
+    }
+
+    private static List<String> columnas(String[] nombres) {
+        // columnList admite "columna ASC|DESC"; solo interesa el nombre
+        return Arrays.stream(nombres)
+                .map(nombre -> nombre.trim().split("\\s+")[0].toLowerCase(Locale.ROOT))
+                .toList();
+    }
+
+    /**
+     * Nombre de tabla que genera la estrategia de nombres por defecto de Spring Boot
+     * (CamelCaseToUnderscoresNamingStrategy): AsistenciaBitmap -> asistencia_bitmap.
+     */
+    private static String nombreFisico(String nombreClase) {
+        return nombreClase.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,7 +1,11 @@
 package EduData.controller;
 
+import EduData.dto.AsistenciaMasivaDTO;
+import EduData.dto.ResumenAsistenciaDTO;
 import EduData.entity.Asistencia;
+import EduData.service.AsistenciaBitmapServicio;
 import EduData.service.AsistenciaServicio;
+import EduData.service.ExportacionServicio;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,11 +14,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/asistencias")
@@ -26,6 +35,12 @@ public class AsistenciaControlador {
     @Autowired
     private AsistenciaServicio asistenciaServicio;
 
+    @Autowired
+    private AsistenciaBitmapServicio asistenciaBitmapServicio;
+
+    @Autowired
+    private ExportacionServicio exportacionServicio;
+
     @GetMapping
     @Operation(
         summary = "Obtener todas las asistencias",
@@ -43,6 +58,40 @@ public class AsistenciaControlador {
         return asistenciaServicio.obtenerTodas();
     }
 
+    @GetMapping("/export")
+    @Operation(
+        summary = "Exportar todas las asistencias",
+        description = """
+            Descarga la tabla completa en CSV o NDJSON. Una fila por registro de asistencia con el id de su matrícula.
+            Las filas se envían a medida que se leen de la base, así que el volcado no se carga en memoria.
+            Con gzip=true la descarga se comprime (.gz).
+            """
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Archivo con todas las filas",
+            content = {
+                @Content(mediaType = "text/csv"),
+                @Content(mediaType = "application/x-ndjson"),
+                @Content(mediaType = "application/gzip")
+            }
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Formato no soportado"
+        )
+    })
+    public void exportar(
+        @Parameter(description = "csv o ndjson", example = "csv")
+        @RequestParam(defaultValue = "csv") String formato,
+        @Parameter(description = "Comprimir la descarga con gzip", example = "false")
+        @RequestParam(defaultValue = "false") boolean gzip,
+        HttpServletResponse response
+    ) throws IOException {
+        RespuestaExportacion.escribir(exportacionServicio, ExportacionServicio.Entidad.ASISTENCIAS, formato, gzip, response);
+    }
+
     @GetMapping("/{id}")
     @Operation(
         summary = "Obtener asistencia por ID",
@@ -76,41 +125,267 @@ public class AsistenciaControlador {
         summary = "Registrar nueva asistencia",
         description = "Marca la asistencia de un estudiante en una fecha específica. Requiere ID de estudiante, fecha y estado (presente/ausente)."
     )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200", 
+            description = "Asistencia registrada exitosamente",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = Asistencia.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "409", 
+            description = "La matrícula ya tiene asistencia registrada en esa fecha"
+        )
+    })
+    public ResponseEntity<?> crear(
+        @Parameter(description = "Datos del nuevo registro de asistencia", required = true)
+        @RequestBody Asistencia asistencia
+    ) {
+        try {
+            return ResponseEntity.ok(asistenciaServicio.crear(asistencia));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "La matrícula ya tiene asistencia registrada en esa fecha"));
+        }
+    }
+
+    @PostMapping("/sesion")
+    @Operation(
+        summary = "Registrar la asistencia de una sesión completa",
+        description = """
+            Registra en una sola petición la asistencia de todas las matrículas de un curso en una fecha.
+            
+            - Las matrículas deben pertenecer al curso indicado
+            - Es idempotente: si una matrícula ya tiene asistencia ese día se actualiza en lugar de duplicarse,
+              por lo que la petición se puede reintentar sin riesgo
+            """
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200", 
+            description = "Asistencia de la sesión registrada",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(example = "{\"creadas\": 38, \"actualizadas\": 2, \"sinCambios\": 0}")
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400", 
+            description = "Datos incompletos, matrículas repetidas o de otro curso"
+        ),
+        @ApiResponse(
+            responseCode = "409", 
+            description = "Otra petición registró la misma sesión al mismo tiempo; se puede reintentar"
+        )
+    })
+    public ResponseEntity<Map<String, Object>> registrarSesion(
+        @Parameter(description = "Curso, fecha y matrículas presentes y ausentes", required = true)
+        @RequestBody AsistenciaMasivaDTO sesion
+    ) {
+        try {
+            return ResponseEntity.ok(asistenciaServicio.registrarSesion(sesion));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "La sesión se está registrando en otra petición. Intente de nuevo."));
+        }
+    }
+
+    @GetMapping("/resumen/matriculas/{id}")
+    @Operation(
+        summary = "Resumen de asistencia de una matrícula en un semestre",
+        description = """
+            Días registrados, días presente, tasa de asistencia y rachas de ausencia y asistencia de la matrícula.
+            Se calcula sobre el mapa de bits del semestre. Sin anio ni periodo se usa el semestre en curso
+            (periodo 1 = enero a junio, 2 = julio a diciembre).
+            """
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Resumen de la matrícula",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ResumenAsistenciaDTO.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "La matrícula no tiene asistencias en el semestre"
+        )
+    })
+    public ResponseEntity<?> resumenMatricula(
+        @Parameter(description = "ID de la matrícula", required = true, example = "1")
+        @PathVariable Long id,
+        @Parameter(description = "Año del semestre", example = "2024")
+        @RequestParam(required = false) Integer anio,
+        @Parameter(description = "Semestre: 1 o 2", example = "1")
+        @RequestParam(required = false) Integer periodo
+    ) {
+        try {
+            return asistenciaBitmapServicio.porMatricula(id, AsistenciaBitmapServicio.Periodo.de(anio, periodo))
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/resumen/estudiantes/{id}")
+    @Operation(
+        summary = "Resumen de asistencia de un estudiante en un semestre",
+        description = "Un resumen por cada matrícula del estudiante con asistencias en el semestre."
+    )
     @ApiResponse(
-        responseCode = "200", 
-        description = "Asistencia registrada exitosamente",
+        responseCode = "200",
+        description = "Resúmenes por matrícula",
         content = @Content(
             mediaType = "application/json",
-            schema = @Schema(implementation = Asistencia.class)
+            schema = @Schema(implementation = ResumenAsistenciaDTO.class)
         )
     )
-    public Asistencia crear(
-        @Parameter(description = "Datos del nuevo registro de asistencia", required = true)
-        @RequestBody Asistencia asistencia
+    public ResponseEntity<?> resumenEstudiante(
+        @Parameter(description = "ID del estudiante", required = true, example = "1")
+        @PathVariable Long id,
+        @Parameter(description = "Año del semestre", example = "2024")
+        @RequestParam(required = false) Integer anio,
+        @Parameter(description = "Semestre: 1 o 2", example = "1")
+        @RequestParam(required = false) Integer periodo
     ) {
-        return asistenciaServicio.crear(asistencia);
+        try {
+            return ResponseEntity.ok(asistenciaBitmapServicio.porEstudiante(id, AsistenciaBitmapServicio.Periodo.de(anio, periodo)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
-    @PutMapping("/{id}")
+    @GetMapping("/resumen/cursos/{id}")
     @Operation(
-        summary = "Actualizar registro de asistencia",
-        description = "Modifica un registro de asistencia existente. Puede cambiar el estado (presente/ausente) o agregar observaciones."
+        summary = "Resumen de asistencia de un curso en un semestre",
+        description = "Matrículas con registro, días con clase, asistencias registradas y tasa de asistencia del curso."
     )
     @ApiResponse(
-        responseCode = "200", 
-        description = "Asistencia actualizada exitosamente",
+        responseCode = "200",
+        description = "Resumen del curso",
         content = @Content(
             mediaType = "application/json",
-            schema = @Schema(implementation = Asistencia.class)
+            schema = @Schema(example = "{\"cursoId\": 1, \"anio\": 2024, \"periodo\": 1, \"matriculas\": 35, \"diasConClase\": 72, \"asistenciasRegistradas\": 2520, \"asistenciasPresente\": 2301, \"tasaAsistencia\": 0.9131}")
         )
     )
-    public Asistencia actualizar(
+    public ResponseEntity<?> resumenCurso(
+        @Parameter(description = "ID del curso", required = true, example = "1")
+        @PathVariable Long id,
+        @Parameter(description = "Año del semestre", example = "2024")
+        @RequestParam(required = false) Integer anio,
+        @Parameter(description = "Semestre: 1 o 2", example = "1")
+        @RequestParam(required = false) Integer periodo
+    ) {
+        try {
+            return ResponseEntity.ok(asistenciaBitmapServicio.porCurso(id, AsistenciaBitmapServicio.Periodo.de(anio, periodo)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/alertas")
+    @Operation(
+        summary = "Alertas de inasistencia de un curso",
+        description = """
+            Matrículas del curso cuya tasa de asistencia en el semestre es menor que tasaMinima,
+            o que acumulan al menos rachaAusencias faltas seguidas en las últimas clases registradas.
+            Se ordenan por la racha actual de ausencias, de mayor a menor.
+            """
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Matrículas en alerta",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ResumenAsistenciaDTO.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Periodo, tasa o racha inválidos"
+        )
+    })
+    public ResponseEntity<?> alertas(
+        @Parameter(description = "ID del curso", required = true, example = "1")
+        @RequestParam Long cursoId,
+        @Parameter(description = "Año del semestre", example = "2024")
+        @RequestParam(required = false) Integer anio,
+        @Parameter(description = "Semestre: 1 o 2", example = "1")
+        @RequestParam(required = false) Integer periodo,
+        @Parameter(description = "Tasa de asistencia mínima, entre 0 y 1", example = "0.8")
+        @RequestParam(defaultValue = "0.8") double tasaMinima,
+        @Parameter(description = "Faltas seguidas que disparan la alerta", example = "3")
+        @RequestParam(defaultValue = "3") int rachaAusencias
+    ) {
+        try {
+            return ResponseEntity.ok(asistenciaBitmapServicio.alertas(cursoId,
+                    AsistenciaBitmapServicio.Periodo.de(anio, periodo), tasaMinima, rachaAusencias));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/resumen/migrar")
+    @Operation(
+        summary = "Migrar las asistencias a mapas de bits",
+        description = """
+            Reconstruye los mapas de bits de todas las matrículas a partir de los registros de asistencia.
+            Es necesario una vez para el historial anterior y cuando se cargan asistencias por fuera de la API;
+            las altas, cambios y bajas hechas por la API ya actualizan los mapas. Solo para administradores.
+            Mientras dura, la tabla de mapas queda bloqueada y los registros de asistencia esperan a que termine.
+            """
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Migración terminada",
+        content = @Content(
+            mediaType = "application/json",
+            schema = @Schema(example = "{\"filasLeidas\": 1250000, \"mapas\": 17500, \"bytes\": 805000, \"milisegundos\": 9400}")
+        )
+    )
+    public Map<String, Object> migrar() {
+        return asistenciaBitmapServicio.migrar();
+    }
+
+    @PutMapping("/{id}")
+    @Operation(
+        summary = "Actualizar registro de asistencia",
+        description = "Modifica un registro de asistencia existente. Puede cambiar el estado (presente/ausente) o agregar observaciones."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200", 
+            description = "Asistencia actualizada exitosamente",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = Asistencia.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "409", 
+            description = "La matrícula ya tiene otra asistencia registrada en esa fecha"
+        )
+    })
+    public ResponseEntity<?> actualizar(
         @Parameter(description = "ID del registro de asistencia a actualizar", required = true)
         @PathVariable Long id, 
         @Parameter(description = "Nuevos datos del registro de asistencia", required = true)
         @RequestBody Asistencia asistencia
     ) {
-        return asistenciaServicio.actualizar(id, asistencia);
+        try {
+            return ResponseEntity.ok(asistenciaServicio.actualizar(id, asistencia));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "La matrícula ya tiene otra asistencia registrada en esa fecha"));
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -1,7 +1,13 @@
 package EduData.controller;
 
+import EduData.dto.HistogramaDTO;
+import EduData.dto.PromedioDTO;
+import EduData.dto.ResumenCalificacionDTO;
 import EduData.entity.Calificacion;
+import EduData.service.AnaliticaCalificacionesServicio;
 import EduData.service.CalificacionServicio;
+import EduData.service.ExportacionServicio;
+import EduData.service.ResumenCalificacionServicio;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,11 +16,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/calificaciones")
@@ -26,6 +35,15 @@ public class CalificacionControlador {
     @Autowired
     private CalificacionServicio calificacionServicio;
 
+    @Autowired
+    private AnaliticaCalificacionesServicio analiticaServicio;
+
+    @Autowired
+    private ResumenCalificacionServicio resumenServicio;
+
+    @Autowired
+    private ExportacionServicio exportacionServicio;
+
     @GetMapping
     @Operation(
         summary = "Obtener todas las calificaciones",
@@ -43,6 +61,247 @@ public class CalificacionControlador {
         return calificacionServicio.obtenerTodas();
     }
 
+    @GetMapping("/promedios/matriculas")
+    @Operation(
+        summary = "Promedios por matrícula",
+        description = "Promedio ponderado por tipo de evaluación, mínimo, máximo y aprobación de cada matrícula. " +
+                      "Se puede filtrar por curso o por estudiante. Se calcula con una consulta agrupada en la base de datos."
+    )
+    @ApiResponse(
+        responseCode = "200", 
+        description = "Promedios por matrícula",
+        content = @Content(
+            mediaType = "application/json",
+            schema = @Schema(implementation = PromedioDTO.class)
+        )
+    )
+    public List<PromedioDTO> promediosPorMatricula(
+        @Parameter(description = "Filtrar por ID de curso", example = "1")
+        @RequestParam(required = false) Long cursoId,
+        @Parameter(description = "Filtrar por ID de estudiante", example = "1")
+        @RequestParam(required = false) Long estudianteId
+    ) {
+        return analiticaServicio.promediosPorMatricula(cursoId, estudianteId);
+    }
+
+    @GetMapping("/promedios/cursos")
+    @Operation(
+        summary = "Promedios por curso",
+        description = "Promedio ponderado de todas las calificaciones de cada curso, opcionalmente de un año."
+    )
+    @ApiResponse(
+        responseCode = "200", 
+        description = "Promedios por curso",
+        content = @Content(
+            mediaType = "application/json",
+            schema = @Schema(implementation = PromedioDTO.class)
+        )
+    )
+    public List<PromedioDTO> promediosPorCurso(
+        @Parameter(description = "Filtrar por año del curso", example = "2024")
+        @RequestParam(required = false) Integer anio
+    ) {
+        return analiticaServicio.promediosPorCurso(anio);
+    }
+
+    @GetMapping("/promedios/estudiantes")
+    @Operation(
+        summary = "Promedios por estudiante",
+        description = "Promedio ponderado de cada estudiante sobre todas sus matrículas, o solo las de un curso."
+    )
+    @ApiResponse(
+        responseCode = "200", 
+        description = "Promedios por estudiante",
+        content = @Content(
+            mediaType = "application/json",
+            schema = @Schema(implementation = PromedioDTO.class)
+        )
+    )
+    public List<PromedioDTO> promediosPorEstudiante(
+        @Parameter(description = "Filtrar por ID de curso", example = "1")
+        @RequestParam(required = false) Long cursoId
+    ) {
+        return analiticaServicio.promediosPorEstudiante(cursoId);
+    }
+
+    @GetMapping("/ranking")
+    @Operation(
+        summary = "Ranking de estudiantes",
+        description = "Los N estudiantes con mejor promedio ponderado, opcionalmente dentro de un curso."
+    )
+    @ApiResponse(
+        responseCode = "200", 
+        description = "Ranking de estudiantes",
+        content = @Content(
+            mediaType = "application/json",
+            schema = @Schema(implementation = PromedioDTO.class)
+        )
+    )
+    public List<PromedioDTO> ranking(
+        @Parameter(description = "Número de estudiantes", example = "10")
+        @RequestParam(defaultValue = "10") int n,
+        @Parameter(description = "Filtrar por ID de curso", example = "1")
+        @RequestParam(required = false) Long cursoId,
+        @Parameter(description = "Mínimo de calificaciones para entrar en el ranking", example = "1")
+        @RequestParam(defaultValue = "1") int minCalificaciones
+    ) {
+        return analiticaServicio.ranking(n, cursoId, minCalificaciones);
+    }
+
+    @GetMapping("/distribucion")
+    @Operation(
+        summary = "Distribución de notas por tipo de evaluación",
+        description = "Histograma de notas por tipo con intervalos del ancho indicado."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200", 
+            description = "Histogramas por tipo",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = HistogramaDTO.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400", 
+            description = "Ancho de intervalo inválido"
+        )
+    })
+    public ResponseEntity<List<HistogramaDTO>> distribucion(
+        @Parameter(description = "Ancho de cada intervalo", example = "0.5")
+        @RequestParam(defaultValue = "1.0") double ancho,
+        @Parameter(description = "Filtrar por ID de curso", example = "1")
+        @RequestParam(required = false) Long cursoId
+    ) {
+        try {
+            return ResponseEntity.ok(analiticaServicio.distribucion(ancho, cursoId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/resumen/matriculas/{id}")
+    @Operation(
+        summary = "Resumen de calificaciones de una matrícula",
+        description = "Cantidad, promedio, mínimo y máximo de la matrícula leídos de la tabla de resumen, " +
+                      "que se actualiza con cada alta, modificación o baja de calificación."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200", 
+            description = "Resumen de la matrícula",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ResumenCalificacionDTO.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "404", 
+            description = "La matrícula no tiene calificaciones"
+        )
+    })
+    public ResponseEntity<ResumenCalificacionDTO> resumenMatricula(
+        @Parameter(description = "ID de la matrícula", required = true, example = "1")
+        @PathVariable Long id
+    ) {
+        return resumenServicio.porMatricula(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/resumen/cursos/{id}")
+    @Operation(
+        summary = "Resumen de calificaciones de un curso",
+        description = "Combina los resúmenes de las matrículas del curso, sin recorrer sus calificaciones."
+    )
+    @ApiResponse(
+        responseCode = "200", 
+        description = "Resumen del curso",
+        content = @Content(
+            mediaType = "application/json",
+            schema = @Schema(implementation = ResumenCalificacionDTO.class)
+        )
+    )
+    public ResumenCalificacionDTO resumenCurso(
+        @Parameter(description = "ID del curso", required = true, example = "1")
+        @PathVariable Long id
+    ) {
+        return resumenServicio.porCurso(id);
+    }
+
+    @GetMapping("/resumen/estudiantes/{id}")
+    @Operation(
+        summary = "Resumen de calificaciones de un estudiante",
+        description = "Combina los resúmenes de todas las matrículas del estudiante, sin recorrer sus calificaciones."
+    )
+    @ApiResponse(
+        responseCode = "200", 
+        description = "Resumen del estudiante",
+        content = @Content(
+            mediaType = "application/json",
+            schema = @Schema(implementation = ResumenCalificacionDTO.class)
+        )
+    )
+    public ResumenCalificacionDTO resumenEstudiante(
+        @Parameter(description = "ID del estudiante", required = true, example = "1")
+        @PathVariable Long id
+    ) {
+        return resumenServicio.porEstudiante(id);
+    }
+
+    @PostMapping("/resumen/reconstruir")
+    @Operation(
+        summary = "Reconstruir la tabla de resumen",
+        description = "Recalcula el resumen de todas las matrículas a partir de las calificaciones. " +
+                      "Necesario solo si se cargaron calificaciones sin pasar por la API. " +
+                      "Solo para administradores."
+    )
+    @ApiResponse(
+        responseCode = "200", 
+        description = "Resumen reconstruido",
+        content = @Content(
+            mediaType = "application/json",
+            schema = @Schema(example = "{\"matriculas\": 120}")
+        )
+    )
+    public Map<String, Object> reconstruirResumen() {
+        return Map.of("matriculas", resumenServicio.reconstruir());
+    }
+
+    @GetMapping("/export")
+    @Operation(
+        summary = "Exportar todas las calificaciones",
+        description = """
+            Descarga la tabla completa en CSV o NDJSON. Una fila por calificación con el id de su matrícula.
+            Las filas se envían a medida que se leen de la base, así que el volcado no se carga en memoria.
+            Con gzip=true la descarga se comprime (.gz).
+            """
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Archivo con todas las filas",
+            content = {
+                @Content(mediaType = "text/csv"),
+                @Content(mediaType = "application/x-ndjson"),
+                @Content(mediaType = "application/gzip")
+            }
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Formato no soportado"
+        )
+    })
+    public void exportar(
+        @Parameter(description = "csv o ndjson", example = "csv")
+        @RequestParam(defaultValue = "csv") String formato,
+        @Parameter(description = "Comprimir la descarga con gzip", example = "false")
+        @RequestParam(defaultValue = "false") boolean gzip,
+        HttpServletResponse response
+    ) throws IOException {
+        RespuestaExportacion.escribir(exportacionServicio, ExportacionServicio.Entidad.CALIFICACIONES, formato, gzip, response);
+    }
+
     @GetMapping("/{id}")
     @Operation(
         summary = "Obtener calificación por ID",
@@ -1,7 +1,9 @@
 package EduData.controller;
 
+import EduData.dto.CursoDTO;
 import EduData.entity.Curso;
 import EduData.service.CursoServicio;
+import EduData.service.ExportacionServicio;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,10 +12,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -26,6 +30,9 @@ public class CursoControlador {
     @Autowired
     private CursoServicio cursoServicio;
 
+    @Autowired
+    private ExportacionServicio exportacionServicio;
+
     @GetMapping
     @Operation(
         summary = "Obtener todos los cursos",
@@ -43,6 +50,58 @@ public class CursoControlador {
         return cursoServicio.obtenerTodos();
     }
 
+    @GetMapping(params = "plano=true")
+    @Operation(
+        summary = "Obtener todos los cursos en formato plano",
+        description = "Versión de solo lectura del listado: una fila por curso con el nombre del docente " +
+                     "en lugar del objeto anidado. Se activa enviando 'plano=true'."
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Lista de cursos obtenida exitosamente",
+        content = @Content(
+            mediaType = "application/json",
+            schema = @Schema(implementation = CursoDTO.class)
+        )
+    )
+    public List<CursoDTO> listarPlano() {
+        return cursoServicio.obtenerTodosPlanos();
+    }
+
+    @GetMapping("/export")
+    @Operation(
+        summary = "Exportar todos los cursos",
+        description = """
+            Descarga la tabla completa en CSV o NDJSON. Campos del curso con el id y el email del docente.
+            Las filas se envían a medida que se leen de la base, así que el volcado no se carga en memoria.
+            Con gzip=true la descarga se comprime (.gz).
+            """
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Archivo con todas las filas",
+            content = {
+                @Content(mediaType = "text/csv"),
+                @Content(mediaType = "application/x-ndjson"),
+                @Content(mediaType = "application/gzip")
+            }
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Formato no soportado"
+        )
+    })
+    public void exportar(
+        @Parameter(description = "csv o ndjson", example = "csv")
+        @RequestParam(defaultValue = "csv") String formato,
+        @Parameter(description = "Comprimir la descarga con gzip", example = "false")
+        @RequestParam(defaultValue = "false") boolean gzip,
+        HttpServletResponse response
+    ) throws IOException {
+        RespuestaExportacion.escribir(exportacionServicio, ExportacionServicio.Entidad.CURSOS, formato, gzip, response);
+    }
+
     @GetMapping("/{id}")
     @Operation(
         summary = "Obtener curso por ID",
@@ -0,0 +1,64 @@
+package EduData.controller;
+
+import EduData.service.EstadisticasServicio;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stats")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "JWT")
+@Tag(name = "Estadísticas", description = "Totales agregados del sistema para el dashboard")
+public class EstadisticasControlador {
+
+    private final EstadisticasServicio estadisticasServicio;
+
+    @GetMapping
+    @Operation(
+        summary = "Obtener estadísticas del sistema",
+        description = """
+            Devuelve en una sola respuesta los totales de estudiantes, cursos, docentes y matrículas,
+            junto con conteos agrupados por estado, nivel y grupo de estudiante y por año de curso.
+            
+            Los valores se calculan con consultas COUNT y se mantienen en memoria unos segundos,
+            por lo que pueden tener un pequeño retraso respecto a los últimos cambios.
+            """
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Estadísticas obtenidas exitosamente",
+        content = @Content(
+            mediaType = "application/json",
+            schema = @Schema(
+                example = """
+                {
+                    "totalEstudiantes": 4,
+                    "totalCursos": 4,
+                    "totalDocentes": 3,
+                    "totalMatriculas": 12,
+                    "estudiantesPorEstado": { "Activo": 4 },
+                    "estudiantesPorNivel": { "Universitario": 4 },
+                    "estudiantesPorGrupo": { "A": 2, "B": 2 },
+                    "cursosPorAnio": { "2024": 4 },
+                    "generadoEn": 1703123456789
+                }
+                """
+            )
+        )
+    )
+    public Map<String, Object> obtenerEstadisticas() {
+        return estadisticasServicio.obtenerEstadisticas();
+    }
+}
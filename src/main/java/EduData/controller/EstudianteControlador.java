@@ -1,7 +1,11 @@
 package EduData.controller;
 
+import EduData.dto.PaginaDTO;
 import EduData.entity.Estudiante;
+import EduData.service.BoletinServicio;
 import EduData.service.EstudianteServicio;
+import EduData.service.ExportacionServicio;
+import EduData.service.PdfCache;
 import EduData.service.PdfService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,13 +15,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.OutputStream;
+import java.io.IOException;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -31,16 +42,68 @@ public class EstudianteControlador {
     private static final Logger logger = LoggerFactory.getLogger(EstudianteControlador.class);
     private final EstudianteServicio servicio;
     private final PdfService pdfService;
+    private final BoletinServicio boletinServicio;
+    private final PdfCache pdfCache;
+    private final ExportacionServicio exportacionServicio;
 
-    public EstudianteControlador(EstudianteServicio servicio, PdfService pdfService) {
+    public EstudianteControlador(EstudianteServicio servicio, PdfService pdfService,
+                                 BoletinServicio boletinServicio, PdfCache pdfCache,
+                                 ExportacionServicio exportacionServicio) {
         this.servicio = servicio;
         this.pdfService = pdfService;
+        this.boletinServicio = boletinServicio;
+        this.pdfCache = pdfCache;
+        this.exportacionServicio = exportacionServicio;
     }
 
     @GetMapping
+    @Operation(
+        summary = "Listar estudiantes paginados",
+        description = "Devuelve una página de estudiantes usando paginación por cursor (keyset). " +
+                     "Para obtener la página siguiente se envía el valor de 'siguienteCursor' de la respuesta anterior. " +
+                     "El orden puede ser 'id' (por defecto), 'apellido' o 'matriculaAnio'."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Página de estudiantes obtenida exitosamente",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = PaginaDTO.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Cursor u orden inválido"
+        )
+    })
+    public ResponseEntity<PaginaDTO<Estudiante>> getPage(
+        @Parameter(description = "Cursor opaco devuelto por la página anterior")
+        @RequestParam(required = false) String cursor,
+        @Parameter(description = "Cantidad de estudiantes por página", example = "50")
+        @RequestParam(required = false) Integer tamanio,
+        @Parameter(description = "Campo de orden: id, apellido o matriculaAnio", example = "id")
+        @RequestParam(required = false, defaultValue = "id") String orden
+    ) {
+        try {
+            PaginaDTO<Estudiante> pagina = servicio.getStudentsPage(cursor, tamanio, orden);
+            logger.info("Página de estudiantes: {} registros, orden {}, hayMas={}",
+                    pagina.getTamanio(), pagina.getOrden(), pagina.isHayMas());
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Parámetros de paginación inválidos: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error al obtener página de estudiantes: ", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping(params = "todos=true")
     @Operation(
         summary = "Obtener todos los estudiantes",
         description = "Devuelve una lista completa de todos los estudiantes registrados en el sistema. " +
+                     "Solo se activa enviando explícitamente 'todos=true'; para listados grandes use la versión paginada. " +
                      "Incluye manejo de errores de base de datos devolviendo lista vacía en caso de fallo."
     )
     @ApiResponses(value = {
@@ -67,6 +130,40 @@ public class EstudianteControlador {
         }
     }
 
+    @GetMapping("/export")
+    @Operation(
+        summary = "Exportar todos los estudiantes",
+        description = """
+            Descarga la tabla completa en CSV o NDJSON. Todos los campos del estudiante.
+            Las filas se envían a medida que se leen de la base, así que el volcado no se carga en memoria.
+            Con gzip=true la descarga se comprime (.gz).
+            """
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Archivo con todas las filas",
+            content = {
+                @Content(mediaType = "text/csv"),
+                @Content(mediaType = "application/x-ndjson"),
+                @Content(mediaType = "application/gzip")
+            }
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Formato no soportado"
+        )
+    })
+    public void exportar(
+        @Parameter(description = "csv o ndjson", example = "csv")
+        @RequestParam(defaultValue = "csv") String formato,
+        @Parameter(description = "Comprimir la descarga con gzip", example = "false")
+        @RequestParam(defaultValue = "false") boolean gzip,
+        HttpServletResponse response
+    ) throws IOException {
+        RespuestaExportacion.escribir(exportacionServicio, ExportacionServicio.Entidad.ESTUDIANTES, formato, gzip, response);
+    }
+
     @GetMapping("/{id}")
     @Operation(
         summary = "Obtener estudiante por ID",
@@ -201,36 +298,130 @@ public class EstudianteControlador {
     @GetMapping("/pdf")
     @Operation(
         summary = "Generar reporte PDF de todos los estudiantes",
-        description = "Crea un documento PDF con la lista completa de estudiantes registrados."
-    )
-    @ApiResponse(
-        responseCode = "200", 
-        description = "PDF generado exitosamente",
-        content = @Content(mediaType = "application/pdf")
+        description = "Crea un documento PDF con la lista completa de estudiantes registrados. " +
+                     "El PDF se envía a medida que se genera, por lo que la respuesta no incluye Content-Length. " +
+                     "La respuesta lleva un ETag: si se envía en If-None-Match y los datos no cambiaron, se responde 304."
     )
-    public ResponseEntity<byte[]> generatePdf() {
-        try {
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200", 
+            description = "PDF generado exitosamente",
+            content = @Content(mediaType = "application/pdf")
+        ),
+        @ApiResponse(
+            responseCode = "304", 
+            description = "El PDF no cambió desde la última descarga"
+        )
+    })
+    public ResponseEntity<StreamingResponseBody> generatePdf(WebRequest webRequest) {
+        String etag = pdfService.etagListado();
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        byte[] enCache = pdfCache.buscar(etag);
+        StreamingResponseBody cuerpo = salida -> {
+            if (enCache != null) {
+                salida.write(enCache);
+                return;
+            }
             logger.info("Generando PDF de todos los estudiantes");
-            byte[] pdfBytes = pdfService.generateEstudiantesPdf();
+            try {
+                OutputStream conCopia = pdfCache.guardarAlEscribir(etag, salida);
+                pdfService.escribirEstudiantesPdf(conCopia);
+                // Solo al cerrar se guarda la copia: si la generación falla no se cachea nada
+                conCopia.close();
+            } catch (Exception e) {
+                // La respuesta ya está comprometida: solo se puede registrar y cortar la descarga
+                logger.error("Error al generar PDF de estudiantes: ", e);
+                throw new IllegalStateException("Error al generar PDF de estudiantes", e);
+            }
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", "estudiantes.pdf");
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(cuerpo);
+    }
+
+    @GetMapping("/boletines")
+    @Operation(
+        summary = "Generar boletines de calificaciones por grupo, nivel o curso",
+        description = """
+            Genera en una sola petición el boletín de calificaciones de cada estudiante de un grupo,
+            un nivel o un curso. Se debe indicar exactamente uno de los filtros.
             
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", "estudiantes.pdf");
-            headers.setContentLength(pdfBytes.length);
+            - formato=zip (por defecto): un PDF por estudiante dentro de un archivo ZIP
+            - formato=pdf: todos los boletines en un único PDF
             
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(pdfBytes);
-        } catch (Exception e) {
-            logger.error("Error al generar PDF de estudiantes: ", e);
-            return ResponseEntity.internalServerError().build();
+            El archivo se envía a medida que se genera. Para grupos muy grandes también se puede
+            encolar con POST /api/reportes/boletines.
+            """
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200", 
+            description = "Boletines generados",
+            content = {
+                @Content(mediaType = "application/zip"),
+                @Content(mediaType = "application/pdf")
+            }
+        ),
+        @ApiResponse(
+            responseCode = "400", 
+            description = "Filtro o formato inválido"
+        )
+    })
+    public ResponseEntity<StreamingResponseBody> generateBoletines(
+        @Parameter(description = "Grupo de los estudiantes", example = "A")
+        @RequestParam(required = false) String grupo,
+        @Parameter(description = "Nivel de los estudiantes", example = "Primero")
+        @RequestParam(required = false) String nivel,
+        @Parameter(description = "ID del curso", example = "1")
+        @RequestParam(required = false) Long cursoId,
+        @Parameter(description = "Formato de salida: zip o pdf", example = "zip")
+        @RequestParam(defaultValue = "zip") String formato
+    ) {
+        List<Estudiante> estudiantes;
+        BoletinServicio.Formato formatoSalida;
+        try {
+            formatoSalida = BoletinServicio.Formato.valueOf(formato.toUpperCase());
+            estudiantes = boletinServicio.seleccionar(grupo, nivel, cursoId);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Petición de boletines inválida: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         }
+        logger.info("Generando {} boletines en formato {}", estudiantes.size(), formatoSalida);
+
+        StreamingResponseBody cuerpo = salida -> {
+            try {
+                boletinServicio.escribir(estudiantes, formatoSalida, salida);
+            } catch (Exception e) {
+                logger.error("Error al generar boletines: ", e);
+                throw new IllegalStateException("Error al generar boletines", e);
+            }
+        };
+
+        boolean zip = formatoSalida == BoletinServicio.Formato.ZIP;
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(zip ? MediaType.parseMediaType("application/zip") : MediaType.APPLICATION_PDF);
+        headers.setContentDispositionFormData("attachment", zip ? "boletines.zip" : "boletines.pdf");
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(cuerpo);
     }
 
     @GetMapping("/{id}/pdf")
     @Operation(
         summary = "Generar reporte PDF de un estudiante específico",
-        description = "Crea un documento PDF con los datos detallados de un estudiante individual."
+        description = "Crea un documento PDF con los datos detallados de un estudiante individual. " +
+                     "Admite If-None-Match igual que el listado completo."
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -238,6 +429,10 @@ public class EstudianteControlador {
             description = "PDF del estudiante generado exitosamente",
             content = @Content(mediaType = "application/pdf")
         ),
+        @ApiResponse(
+            responseCode = "304", 
+            description = "El PDF no cambió desde la última descarga"
+        ),
         @ApiResponse(
             responseCode = "500", 
             description = "Error al generar PDF - estudiante no encontrado"
@@ -245,11 +440,21 @@ public class EstudianteControlador {
     })
     public ResponseEntity<byte[]> generateStudentPdf(
         @Parameter(description = "ID del estudiante para generar el PDF", required = true)
-        @PathVariable Long id
+        @PathVariable Long id,
+        WebRequest webRequest
     ) {
         try {
-            logger.info("Generando PDF del estudiante con ID: {}", id);
-            byte[] pdfBytes = pdfService.generateEstudiantePdf(id);
+            String etag = pdfService.etagEstudiante(id);
+            if (webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+
+            byte[] pdfBytes = pdfCache.buscar(etag);
+            if (pdfBytes == null) {
+                logger.info("Generando PDF del estudiante con ID: {}", id);
+                pdfBytes = pdfService.generateEstudiantePdf(id);
+                pdfCache.guardar(etag, pdfBytes);
+            }
             
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_PDF);
@@ -258,6 +463,8 @@ public class EstudianteControlador {
             
             return ResponseEntity.ok()
                     .headers(headers)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
                     .body(pdfBytes);
         } catch (Exception e) {
             logger.error("Error al generar PDF del estudiante con ID {}: ", id, e);
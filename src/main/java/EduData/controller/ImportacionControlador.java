@@ -0,0 +1,90 @@
+package EduData.controller;
+
+import EduData.dto.ResultadoImportacionDTO;
+import EduData.service.ImportacionServicio;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/importacion")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "JWT")
+@Tag(name = "Importación", description = "Carga masiva de estudiantes, cursos y matrículas desde archivos CSV o JSON lines")
+public class ImportacionControlador {
+
+    private final ImportacionServicio importacionServicio;
+
+    @PostMapping("/{entidad}")
+    @Operation(
+        summary = "Importar un archivo CSV o JSON lines",
+        description = """
+            El archivo se envía como cuerpo de la petición (no multipart) y se procesa a medida que llega.
+            
+            - entidad: estudiantes, cursos o matriculas
+            - CSV (Content-Type text/csv): la primera fila es el encabezado; separador coma o punto y coma
+            - JSON lines (Content-Type application/x-ndjson): un objeto por línea
+            
+            Columnas:
+            - estudiantes: identificacion, nombre, apellido (obligatorias), correo, fechaNacimiento (AAAA-MM-DD),
+              genero, telefono, direccion, matriculaAnio, estado, nivel, grupo
+            - cursos: codigo, nombre (obligatorias), descripcion, anio, docenteEmail
+            - matriculas: identificacion (del estudiante), codigo (del curso), anio
+            
+            Las filas con errores se informan con su número de línea y no impiden importar las demás.
+            """
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Importación terminada; puede incluir filas con error",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ResultadoImportacionDTO.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Entidad o formato no soportados, archivo vacío o encabezado sin columnas obligatorias"
+        )
+    })
+    public ResponseEntity<?> importar(
+        @Parameter(description = "estudiantes, cursos o matriculas", required = true, example = "estudiantes")
+        @PathVariable String entidad,
+        @Parameter(description = "csv o jsonl; si se omite se deduce del Content-Type", example = "csv")
+        @RequestParam(required = false) String formato,
+        HttpServletRequest request
+    ) throws IOException {
+        try {
+            ImportacionServicio.Entidad tipo = ImportacionServicio.Entidad.valueOf(entidad.toUpperCase(Locale.ROOT));
+            return ResponseEntity.ok(importacionServicio.importar(tipo, formato(formato, request.getContentType()),
+                    request.getInputStream()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static ImportacionServicio.Formato formato(String formato, String contentType) {
+        if (formato != null) {
+            return ImportacionServicio.Formato.valueOf(formato.toUpperCase(Locale.ROOT));
+        }
+        String tipo = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+        return tipo.contains("ndjson") || tipo.contains("jsonl") || tipo.contains("json-seq")
+                ? ImportacionServicio.Formato.JSONL
+                : ImportacionServicio.Formato.CSV;
+    }
+}
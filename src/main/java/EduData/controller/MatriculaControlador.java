@@ -1,6 +1,8 @@
 package EduData.controller;
 
+import EduData.dto.MatriculaDTO;
 import EduData.entity.Matricula;
+import EduData.service.ExportacionServicio;
 import EduData.service.MatriculaServicio;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,10 +12,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -26,6 +30,9 @@ public class MatriculaControlador {
     @Autowired
     private MatriculaServicio matriculaServicio;
 
+    @Autowired
+    private ExportacionServicio exportacionServicio;
+
     @GetMapping
     @Operation(
         summary = "Obtener todas las matrículas",
@@ -43,6 +50,58 @@ public class MatriculaControlador {
         return matriculaServicio.obtenerTodas();
     }
 
+    @GetMapping(params = "plano=true")
+    @Operation(
+        summary = "Obtener todas las matrículas en formato plano",
+        description = "Versión de solo lectura del listado: una fila por matrícula con el nombre del estudiante " +
+                     "y el nombre y código del curso, sin los objetos anidados. Se activa enviando 'plano=true'."
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Lista de matrículas obtenida exitosamente",
+        content = @Content(
+            mediaType = "application/json",
+            schema = @Schema(implementation = MatriculaDTO.class)
+        )
+    )
+    public List<MatriculaDTO> listarPlano() {
+        return matriculaServicio.obtenerTodasPlanas();
+    }
+
+    @GetMapping("/export")
+    @Operation(
+        summary = "Exportar todas las matrículas",
+        description = """
+            Descarga la tabla completa en CSV o NDJSON. Incluye la identificación del estudiante y el código del curso, las columnas que usa POST /api/importacion/matriculas.
+            Las filas se envían a medida que se leen de la base, así que el volcado no se carga en memoria.
+            Con gzip=true la descarga se comprime (.gz).
+            """
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Archivo con todas las filas",
+            content = {
+                @Content(mediaType = "text/csv"),
+                @Content(mediaType = "application/x-ndjson"),
+                @Content(mediaType = "application/gzip")
+            }
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Formato no soportado"
+        )
+    })
+    public void exportar(
+        @Parameter(description = "csv o ndjson", example = "csv")
+        @RequestParam(defaultValue = "csv") String formato,
+        @Parameter(description = "Comprimir la descarga con gzip", example = "false")
+        @RequestParam(defaultValue = "false") boolean gzip,
+        HttpServletResponse response
+    ) throws IOException {
+        RespuestaExportacion.escribir(exportacionServicio, ExportacionServicio.Entidad.MATRICULAS, formato, gzip, response);
+    }
+
     @GetMapping("/{id}")
     @Operation(
         summary = "Obtener matrícula por ID",
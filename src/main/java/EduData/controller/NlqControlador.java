@@ -10,12 +10,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import EduData.service.NlqServiceMejorado;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
@@ -120,6 +123,100 @@ public class NlqControlador {
         return service.answer(pregunta);
     }
     
+    @PostMapping(
+            path= "/pregunta/async",
+            consumes = MediaType.TEXT_PLAIN_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Consulta en lenguaje natural (asíncrona)",
+        description = """
+            Igual que /api/nlq/pregunta, pero el hilo del servidor se libera mientras se espera la respuesta de la IA.
+            Recomendado para clientes con muchas consultas concurrentes: una respuesta lenta del modelo
+            no bloquea un hilo de Tomcat.
+            """
+    )
+    @ApiResponse(
+        responseCode = "200", 
+        description = "Consulta procesada exitosamente",
+        content = @Content(mediaType = "application/json")
+    )
+    public Mono<List<Map<String, Object>>> consultaAsync(
+        @Parameter(hidden = true)
+        @RequestBody String pregunta
+    ){
+        return service.answerAsync(pregunta);
+    }
+
+    @PostMapping(
+            path= "/pregunta/stream",
+            consumes = MediaType.TEXT_PLAIN_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Consulta en lenguaje natural con resultados en streaming",
+        description = """
+            Igual que /api/nlq/pregunta, pero las filas se envían como NDJSON (un objeto JSON por línea)
+            a medida que se leen de la base de datos, sin cargar el resultado completo en memoria.
+            
+            La última línea es siempre un resumen: {"resumen": {"filasEscaneadas": n, "truncado": false, "maxFilas": 5000}}.
+            Si la consulta falla, se envía una línea con la clave "error" antes del resumen.
+            """
+    )
+    @ApiResponse(
+        responseCode = "200", 
+        description = "Filas de la consulta, una por línea",
+        content = @Content(
+            mediaType = "application/x-ndjson",
+            schema = @Schema(
+                example = """
+                {"id":1,"nombre":"Juan","apellido":"Pérez"}
+                {"id":2,"nombre":"Ana","apellido":"Gómez"}
+                {"resumen":{"filasEscaneadas":2,"truncado":false,"maxFilas":5000}}
+                """
+            )
+        )
+    )
+    public ResponseEntity<StreamingResponseBody> consultaStream(
+        @Parameter(hidden = true)
+        @RequestBody String pregunta
+    ){
+        StreamingResponseBody cuerpo = salida -> service.answerStream(pregunta, salida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(cuerpo);
+    }
+
+    @GetMapping("/cache/estadisticas")
+    @Operation(
+        summary = "Estadísticas de la cache de traducciones",
+        description = "Devuelve aciertos, fallos, expulsiones y tamaño actual de la cache pregunta → JPQL, " +
+                      "junto con cuántas preguntas se resolvieron con el traductor local sin llamar a la IA."
+    )
+    @ApiResponse(
+        responseCode = "200", 
+        description = "Estadísticas de la cache",
+        content = @Content(
+            mediaType = "application/json",
+            schema = @Schema(
+                example = """
+                {
+                    "aciertos": 42,
+                    "fallos": 8,
+                    "tasaAciertos": 0.84,
+                    "expulsiones": 0,
+                    "entradas": 8,
+                    "maxEntradas": 500,
+                    "ttlMinutos": 60,
+                    "resueltasLocalmente": 120,
+                    "derivadasAIa": 50
+                }
+                """
+            )
+        )
+    )
+    public Map<String, Object> estadisticasCache() {
+        return service.estadisticasCache();
+    }
+    
     @GetMapping("/test")
     @Operation(
         summary = "Verificar estado del servicio NLQ",
@@ -0,0 +1,254 @@
+package EduData.controller;
+
+import EduData.dto.ReporteJobDTO;
+import EduData.entity.Estudiante;
+import EduData.service.BoletinServicio;
+import EduData.service.PdfService;
+import EduData.service.ReporteJobServicio;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/reportes")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "JWT")
+@Tag(name = "Reportes", description = "Generación asíncrona de reportes PDF: se encola el trabajo, se consulta su estado y se descarga cuando está listo")
+public class ReporteControlador {
+
+    private final ReporteJobServicio reporteJobServicio;
+    private final PdfService pdfService;
+    private final BoletinServicio boletinServicio;
+
+    @PostMapping("/estudiantes")
+    @Operation(
+        summary = "Encolar el listado PDF de estudiantes",
+        description = """
+            Encola la generación del listado completo de estudiantes y devuelve el id del trabajo.
+            El estado se consulta en GET /api/reportes/{id} y el PDF se descarga en GET /api/reportes/{id}/descarga.
+            """
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "202",
+            description = "Trabajo encolado",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ReporteJobDTO.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "429",
+            description = "El usuario ya tiene el máximo de reportes en proceso"
+        ),
+        @ApiResponse(
+            responseCode = "503",
+            description = "La cola de reportes está llena"
+        )
+    })
+    public ResponseEntity<?> encolarListadoEstudiantes(Authentication authentication) {
+        return encolar(authentication, "LISTADO_ESTUDIANTES", "estudiantes.pdf",
+                pdfService::escribirEstudiantesPdf);
+    }
+
+    @PostMapping("/estudiantes/{id}")
+    @Operation(
+        summary = "Encolar la ficha PDF de un estudiante",
+        description = "Encola la generación de la ficha de un estudiante y devuelve el id del trabajo."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "202",
+            description = "Trabajo encolado",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ReporteJobDTO.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "429",
+            description = "El usuario ya tiene el máximo de reportes en proceso"
+        ),
+        @ApiResponse(
+            responseCode = "503",
+            description = "La cola de reportes está llena"
+        )
+    })
+    public ResponseEntity<?> encolarFichaEstudiante(
+        @Parameter(description = "ID del estudiante", required = true, example = "1")
+        @PathVariable Long id,
+        Authentication authentication
+    ) {
+        return encolar(authentication, "FICHA_ESTUDIANTE", "estudiante_" + id + ".pdf",
+                salida -> salida.write(pdfService.generateEstudiantePdf(id)));
+    }
+
+    @PostMapping("/boletines")
+    @Operation(
+        summary = "Encolar boletines de calificaciones por grupo, nivel o curso",
+        description = "Versión asíncrona de GET /api/estudiantes/boletines. Se debe indicar exactamente uno de los filtros."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "202",
+            description = "Trabajo encolado",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ReporteJobDTO.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Filtro o formato inválido"
+        ),
+        @ApiResponse(
+            responseCode = "429",
+            description = "El usuario ya tiene el máximo de reportes en proceso"
+        )
+    })
+    public ResponseEntity<?> encolarBoletines(
+        @RequestParam(required = false) String grupo,
+        @RequestParam(required = false) String nivel,
+        @RequestParam(required = false) Long cursoId,
+        @RequestParam(defaultValue = "zip") String formato,
+        Authentication authentication
+    ) {
+        BoletinServicio.Formato formatoSalida;
+        List<Estudiante> estudiantes;
+        try {
+            formatoSalida = BoletinServicio.Formato.valueOf(formato.toUpperCase());
+            estudiantes = boletinServicio.seleccionar(grupo, nivel, cursoId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        String nombreArchivo = formatoSalida == BoletinServicio.Formato.ZIP ? "boletines.zip" : "boletines.pdf";
+        return encolar(authentication, "BOLETINES", nombreArchivo,
+                salida -> boletinServicio.escribir(estudiantes, formatoSalida, salida));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(
+        summary = "Consultar el estado de un reporte",
+        description = "Devuelve el estado del trabajo: EN_COLA, PROCESANDO, COMPLETADO o ERROR. Solo el usuario que lo creó puede consultarlo."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Estado del trabajo",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ReporteJobDTO.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Trabajo no encontrado o expirado"
+        )
+    })
+    public ResponseEntity<ReporteJobDTO> consultar(
+        @Parameter(description = "ID del trabajo", required = true)
+        @PathVariable String id,
+        Authentication authentication
+    ) {
+        return reporteJobServicio.consultar(id, authentication.getName())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/descarga")
+    @Operation(
+        summary = "Descargar un reporte terminado",
+        description = "Descarga el archivo generado. Devuelve 409 si el trabajo todavía no ha terminado o terminó con error."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Archivo del reporte",
+            content = {
+                @Content(mediaType = "application/pdf"),
+                @Content(mediaType = "application/zip")
+            }
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Trabajo no encontrado o expirado"
+        ),
+        @ApiResponse(
+            responseCode = "409",
+            description = "El reporte aún no está listo"
+        )
+    })
+    public ResponseEntity<Resource> descargar(
+        @Parameter(description = "ID del trabajo", required = true)
+        @PathVariable String id,
+        Authentication authentication
+    ) {
+        String usuario = authentication.getName();
+        ReporteJobDTO trabajo = reporteJobServicio.consultar(id, usuario).orElse(null);
+        if (trabajo == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return reporteJobServicio.archivo(id, usuario)
+                .map(archivo -> {
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.setContentType(trabajo.getNombreArchivo().endsWith(".zip")
+                            ? MediaType.parseMediaType("application/zip")
+                            : MediaType.APPLICATION_PDF);
+                    headers.setContentDispositionFormData("attachment", trabajo.getNombreArchivo());
+                    return ResponseEntity.ok()
+                            .headers(headers)
+                            .<Resource>body(new FileSystemResource(archivo));
+                })
+                .orElse(ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    @GetMapping("/estadisticas")
+    @Operation(
+        summary = "Estado de la cola de reportes",
+        description = "Devuelve el número de reportes en proceso y en cola, y el tamaño del pool de generación."
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Estado de la cola",
+        content = @Content(mediaType = "application/json")
+    )
+    public Map<String, Object> estadisticas() {
+        return reporteJobServicio.estadisticas();
+    }
+
+    private ResponseEntity<?> encolar(Authentication authentication, String tipo, String nombreArchivo,
+                                      ReporteJobServicio.Generador generador) {
+        try {
+            ReporteJobDTO trabajo = reporteJobServicio.enviar(authentication.getName(), tipo, nombreArchivo, generador);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/reportes/" + trabajo.getId()))
+                    .body(trabajo);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("error", e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(Map.of("error", "La cola de reportes está llena. Intente de nuevo en unos segundos."));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package EduData.controller;
+
+import EduData.service.ExportacionServicio;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+
+/**
+ * Escritura común de los endpoints GET /export.
+ *
+ * La respuesta se escribe en el hilo de la petición en lugar de usar StreamingResponseBody: un
+ * volcado completo puede tardar más que el timeout de las respuestas asíncronas
+ * (edudata.async.request-timeout-ms).
+ */
+final class RespuestaExportacion {
+
+    private RespuestaExportacion() {
+    }
+
+    static void escribir(ExportacionServicio servicio, ExportacionServicio.Entidad entidad,
+                         String formato, boolean gzip, HttpServletResponse response) throws IOException {
+        ExportacionServicio.Formato formatoSalida;
+        try {
+            formatoSalida = ExportacionServicio.Formato.de(formato);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        response.setContentType(gzip ? "application/gzip" : formatoSalida.tipoContenido());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(servicio.nombreArchivo(entidad, formatoSalida, gzip))
+                .build()
+                .toString());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        servicio.exportar(entidad, formatoSalida, gzip, response.getOutputStream());
+        response.flushBuffer();
+    }
+}
@@ -2,6 +2,7 @@ package EduData.controller;
 
 import EduData.entity.Usuario;
 import EduData.repository.UsuarioRepository;
+import EduData.service.UsuarioDetallesCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,6 +17,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/usuarios")
@@ -26,6 +28,7 @@ import java.util.List;
 public class UsuarioController {
 
     private final UsuarioRepository usuarioRepository;
+    private final UsuarioDetallesCache usuarioDetallesCache;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -143,10 +146,45 @@ public class UsuarioController {
         @Parameter(description = "ID del usuario a eliminar", required = true)
         @PathVariable Long id
     ) {
-        if (usuarioRepository.existsById(id)) {
-            usuarioRepository.deleteById(id);
-            return ResponseEntity.noContent().build();
-        }
-        return ResponseEntity.notFound().build();
+        return usuarioRepository.findById(id)
+                .map(user -> {
+                    usuarioRepository.delete(user);
+                    // Sin esto, los JWT aún vigentes del usuario seguirían autenticando hasta que expire la cache
+                    usuarioDetallesCache.invalidar(user.getUsername());
+                    return ResponseEntity.noContent().<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/cache/estadisticas")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+        summary = "Estadísticas de la cache de usuarios autenticados",
+        description = "Devuelve aciertos, fallos, tasa de aciertos, expulsiones e invalidaciones de la cache " +
+                      "que evita consultar la tabla de usuarios en cada petición autenticada con JWT."
+    )
+    @ApiResponse(
+        responseCode = "200", 
+        description = "Estadísticas de la cache",
+        content = @Content(
+            mediaType = "application/json",
+            schema = @Schema(
+                example = """
+                {
+                    "aciertos": 980,
+                    "fallos": 20,
+                    "tasaAciertos": 0.98,
+                    "expulsiones": 3,
+                    "invalidaciones": 1,
+                    "entradas": 17,
+                    "maxEntradas": 1000,
+                    "ttlSegundos": 60
+                }
+                """
+            )
+        )
+    )
+    public Map<String, Object> estadisticasCache() {
+        return usuarioDetallesCache.estadisticas();
     }
 }
@@ -0,0 +1,22 @@
+package EduData.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fila agregada de calificaciones de una matrícula, curso o estudiante para un tipo de evaluación.
+ * La construyen directamente las consultas agrupadas de CalificacionRepositorio.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgregadoNotaDTO {
+    private Long id;
+    private String nombre;
+    private String tipo;
+    private Double suma;
+    private Long cantidad;
+    private Double minimo;
+    private Double maximo;
+}
@@ -0,0 +1,21 @@
+package EduData.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Asistencia de una sesión completa de un curso: las matrículas presentes y las ausentes en una fecha.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AsistenciaMasivaDTO {
+    private Long cursoId;
+    private LocalDate fecha;
+    private List<Long> presentes;
+    private List<Long> ausentes;
+}
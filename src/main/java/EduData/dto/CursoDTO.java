@@ -14,4 +14,5 @@ public class CursoDTO {
     private String descripcion;
     private Integer anio;
     private String nombreDocente;
+    private Long docenteId;
 }
@@ -0,0 +1,14 @@
+package EduData.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErrorImportacionDTO {
+    // Línea del archivo donde empieza la fila
+    private Integer linea;
+    private String mensaje;
+}
@@ -0,0 +1,17 @@
+package EduData.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistogramaDTO {
+    private String tipo;
+    private Long total;
+    private Double anchoIntervalo;
+    private Map<String, Long> intervalos;
+}
@@ -13,4 +13,6 @@ public class MatriculaDTO {
     private String nombreEstudiante;
     private String nombreCurso;
     private String codigoCurso;
+    private Long estudianteId;
+    private Long cursoId;
 }
@@ -0,0 +1,18 @@
+package EduData.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaDTO<T> {
+    private List<T> contenido;
+    private int tamanio;
+    private String orden;
+    private String siguienteCursor;
+    private boolean hayMas;
+}
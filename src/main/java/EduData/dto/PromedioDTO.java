@@ -0,0 +1,21 @@
+package EduData.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PromedioDTO {
+    private Long id;
+    private String nombre;
+    private Double promedio;
+    private Long cantidad;
+    private Double minimo;
+    private Double maximo;
+    private Boolean aprobado;
+    private Map<String, Double> promedioPorTipo;
+}
@@ -0,0 +1,20 @@
+package EduData.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReporteJobDTO {
+    private String id;
+    private String tipo;
+    private String estado;
+    private LocalDateTime creado;
+    private LocalDateTime terminado;
+    private String error;
+    private String nombreArchivo;
+}
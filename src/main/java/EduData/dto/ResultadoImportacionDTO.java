@@ -0,0 +1,20 @@
+package EduData.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoImportacionDTO {
+    private String entidad;
+    private Long filasLeidas;
+    private Long insertadas;
+    private Long conError;
+    // Solo se detallan los primeros errores; el resto se cuenta en conError
+    private List<ErrorImportacionDTO> errores;
+    private Long milisegundos;
+}
@@ -0,0 +1,20 @@
+package EduData.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenAsistenciaDTO {
+    private Long matriculaId;
+    private Integer anio;
+    private Integer periodo;
+    private Integer diasRegistrados;
+    private Integer diasPresente;
+    private Double tasaAsistencia;
+    private Integer rachaAusenciasActual;
+    private Integer rachaAusenciasMaxima;
+    private Integer rachaAsistenciaMaxima;
+}
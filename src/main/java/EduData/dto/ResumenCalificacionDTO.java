@@ -0,0 +1,19 @@
+package EduData.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenCalificacionDTO {
+    private Long id;
+    private Long cantidad;
+    private Double promedio;
+    private Double minimo;
+    private Double maximo;
+    private LocalDateTime actualizado;
+}
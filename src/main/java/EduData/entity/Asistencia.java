@@ -6,13 +6,20 @@ import lombok.*;
 import java.time.LocalDate;
 
 @Entity
+// Una sola asistencia por matrícula y fecha: el registro masivo depende de ello para ser idempotente
+// La restricción también sirve de índice (matricula_id, fecha) para las consultas por matrícula
+@Table(
+    uniqueConstraints = @UniqueConstraint(columnNames = {"matricula_id", "fecha"}),
+    indexes = @Index(name = "idx_asistencia_fecha", columnList = "fecha")
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Asistencia {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "asistencia_seq")
+    @SequenceGenerator(name = "asistencia_seq", sequenceName = "asistencia_seq", allocationSize = 50)
     private Long id;
 
     private LocalDate fecha;
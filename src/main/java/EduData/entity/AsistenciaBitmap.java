@@ -0,0 +1,41 @@
+package EduData.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Asistencia de una matrícula en un periodo (semestre) como dos mapas de bits indexados por día
+ * del periodo: "registrados" marca los días con asistencia tomada y "presentes" los días en que
+ * el estudiante asistió. Un semestre ocupa como mucho 23 bytes por mapa, frente a una fila de
+ * Asistencia por día.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"matricula_id", "anio", "periodo"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AsistenciaBitmap {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "asistencia_bitmap_seq")
+    @SequenceGenerator(name = "asistencia_bitmap_seq", sequenceName = "asistencia_bitmap_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "matricula_id", nullable = false)
+    private Long matriculaId;
+
+    private Integer anio;
+
+    // 1 = enero a junio, 2 = julio a diciembre
+    private Integer periodo;
+
+    @Column(length = 32)
+    private byte[] registrados;
+
+    @Column(length = 32)
+    private byte[] presentes;
+
+    private LocalDateTime actualizado;
+}
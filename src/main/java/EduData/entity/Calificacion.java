@@ -6,13 +6,15 @@ import lombok.*;
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = @Index(name = "idx_calificacion_matricula_fecha", columnList = "matricula_id, fecha"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Calificacion {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "calificacion_seq")
+    @SequenceGenerator(name = "calificacion_seq", sequenceName = "calificacion_seq", allocationSize = 50)
     private Long id;
 
     private String tipo;
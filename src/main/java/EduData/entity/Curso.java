@@ -1,19 +1,30 @@
 package EduData.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.util.List;
 
 @Entity
+// Datos de referencia que cambian pocas veces por periodo: se guardan en la cache de segundo nivel
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "curso")
+@Table(indexes = {
+    @Index(name = "idx_curso_docente", columnList = "docente_id"),
+    @Index(name = "idx_curso_codigo", columnList = "codigo"),
+    @Index(name = "idx_curso_anio", columnList = "anio")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Curso {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "curso_seq")
+    @SequenceGenerator(name = "curso_seq", sequenceName = "curso_seq", allocationSize = 50)
     private Long id;
 
     private String nombre;
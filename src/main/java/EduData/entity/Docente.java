@@ -1,19 +1,25 @@
 package EduData.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "docente")
+@Table(indexes = @Index(name = "idx_docente_email", columnList = "email"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Docente {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "docente_seq")
+    @SequenceGenerator(name = "docente_seq", sequenceName = "docente_seq", allocationSize = 50)
     private Long id;
 
     private String nombre;
@@ -2,18 +2,26 @@ package EduData.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDate;
 import java.util.List;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_estudiante_matricula_anio", columnList = "matricula_anio, id"),
+    @Index(name = "idx_estudiante_apellido_id", columnList = "apellido, id"),
+    @Index(name = "idx_estudiante_grupo", columnList = "grupo"),
+    @Index(name = "idx_estudiante_nivel", columnList = "nivel")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Estudiante {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "estudiante_seq")
+    @SequenceGenerator(name = "estudiante_seq", sequenceName = "estudiante_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true)
@@ -36,6 +44,12 @@ public class Estudiante {
     private String nivel;
     private String grupo;
 
+    // La incrementa Hibernate en cada modificación; de ella salen los ETag de los PDFs.
+    // El valor por defecto cubre las filas anteriores a la columna.
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
     @OneToMany(mappedBy = "estudiante", cascade = CascadeType.ALL)
     @JsonIgnore
     private List<Matricula> matriculas;
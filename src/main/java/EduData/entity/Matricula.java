@@ -7,13 +7,18 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.util.List;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_matricula_estudiante", columnList = "estudiante_id, curso_id, anio"),
+    @Index(name = "idx_matricula_curso", columnList = "curso_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Matricula {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "matricula_seq")
+    @SequenceGenerator(name = "matricula_seq", sequenceName = "matricula_seq", allocationSize = 50)
     private Long id;
 
     private Integer anio;
@@ -0,0 +1,28 @@
+package EduData.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resumen de las calificaciones de una matrícula, mantenido por ResumenCalificacionServicio en
+ * la misma transacción que cada alta, modificación o baja de calificación. Solo cuenta las
+ * calificaciones con valor.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenCalificacion {
+
+    @Id
+    @Column(name = "matricula_id")
+    private Long matriculaId;
+
+    private Long cantidad;
+    private Double suma;
+    private Double minimo;
+    private Double maximo;
+    private LocalDateTime actualizado;
+}
@@ -0,0 +1,46 @@
+package EduData.repository;
+
+import EduData.entity.AsistenciaBitmap;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface AsistenciaBitmapRepositorio extends JpaRepository<AsistenciaBitmap, Long> {
+
+    Optional<AsistenciaBitmap> findByMatriculaIdAndAnioAndPeriodo(Long matriculaId, Integer anio, Integer periodo);
+
+    // Bloquea los mapas que se van a modificar para que dos registros simultáneos no se pisen
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM AsistenciaBitmap b " +
+           "WHERE b.matriculaId IN :matriculaIds AND b.anio = :anio AND b.periodo = :periodo")
+    List<AsistenciaBitmap> bloquear(@Param("matriculaIds") Collection<Long> matriculaIds,
+                                    @Param("anio") Integer anio,
+                                    @Param("periodo") Integer periodo);
+
+    @Query("SELECT b FROM AsistenciaBitmap b, Matricula m " +
+           "WHERE m.id = b.matriculaId AND m.curso.id = :cursoId AND b.anio = :anio AND b.periodo = :periodo")
+    List<AsistenciaBitmap> buscarPorCurso(@Param("cursoId") Long cursoId,
+                                          @Param("anio") Integer anio,
+                                          @Param("periodo") Integer periodo);
+
+    @Query("SELECT b FROM AsistenciaBitmap b, Matricula m " +
+           "WHERE m.id = b.matriculaId AND m.estudiante.id = :estudianteId AND b.anio = :anio AND b.periodo = :periodo")
+    List<AsistenciaBitmap> buscarPorEstudiante(@Param("estudianteId") Long estudianteId,
+                                               @Param("anio") Integer anio,
+                                               @Param("periodo") Integer periodo);
+
+    @Modifying
+    @Query("DELETE FROM AsistenciaBitmap")
+    int borrarTodos();
+
+    @Modifying
+    @Query("DELETE FROM AsistenciaBitmap b WHERE b.matriculaId = :matriculaId")
+    int borrarPorMatricula(@Param("matriculaId") Long matriculaId);
+}
@@ -1,7 +1,35 @@
 package EduData.repository;
 
 import EduData.entity.Asistencia;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface AsistenciaRepositorio extends JpaRepository<Asistencia, Long> {
+
+    // Listado con la matrícula y sus relaciones en una sola consulta en lugar de una por fila
+    @Query("SELECT a FROM Asistencia a JOIN FETCH a.matricula m JOIN FETCH m.estudiante " +
+           "JOIN FETCH m.curso cu LEFT JOIN FETCH cu.docente ORDER BY a.id")
+    List<Asistencia> listarConRelaciones();
+
+    // Proyección [id, matriculaId, presente] de las asistencias ya registradas en una fecha
+    @Query("SELECT a.id, a.matricula.id, a.presente FROM Asistencia a " +
+           "WHERE a.fecha = :fecha AND a.matricula.id IN :matriculaIds")
+    List<Object[]> buscarRegistradas(@Param("fecha") LocalDate fecha,
+                                     @Param("matriculaIds") Collection<Long> matriculaIds);
+
+    // Recorrido completo [matriculaId, fecha, presente] para migrar a mapas de bits; se consume como
+    // Stream dentro de una transacción para no cargar la tabla entera en memoria
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.matricula.id, a.fecha, a.presente FROM Asistencia a " +
+           "WHERE a.fecha IS NOT NULL ORDER BY a.matricula.id, a.fecha")
+    Stream<Object[]> recorrerParaMigracion();
 }
@@ -1,7 +1,57 @@
 package EduData.repository;
 
+import EduData.dto.AgregadoNotaDTO;
 import EduData.entity.Calificacion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface CalificacionRepositorio extends JpaRepository<Calificacion, Long> {
+
+    // Listado con la matrícula y sus relaciones en una sola consulta en lugar de una por fila
+    @Query("SELECT c FROM Calificacion c JOIN FETCH c.matricula m JOIN FETCH m.estudiante " +
+           "JOIN FETCH m.curso cu LEFT JOIN FETCH cu.docente ORDER BY c.id")
+    List<Calificacion> listarConRelaciones();
+
+    // Proyección [matriculaId, tipo, valor, fecha]: evita cargar la matrícula de cada calificación
+    @Query("SELECT c.matricula.id, c.tipo, c.valor, c.fecha FROM Calificacion c " +
+           "WHERE c.matricula.id IN :matriculaIds ORDER BY c.fecha ASC")
+    List<Object[]> buscarPorMatriculas(@Param("matriculaIds") Collection<Long> matriculaIds);
+
+    // Agregados por (entidad, tipo): la base de datos devuelve una fila por combinación y el
+    // promedio ponderado por tipo se calcula sobre esas pocas filas.
+
+    @Query("SELECT new EduData.dto.AgregadoNotaDTO(m.id, " +
+           "CONCAT(COALESCE(e.nombre, ''), ' ', COALESCE(e.apellido, ''), ' - ', COALESCE(cu.nombre, '')), " +
+           "c.tipo, SUM(c.valor), COUNT(c.valor), MIN(c.valor), MAX(c.valor)) " +
+           "FROM Calificacion c JOIN c.matricula m JOIN m.estudiante e JOIN m.curso cu " +
+           "WHERE (:cursoId IS NULL OR cu.id = :cursoId) AND (:estudianteId IS NULL OR e.id = :estudianteId) " +
+           "GROUP BY m.id, e.nombre, e.apellido, cu.nombre, c.tipo")
+    List<AgregadoNotaDTO> agregarPorMatricula(@Param("cursoId") Long cursoId,
+                                              @Param("estudianteId") Long estudianteId);
+
+    @Query("SELECT new EduData.dto.AgregadoNotaDTO(cu.id, cu.nombre, " +
+           "c.tipo, SUM(c.valor), COUNT(c.valor), MIN(c.valor), MAX(c.valor)) " +
+           "FROM Calificacion c JOIN c.matricula m JOIN m.curso cu " +
+           "WHERE (:anio IS NULL OR cu.anio = :anio) " +
+           "GROUP BY cu.id, cu.nombre, c.tipo")
+    List<AgregadoNotaDTO> agregarPorCurso(@Param("anio") Integer anio);
+
+    @Query("SELECT new EduData.dto.AgregadoNotaDTO(e.id, " +
+           "CONCAT(COALESCE(e.nombre, ''), ' ', COALESCE(e.apellido, '')), " +
+           "c.tipo, SUM(c.valor), COUNT(c.valor), MIN(c.valor), MAX(c.valor)) " +
+           "FROM Calificacion c JOIN c.matricula m JOIN m.estudiante e " +
+           "WHERE (:cursoId IS NULL OR m.curso.id = :cursoId) " +
+           "GROUP BY e.id, e.nombre, e.apellido, c.tipo")
+    List<AgregadoNotaDTO> agregarPorEstudiante(@Param("cursoId") Long cursoId);
+
+    // Frecuencia de cada valor distinto por tipo; los intervalos del histograma se arman en memoria
+    // para no depender de funciones de redondeo con parámetros dentro del GROUP BY
+    @Query("SELECT c.tipo, c.valor, COUNT(c) FROM Calificacion c " +
+           "WHERE c.valor IS NOT NULL AND (:cursoId IS NULL OR c.matricula.curso.id = :cursoId) " +
+           "GROUP BY c.tipo, c.valor")
+    List<Object[]> contarPorTipoYValor(@Param("cursoId") Long cursoId);
 }
@@ -1,7 +1,38 @@
 package EduData.repository;
 
+import EduData.dto.CursoDTO;
 import EduData.entity.Curso;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface CursoRepositorio extends JpaRepository<Curso, Long> {
+
+    // El docente es EAGER: sin el JOIN FETCH findAll() hacía una consulta extra por docente distinto.
+    // Las consultas de listado van a la cache de consultas; cualquier escritura en curso o docente las invalida.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT c FROM Curso c LEFT JOIN FETCH c.docente ORDER BY c.id")
+    List<Curso> listarConDocente();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT c FROM Curso c LEFT JOIN FETCH c.docente WHERE c.id = :id")
+    Optional<Curso> buscarConDocente(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new EduData.dto.CursoDTO(c.id, c.nombre, c.codigo, c.descripcion, c.anio, d.nombre, d.id) " +
+           "FROM Curso c LEFT JOIN c.docente d ORDER BY c.id")
+    List<CursoDTO> listarPlano();
+
+    @Query("SELECT c.anio, COUNT(c) FROM Curso c GROUP BY c.anio")
+    List<Object[]> contarPorAnio();
+
+    // Mapa código -> id para la importación masiva
+    @Query("SELECT c.codigo, c.id FROM Curso c WHERE c.codigo IS NOT NULL ORDER BY c.id")
+    List<Object[]> idsPorCodigo();
 }
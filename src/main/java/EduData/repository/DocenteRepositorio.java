@@ -1,7 +1,22 @@
 package EduData.repository;
 
 import EduData.entity.Docente;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
 
 public interface DocenteRepositorio extends JpaRepository<Docente, Long> {
+
+    // Listado completo desde la cache de consultas; findById ya usa la cache de segundo nivel
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Docente> findAll();
+
+    // Mapa email -> id para la importación masiva de cursos
+    @Query("SELECT d.email, d.id FROM Docente d WHERE d.email IS NOT NULL")
+    List<Object[]> idsPorEmail();
 }
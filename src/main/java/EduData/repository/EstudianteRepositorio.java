@@ -3,7 +3,80 @@ package EduData.repository;
 
 
 import EduData.entity.Estudiante;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface EstudianteRepositorio extends JpaRepository<Estudiante, Long> {
-}
\ No newline at end of file
+
+    // Consultas keyset: buscan a partir de la última fila vista en lugar de usar OFFSET,
+    // así el costo de cada página no crece con el tamaño de la tabla.
+    //
+    // Los órdenes por apellido y por año comparan la pareja (columna, id) como fila, sin funciones
+    // sobre la columna, de modo que PostgreSQL recorre los índices (apellido, id) y
+    // (matricula_anio, id) desde la posición del cursor. Las filas con la columna en NULL no
+    // cumplen la comparación: se leen aparte por id y van después de las demás, como en
+    // ORDER BY ... NULLS LAST. Esas consultas ordenan también por la columna (siempre NULL) para
+    // que el orden pedido sea el del índice y PostgreSQL no tenga que ordenar.
+
+    @Query("SELECT e FROM Estudiante e WHERE e.id > :id ORDER BY e.id ASC")
+    List<Estudiante> buscarDespuesDeId(@Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT e FROM Estudiante e WHERE (e.apellido, e.id) > (:apellido, :id) " +
+           "ORDER BY e.apellido ASC, e.id ASC")
+    List<Estudiante> buscarDespuesDeApellido(@Param("apellido") String apellido,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
+
+    @Query("SELECT e FROM Estudiante e WHERE e.apellido IS NULL AND e.id > :id ORDER BY e.apellido ASC, e.id ASC")
+    List<Estudiante> buscarSinApellidoDespuesDeId(@Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT e FROM Estudiante e WHERE (e.matriculaAnio, e.id) > (:anio, :id) " +
+           "ORDER BY e.matriculaAnio ASC, e.id ASC")
+    List<Estudiante> buscarDespuesDeMatriculaAnio(@Param("anio") Integer anio,
+                                                  @Param("id") Long id,
+                                                  Pageable pageable);
+
+    @Query("SELECT e FROM Estudiante e WHERE e.matriculaAnio IS NULL AND e.id > :id " +
+           "ORDER BY e.matriculaAnio ASC, e.id ASC")
+    List<Estudiante> buscarSinMatriculaAnioDespuesDeId(@Param("id") Long id, Pageable pageable);
+
+    // Selección de estudiantes para los boletines por lote
+
+    List<Estudiante> findByGrupoOrderByApellidoAscNombreAsc(String grupo);
+
+    List<Estudiante> findByNivelOrderByApellidoAscNombreAsc(String nivel);
+
+    @Query("SELECT DISTINCT e FROM Matricula m JOIN m.estudiante e WHERE m.curso.id = :cursoId " +
+           "ORDER BY e.apellido ASC, e.nombre ASC")
+    List<Estudiante> buscarPorCurso(@Param("cursoId") Long cursoId);
+
+    // Huella de la tabla para el ETag del listado PDF: [total, id máximo, suma de versiones].
+    // Una alta sube el id máximo, una baja el total y una modificación la suma de versiones
+    @Query("SELECT COUNT(e), MAX(e.id), SUM(e.version) FROM Estudiante e")
+    List<Object[]> versionDatos();
+
+    @Query("SELECT e.version FROM Estudiante e WHERE e.id = :id")
+    Optional<Long> buscarVersion(@Param("id") Long id);
+
+    // Mapas de búsqueda para la importación masiva
+
+    @Query("SELECT e.identificacion, e.id FROM Estudiante e WHERE e.identificacion IS NOT NULL")
+    List<Object[]> idsPorIdentificacion();
+
+    @Query("SELECT e.correo FROM Estudiante e WHERE e.correo IS NOT NULL")
+    List<String> correos();
+
+    @Query("SELECT e.estado, COUNT(e) FROM Estudiante e GROUP BY e.estado")
+    List<Object[]> contarPorEstado();
+
+    @Query("SELECT e.nivel, COUNT(e) FROM Estudiante e GROUP BY e.nivel")
+    List<Object[]> contarPorNivel();
+
+    @Query("SELECT e.grupo, COUNT(e) FROM Estudiante e GROUP BY e.grupo")
+    List<Object[]> contarPorGrupo();
+}
@@ -1,7 +1,43 @@
 package EduData.repository;
 
+import EduData.dto.MatriculaDTO;
 import EduData.entity.Matricula;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface MatriculaRepositorio extends JpaRepository<Matricula, Long> {
+
+    // Listados con estudiante, curso y docente en la misma consulta. Las asociaciones son EAGER y
+    // findAll() las cargaba con una consulta extra por fila.
+
+    @Query("SELECT m FROM Matricula m JOIN FETCH m.estudiante JOIN FETCH m.curso c LEFT JOIN FETCH c.docente " +
+           "ORDER BY m.id")
+    List<Matricula> listarConRelaciones();
+
+    @Query("SELECT m FROM Matricula m JOIN FETCH m.estudiante JOIN FETCH m.curso c LEFT JOIN FETCH c.docente " +
+           "WHERE m.id = :id")
+    Optional<Matricula> buscarConRelaciones(@Param("id") Long id);
+
+    // Proyección plana de solo lectura: no crea entidades ni las registra en el contexto de persistencia
+    @Query("SELECT new EduData.dto.MatriculaDTO(m.id, m.anio, " +
+           "CONCAT(COALESCE(e.nombre, ''), ' ', COALESCE(e.apellido, '')), c.nombre, c.codigo, e.id, c.id) " +
+           "FROM Matricula m JOIN m.estudiante e JOIN m.curso c ORDER BY m.id")
+    List<MatriculaDTO> listarPlano();
+
+    // Carga en una sola consulta las matrículas de varios estudiantes con su curso y docente
+    @Query("SELECT m FROM Matricula m JOIN FETCH m.estudiante JOIN FETCH m.curso c LEFT JOIN FETCH c.docente " +
+           "WHERE m.estudiante.id IN :estudianteIds ORDER BY m.anio DESC, c.nombre ASC")
+    List<Matricula> buscarPorEstudiantes(@Param("estudianteIds") Collection<Long> estudianteIds);
+
+    @Query("SELECT m.id FROM Matricula m WHERE m.curso.id = :cursoId AND m.id IN :ids")
+    List<Long> filtrarPorCurso(@Param("cursoId") Long cursoId, @Param("ids") Collection<Long> ids);
+
+    // [estudianteId, cursoId, anio] de las matrículas existentes, para descartar duplicados al importar
+    @Query("SELECT m.estudiante.id, m.curso.id, m.anio FROM Matricula m WHERE m.estudiante.id IN :estudianteIds")
+    List<Object[]> clavesPorEstudiantes(@Param("estudianteIds") Collection<Long> estudianteIds);
 }
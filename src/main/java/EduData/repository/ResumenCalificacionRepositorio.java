@@ -0,0 +1,61 @@
+package EduData.repository;
+
+import EduData.entity.ResumenCalificacion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ResumenCalificacionRepositorio extends JpaRepository<ResumenCalificacion, Long> {
+
+    // Las actualizaciones son sentencias atómicas: dos calificaciones simultáneas de la misma
+    // matrícula no pueden pisarse como ocurriría con leer-modificar-guardar.
+
+    // Alta como upsert de PostgreSQL: la primera nota de una matrícula inserta la fila y las
+    // siguientes la actualizan, sin la carrera de UPDATE-y-luego-INSERT entre dos primeras notas
+    // simultáneas. LEAST/GREATEST ignoran los NULL de un resumen sin extremos. El espacio de
+    // consulta limita la invalidación de la cache de segundo nivel a esta tabla.
+    @Modifying
+    @Query(value = "INSERT INTO resumen_calificacion (matricula_id, cantidad, suma, minimo, maximo, actualizado) " +
+                   "VALUES (:matriculaId, 1, :valor, :valor, :valor, :ahora) " +
+                   "ON CONFLICT (matricula_id) DO UPDATE SET cantidad = resumen_calificacion.cantidad + 1, " +
+                   "suma = resumen_calificacion.suma + EXCLUDED.suma, " +
+                   "minimo = LEAST(resumen_calificacion.minimo, EXCLUDED.minimo), " +
+                   "maximo = GREATEST(resumen_calificacion.maximo, EXCLUDED.maximo), " +
+                   "actualizado = EXCLUDED.actualizado",
+           nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "resumen_calificacion"))
+    int acumular(@Param("matriculaId") Long matriculaId, @Param("valor") Double valor, @Param("ahora") LocalDateTime ahora);
+
+    @Modifying
+    @Query("UPDATE ResumenCalificacion r SET r.cantidad = r.cantidad - 1, r.suma = r.suma - :valor, " +
+           "r.actualizado = :ahora WHERE r.matriculaId = :matriculaId")
+    int restar(@Param("matriculaId") Long matriculaId, @Param("valor") Double valor, @Param("ahora") LocalDateTime ahora);
+
+    // Al quitar el valor mínimo o máximo no se puede saber el siguiente sin mirar las notas de la
+    // matrícula; la condición del WHERE limita ese recálculo a cuando realmente hace falta
+    @Modifying
+    @Query("UPDATE ResumenCalificacion r SET " +
+           "r.minimo = (SELECT MIN(c.valor) FROM Calificacion c WHERE c.matricula.id = :matriculaId), " +
+           "r.maximo = (SELECT MAX(c.valor) FROM Calificacion c WHERE c.matricula.id = :matriculaId) " +
+           "WHERE r.matriculaId = :matriculaId AND (r.minimo = :valor OR r.maximo = :valor)")
+    int recalcularExtremos(@Param("matriculaId") Long matriculaId, @Param("valor") Double valor);
+
+    @Modifying
+    @Query("DELETE FROM ResumenCalificacion r WHERE r.matriculaId = :matriculaId")
+    int borrarPorMatricula(@Param("matriculaId") Long matriculaId);
+
+    @Query("SELECT COALESCE(SUM(r.cantidad), 0), SUM(r.suma), MIN(r.minimo), MAX(r.maximo), MAX(r.actualizado) " +
+           "FROM ResumenCalificacion r, Matricula m WHERE m.id = r.matriculaId AND m.curso.id = :cursoId")
+    List<Object[]> totalesPorCurso(@Param("cursoId") Long cursoId);
+
+    @Query("SELECT COALESCE(SUM(r.cantidad), 0), SUM(r.suma), MIN(r.minimo), MAX(r.maximo), MAX(r.actualizado) " +
+           "FROM ResumenCalificacion r, Matricula m WHERE m.id = r.matriculaId AND m.estudiante.id = :estudianteId")
+    List<Object[]> totalesPorEstudiante(@Param("estudianteId") Long estudianteId);
+}
@@ -0,0 +1,233 @@
+package EduData.service;
+
+import EduData.dto.AgregadoNotaDTO;
+import EduData.dto.HistogramaDTO;
+import EduData.dto.PromedioDTO;
+import EduData.repository.CalificacionRepositorio;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Promedios, distribuciones y rankings de calificaciones.
+ *
+ * Todas las agregaciones se hacen en la base de datos con consultas agrupadas por (entidad, tipo);
+ * aquí solo se combinan esas filas para aplicar los pesos por tipo de evaluación. Los pesos son
+ * por tipo, no por nota: con pesos configurados el promedio es Σ peso(tipo) · promedio(tipo) /
+ * Σ peso(tipo) sobre los tipos que la entidad tiene, de modo que con examen=0.5 y quiz=0.2 el
+ * examen cuenta 0.5/0.7 aunque haya diez quices y un solo examen. Sin pesos configurados es el
+ * promedio simple de todas las notas (AVG).
+ */
+@Service
+public class AnaliticaCalificacionesServicio {
+
+    private final CalificacionRepositorio calificacionRepositorio;
+    private final Map<String, Double> pesos;
+    private final double notaAprobacion;
+
+    public AnaliticaCalificacionesServicio(
+            CalificacionRepositorio calificacionRepositorio,
+            @Value("${edudata.calificaciones.pesos:}") String pesos,
+            @Value("${edudata.calificaciones.nota-aprobacion:3.0}") double notaAprobacion) {
+        this.calificacionRepositorio = calificacionRepositorio;
+        this.pesos = leerPesos(pesos);
+        this.notaAprobacion = notaAprobacion;
+    }
+
+    public List<PromedioDTO> promediosPorMatricula(Long cursoId, Long estudianteId) {
+        return combinar(calificacionRepositorio.agregarPorMatricula(cursoId, estudianteId));
+    }
+
+    public List<PromedioDTO> promediosPorCurso(Integer anio) {
+        return combinar(calificacionRepositorio.agregarPorCurso(anio));
+    }
+
+    public List<PromedioDTO> promediosPorEstudiante(Long cursoId) {
+        return combinar(calificacionRepositorio.agregarPorEstudiante(cursoId));
+    }
+
+    /**
+     * Los n estudiantes con mejor promedio ponderado que tengan al menos minCalificaciones notas.
+     */
+    public List<PromedioDTO> ranking(int n, Long cursoId, int minCalificaciones) {
+        return promediosPorEstudiante(cursoId).stream()
+                .filter(p -> p.getPromedio() != null && p.getCantidad() >= minCalificaciones)
+                .sorted(Comparator.comparing(PromedioDTO::getPromedio).reversed()
+                        .thenComparing(PromedioDTO::getCantidad, Comparator.reverseOrder()))
+                .limit(Math.max(0, n))
+                .toList();
+    }
+
+    /**
+     * Promedio de un conjunto de filas (tipo, suma, cantidad) de una misma entidad, con los mismos
+     * pesos por tipo que el resto de las analíticas. Lo usa también el boletín para el promedio de
+     * cada curso. Devuelve null si no hay notas.
+     */
+    public Double promedio(List<AgregadoNotaDTO> filas) {
+        Acumulado acumulado = new Acumulado(null);
+        filas.forEach(acumulado::sumar);
+        return promedio(acumulado);
+    }
+
+    /**
+     * Histograma de notas por tipo de evaluación con intervalos de ancho fijo.
+     * La clave de cada intervalo es "desde-hasta" con el límite inferior incluido.
+     */
+    public List<HistogramaDTO> distribucion(double ancho, Long cursoId) {
+        if (ancho <= 0) {
+            throw new IllegalArgumentException("El ancho del intervalo debe ser mayor que cero");
+        }
+        Map<String, TreeMap<Long, Long>> porTipo = new TreeMap<>();
+        for (Object[] fila : calificacionRepositorio.contarPorTipoYValor(cursoId)) {
+            String tipo = fila[0] != null ? (String) fila[0] : "Sin tipo";
+            long intervalo = (long) Math.floor((Double) fila[1] / ancho);
+            porTipo.computeIfAbsent(tipo, t -> new TreeMap<>())
+                    .merge(intervalo, (Long) fila[2], Long::sum);
+        }
+
+        List<HistogramaDTO> histogramas = new ArrayList<>(porTipo.size());
+        porTipo.forEach((tipo, conteos) -> {
+            Map<String, Long> intervalos = new LinkedHashMap<>();
+            long total = 0;
+            for (Map.Entry<Long, Long> conteo : conteos.entrySet()) {
+                double desde = conteo.getKey() * ancho;
+                intervalos.put(formato(desde) + "-" + formato(desde + ancho), conteo.getValue());
+                total += conteo.getValue();
+            }
+            histogramas.add(new HistogramaDTO(tipo, total, ancho, intervalos));
+        });
+        return histogramas;
+    }
+
+    private List<PromedioDTO> combinar(List<AgregadoNotaDTO> filas) {
+        Map<Long, Acumulado> porId = new LinkedHashMap<>();
+        for (AgregadoNotaDTO fila : filas) {
+            porId.computeIfAbsent(fila.getId(), id -> new Acumulado(fila.getNombre())).sumar(fila);
+        }
+
+        List<PromedioDTO> promedios = new ArrayList<>(porId.size());
+        porId.forEach((id, acumulado) -> {
+            Double promedio = promedio(acumulado);
+            promedios.add(new PromedioDTO(
+                    id,
+                    acumulado.nombre,
+                    promedio,
+                    acumulado.cantidad,
+                    acumulado.minimo,
+                    acumulado.maximo,
+                    promedio != null ? promedio >= notaAprobacion : null,
+                    acumulado.promedioPorTipo()));
+        });
+        return promedios;
+    }
+
+    private Double promedio(Acumulado acumulado) {
+        if (acumulado.cantidad == 0) {
+            return null;
+        }
+        if (pesos.isEmpty()) {
+            return redondear(acumulado.suma / acumulado.cantidad);
+        }
+        double sumaPonderada = 0;
+        double pesoTotal = 0;
+        for (Map.Entry<String, Tipo> tipo : acumulado.porTipo.entrySet()) {
+            double peso = pesos.getOrDefault(tipo.getKey(), 1.0);
+            sumaPonderada += peso * tipo.getValue().promedio();
+            pesoTotal += peso;
+        }
+        return pesoTotal > 0 ? redondear(sumaPonderada / pesoTotal) : null;
+    }
+
+    /**
+     * Lee pesos con el formato "examen=0.5,taller=0.3,quiz=0.2". Cada peso se aplica al promedio del
+     * tipo, no a cada nota. Los tipos no listados pesan 1.
+     */
+    private static Map<String, Double> leerPesos(String texto) {
+        Map<String, Double> pesos = new HashMap<>();
+        if (texto == null || texto.isBlank()) {
+            return pesos;
+        }
+        for (String par : texto.split(",")) {
+            String[] partes = par.split("=", 2);
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Peso de calificación inválido: " + par);
+            }
+            pesos.put(partes[0].trim().toLowerCase(Locale.ROOT), Double.parseDouble(partes[1].trim()));
+        }
+        return pesos;
+    }
+
+    private static double redondear(double valor) {
+        return Math.round(valor * 100.0) / 100.0;
+    }
+
+    private static String formato(double valor) {
+        return String.format(Locale.ROOT, "%.2f", valor);
+    }
+
+    private static String claveTipo(String tipo) {
+        return tipo != null ? tipo.trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * Notas de un tipo normalizado. "Examen" y "examen" son el mismo tipo; se muestra con la
+     * primera forma en que aparece.
+     */
+    private static final class Tipo {
+        private final String etiqueta;
+        private double suma;
+        private long cantidad;
+
+        private Tipo(String etiqueta) {
+            this.etiqueta = etiqueta;
+        }
+
+        private double promedio() {
+            return suma / cantidad;
+        }
+    }
+
+    private static final class Acumulado {
+        private final String nombre;
+        // Suma y cantidad por tipo normalizado, para ponderar los promedios de cada tipo
+        private final Map<String, Tipo> porTipo = new HashMap<>();
+        private double suma;
+        private long cantidad;
+        private Double minimo;
+        private Double maximo;
+
+        private Acumulado(String nombre) {
+            this.nombre = nombre;
+        }
+
+        private void sumar(AgregadoNotaDTO fila) {
+            if (fila.getCantidad() == null || fila.getCantidad() == 0) {
+                return;
+            }
+            Tipo tipo = porTipo.computeIfAbsent(claveTipo(fila.getTipo()),
+                    t -> new Tipo(fila.getTipo() != null ? fila.getTipo() : "Sin tipo"));
+            tipo.suma += fila.getSuma();
+            tipo.cantidad += fila.getCantidad();
+            suma += fila.getSuma();
+            cantidad += fila.getCantidad();
+            minimo = minimo == null ? fila.getMinimo() : Math.min(minimo, fila.getMinimo());
+            maximo = maximo == null ? fila.getMaximo() : Math.max(maximo, fila.getMaximo());
+        }
+
+        private Map<String, Double> promedioPorTipo() {
+            Map<String, Double> promedios = new TreeMap<>();
+            for (Tipo tipo : porTipo.values()) {
+                promedios.put(tipo.etiqueta, redondear(tipo.promedio()));
+            }
+            return promedios;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package EduData.service;
+
+import EduData.dto.ResumenAsistenciaDTO;
+import EduData.entity.AsistenciaBitmap;
+import EduData.repository.AsistenciaBitmapRepositorio;
+import EduData.repository.AsistenciaRepositorio;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Historial de asistencia en mapas de bits (AsistenciaBitmap): un par de bitsets por matrícula y
+ * semestre, con el bit d correspondiente al día d desde el inicio del semestre.
+ *
+ * AsistenciaServicio actualiza los mapas en la misma transacción en que escribe las filas de
+ * Asistencia, así que ambos quedan alineados. Las asistencias anteriores a esta tabla, o cargadas
+ * por otras vías, se incorporan con migrar(). Tasas, rachas y alertas se calculan sobre los bits
+ * sin tocar la tabla de asistencias: cada matrícula son dos arreglos de a lo sumo 23 bytes.
+ */
+@Service
+@Slf4j
+public class AsistenciaBitmapServicio {
+
+    private final AsistenciaBitmapRepositorio bitmapRepositorio;
+    private final AsistenciaRepositorio asistenciaRepositorio;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transaccion;
+    private final int tamanioLote;
+
+    public AsistenciaBitmapServicio(AsistenciaBitmapRepositorio bitmapRepositorio,
+                                    AsistenciaRepositorio asistenciaRepositorio,
+                                    EntityManager entityManager,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${edudata.asistencia.bitmap.tamanio-lote:500}") int tamanioLote) {
+        this.bitmapRepositorio = bitmapRepositorio;
+        this.asistenciaRepositorio = asistenciaRepositorio;
+        this.entityManager = entityManager;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.tamanioLote = tamanioLote;
+    }
+
+    /**
+     * Semestre académico: 1 = enero a junio, 2 = julio a diciembre.
+     */
+    public record Periodo(int anio, int semestre) {
+
+        public static Periodo de(LocalDate fecha) {
+            return new Periodo(fecha.getYear(), fecha.getMonthValue() <= 6 ? 1 : 2);
+        }
+
+        /**
+         * Periodo indicado en la petición; sin año ni semestre se usa el periodo en curso.
+         */
+        public static Periodo de(Integer anio, Integer semestre) {
+            if (anio == null && semestre == null) {
+                return de(LocalDate.now());
+            }
+            if (anio == null || semestre == null || (semestre != 1 && semestre != 2)) {
+                throw new IllegalArgumentException("Se debe indicar anio y periodo (1 o 2)");
+            }
+            return new Periodo(anio, semestre);
+        }
+
+        public LocalDate inicio() {
+            return LocalDate.of(anio, semestre == 1 ? 1 : 7, 1);
+        }
+
+        public int indice(LocalDate fecha) {
+            return (int) ChronoUnit.DAYS.between(inicio(), fecha);
+        }
+    }
+
+    /**
+     * Marca la asistencia de un día para varias matrículas. Debe llamarse dentro de una transacción.
+     */
+    public void registrar(Map<Long, Boolean> estados, LocalDate fecha) {
+        if (estados.isEmpty() || fecha == null) {
+            return;
+        }
+        Periodo periodo = Periodo.de(fecha);
+        int dia = periodo.indice(fecha);
+        Map<Long, AsistenciaBitmap> existentes = bloquear(estados.keySet(), periodo);
+        LocalDateTime ahora = LocalDateTime.now();
+
+        List<AsistenciaBitmap> modificados = new ArrayList<>(estados.size());
+        estados.forEach((matriculaId, presente) -> {
+            AsistenciaBitmap bitmap = existentes.computeIfAbsent(matriculaId, id -> nuevo(id, periodo));
+            BitSet registrados = bits(bitmap.getRegistrados());
+            BitSet presentes = bits(bitmap.getPresentes());
+            // Sin valor de presencia el día se trata como no registrado
+            registrados.set(dia, presente != null);
+            presentes.set(dia, Boolean.TRUE.equals(presente));
+            bitmap.setRegistrados(registrados.toByteArray());
+            bitmap.setPresentes(presentes.toByteArray());
+            bitmap.setActualizado(ahora);
+            modificados.add(bitmap);
+        });
+        bitmapRepositorio.saveAll(modificados);
+    }
+
+    public void registrar(Long matriculaId, LocalDate fecha, Boolean presente) {
+        if (matriculaId == null) {
+            return;
+        }
+        Map<Long, Boolean> estado = new HashMap<>();
+        estado.put(matriculaId, presente);
+        registrar(estado, fecha);
+    }
+
+    /**
+     * Desmarca un día de una matrícula, al borrar o mover una asistencia.
+     */
+    public void quitar(Long matriculaId, LocalDate fecha) {
+        registrar(matriculaId, fecha, null);
+    }
+
+    public Optional<ResumenAsistenciaDTO> porMatricula(Long matriculaId, Periodo periodo) {
+        return bitmapRepositorio.findByMatriculaIdAndAnioAndPeriodo(matriculaId, periodo.anio(), periodo.semestre())
+                .map(AsistenciaBitmapServicio::resumir);
+    }
+
+    public List<ResumenAsistenciaDTO> porEstudiante(Long estudianteId, Periodo periodo) {
+        return bitmapRepositorio.buscarPorEstudiante(estudianteId, periodo.anio(), periodo.semestre()).stream()
+                .map(AsistenciaBitmapServicio::resumir)
+                .sorted(Comparator.comparing(ResumenAsistenciaDTO::getMatriculaId))
+                .toList();
+    }
+
+    /**
+     * Totales del curso en el periodo. Los días con clase son la unión (OR) de los días registrados
+     * de todas las matrículas.
+     */
+    public Map<String, Object> porCurso(Long cursoId, Periodo periodo) {
+        List<AsistenciaBitmap> bitmaps = bitmapRepositorio.buscarPorCurso(cursoId, periodo.anio(), periodo.semestre());
+        BitSet diasConClase = new BitSet();
+        long registrados = 0;
+        long presentes = 0;
+        for (AsistenciaBitmap bitmap : bitmaps) {
+            BitSet reg = bits(bitmap.getRegistrados());
+            BitSet pres = bits(bitmap.getPresentes());
+            pres.and(reg);
+            diasConClase.or(reg);
+            registrados += reg.cardinality();
+            presentes += pres.cardinality();
+        }
+
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("cursoId", cursoId);
+        resumen.put("anio", periodo.anio());
+        resumen.put("periodo", periodo.semestre());
+        resumen.put("matriculas", bitmaps.size());
+        resumen.put("diasConClase", diasConClase.cardinality());
+        resumen.put("asistenciasRegistradas", registrados);
+        resumen.put("asistenciasPresente", presentes);
+        resumen.put("tasaAsistencia", tasa(presentes, registrados));
+        return resumen;
+    }
+
+    /**
+     * Matrículas del curso con una tasa de asistencia menor que tasaMinima o con al menos
+     * rachaAusencias faltas seguidas al final del periodo registrado.
+     */
+    public List<ResumenAsistenciaDTO> alertas(Long cursoId, Periodo periodo, double tasaMinima, int rachaAusencias) {
+        if (tasaMinima < 0 || tasaMinima > 1) {
+            throw new IllegalArgumentException("La tasa mínima debe estar entre 0 y 1");
+        }
+        if (rachaAusencias < 1) {
+            throw new IllegalArgumentException("La racha de ausencias debe ser mayor que cero");
+        }
+        return bitmapRepositorio.buscarPorCurso(cursoId, periodo.anio(), periodo.semestre()).stream()
+                .map(AsistenciaBitmapServicio::resumir)
+                .filter(r -> r.getDiasRegistrados() > 0)
+                .filter(r -> r.getTasaAsistencia() < tasaMinima || r.getRachaAusenciasActual() >= rachaAusencias)
+                .sorted(Comparator.comparing(ResumenAsistenciaDTO::getRachaAusenciasActual).reversed()
+                        .thenComparing(ResumenAsistenciaDTO::getTasaAsistencia))
+                .toList();
+    }
+
+    /**
+     * Reconstruye todos los mapas de bits a partir de las filas de Asistencia: borra los mapas
+     * existentes y recorre las asistencias ordenadas por matrícula y fecha, así que solo hay un par
+     * de bitsets en memoria a la vez y los mapas se guardan en lotes de tamanioLote.
+     *
+     * La tabla queda bloqueada en modo EXCLUSIVE hasta el commit: las altas, cambios y bajas de
+     * asistencia que lleguen mientras tanto esperan en bloquear() y después ven los mapas nuevos, en
+     * lugar de no encontrar el suyo e insertar otro que choca con la restricción única.
+     *
+     * @return filas leídas, mapas generados y bytes ocupados por los mapas
+     */
+    public Map<String, Object> migrar() {
+        long inicio = System.currentTimeMillis();
+        Map<String, Object> resultado = transaccion.execute(status -> {
+            entityManager.createNativeQuery("LOCK TABLE asistencia_bitmap IN EXCLUSIVE MODE")
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedEntityClass(AsistenciaBitmap.class)
+                    .executeUpdate();
+            bitmapRepositorio.borrarTodos();
+            Migracion migracion = new Migracion();
+            try (Stream<Object[]> filas = asistenciaRepositorio.recorrerParaMigracion()) {
+                filas.forEach(migracion::agregar);
+            }
+            migracion.cerrarActual();
+            migracion.guardarLote();
+
+            Map<String, Object> totales = new LinkedHashMap<>();
+            totales.put("filasLeidas", migracion.filasLeidas);
+            totales.put("mapas", migracion.mapas);
+            totales.put("bytes", migracion.bytes);
+            return totales;
+        });
+        resultado.put("milisegundos", System.currentTimeMillis() - inicio);
+        log.info("Asistencias migradas a mapas de bits: {}", resultado);
+        return resultado;
+    }
+
+    private Map<Long, AsistenciaBitmap> bloquear(Collection<Long> matriculaIds, Periodo periodo) {
+        Map<Long, AsistenciaBitmap> porMatricula = new HashMap<>();
+        for (AsistenciaBitmap bitmap : bitmapRepositorio.bloquear(matriculaIds, periodo.anio(), periodo.semestre())) {
+            porMatricula.put(bitmap.getMatriculaId(), bitmap);
+        }
+        return porMatricula;
+    }
+
+    private static AsistenciaBitmap nuevo(Long matriculaId, Periodo periodo) {
+        return new AsistenciaBitmap(null, matriculaId, periodo.anio(), periodo.semestre(), new byte[0], new byte[0], null);
+    }
+
+    /**
+     * Tasa y rachas de una matrícula. Las rachas se cuentan sobre los días con clase registrada,
+     * recorriendo los bits de "registrados" en orden; las ausencias son registrados AND NOT presentes.
+     */
+    static ResumenAsistenciaDTO resumir(AsistenciaBitmap bitmap) {
+        BitSet registrados = bits(bitmap.getRegistrados());
+        BitSet presentes = bits(bitmap.getPresentes());
+        presentes.and(registrados);
+
+        int rachaAusencias = 0;
+        int maxAusencias = 0;
+        int rachaAsistencia = 0;
+        int maxAsistencia = 0;
+        for (int dia = registrados.nextSetBit(0); dia >= 0; dia = registrados.nextSetBit(dia + 1)) {
+            if (presentes.get(dia)) {
+                rachaAsistencia++;
+                rachaAusencias = 0;
+                maxAsistencia = Math.max(maxAsistencia, rachaAsistencia);
+            } else {
+                rachaAusencias++;
+                rachaAsistencia = 0;
+                maxAusencias = Math.max(maxAusencias, rachaAusencias);
+            }
+        }
+
+        int dias = registrados.cardinality();
+        int diasPresente = presentes.cardinality();
+        return new ResumenAsistenciaDTO(bitmap.getMatriculaId(), bitmap.getAnio(), bitmap.getPeriodo(),
+                dias, diasPresente, tasa(diasPresente, dias), rachaAusencias, maxAusencias, maxAsistencia);
+    }
+
+    private static BitSet bits(byte[] bytes) {
+        return bytes != null ? BitSet.valueOf(bytes) : new BitSet();
+    }
+
+    private static Double tasa(long presentes, long registrados) {
+        if (registrados == 0) {
+            return null;
+        }
+        return Math.round((double) presentes / registrados * 10000.0) / 10000.0;
+    }
+
+    /**
+     * Estado del recorrido de migrar(): la matrícula y el periodo en curso y el lote pendiente.
+     */
+    private final class Migracion {
+        private final List<AsistenciaBitmap> lote = new ArrayList<>();
+        private final LocalDateTime ahora = LocalDateTime.now();
+        private Long matriculaId;
+        private Periodo periodo;
+        private BitSet registrados;
+        private BitSet presentes;
+        private long filasLeidas;
+        private long mapas;
+        private long bytes;
+
+        private void agregar(Object[] fila) {
+            filasLeidas++;
+            Long id = (Long) fila[0];
+            LocalDate fecha = (LocalDate) fila[1];
+            Boolean presente = (Boolean) fila[2];
+            Periodo periodoFila = Periodo.de(fecha);
+            if (!id.equals(matriculaId) || !periodoFila.equals(periodo)) {
+                cerrarActual();
+                matriculaId = id;
+                periodo = periodoFila;
+                registrados = new BitSet();
+                presentes = new BitSet();
+            }
+            if (presente != null) {
+                int dia = periodo.indice(fecha);
+                registrados.set(dia);
+                presentes.set(dia, presente);
+            }
+        }
+
+        private void cerrarActual() {
+            if (matriculaId == null) {
+                return;
+            }
+            AsistenciaBitmap bitmap = new AsistenciaBitmap(null, matriculaId, periodo.anio(), periodo.semestre(),
+                    registrados.toByteArray(), presentes.toByteArray(), ahora);
+            bytes += bitmap.getRegistrados().length + bitmap.getPresentes().length;
+            mapas++;
+            lote.add(bitmap);
+            matriculaId = null;
+            if (lote.size() >= tamanioLote) {
+                guardarLote();
+            }
+        }
+
+        private void guardarLote() {
+            if (lote.isEmpty()) {
+                return;
+            }
+            bitmapRepositorio.saveAll(lote);
+            entityManager.flush();
+            // Los mapas ya guardados no se vuelven a tocar: se sueltan del contexto de persistencia
+            entityManager.clear();
+            lote.clear();
+        }
+    }
+}
@@ -1,41 +1,189 @@
 package EduData.service;
 
+import EduData.config.CacheAplicacionConfig;
+import EduData.dto.AsistenciaMasivaDTO;
 import EduData.entity.Asistencia;
 import EduData.repository.AsistenciaRepositorio;
+import EduData.repository.MatriculaRepositorio;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class AsistenciaServicio {
 
+    // Debe coincidir con el allocationSize de Asistencia: cada nextval de asistencia_seq reserva este número de ids
+    private static final int IDS_POR_BLOQUE = 50;
+
     @Autowired
     private AsistenciaRepositorio asistenciaRepositorio;
 
+    @Autowired
+    private MatriculaRepositorio matriculaRepositorio;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AsistenciaBitmapServicio asistenciaBitmapServicio;
+
     public List<Asistencia> obtenerTodas() {
-        return asistenciaRepositorio.findAll();
+        return asistenciaRepositorio.listarConRelaciones();
     }
 
+    @Cacheable(cacheNames = CacheAplicacionConfig.ASISTENCIAS, key = "#id", unless = "#result == null")
     public Optional<Asistencia> obtenerPorId(Long id) {
         return asistenciaRepositorio.findById(id);
     }
 
+    @Transactional
     public Asistencia crear(Asistencia asistencia) {
-        return asistenciaRepositorio.save(asistencia);
+        Asistencia guardada = asistenciaRepositorio.save(asistencia);
+        asistenciaBitmapServicio.registrar(matriculaId(guardada), guardada.getFecha(), guardada.getPresente());
+        return guardada;
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheAplicacionConfig.ASISTENCIAS, key = "#id")
     public Asistencia actualizar(Long id, Asistencia asistenciaActualizada) {
         return asistenciaRepositorio.findById(id).map(a -> {
+            Long matriculaAnterior = matriculaId(a);
+            LocalDate fechaAnterior = a.getFecha();
             a.setFecha(asistenciaActualizada.getFecha());
             a.setPresente(asistenciaActualizada.getPresente());
             a.setMatricula(asistenciaActualizada.getMatricula());
-            return asistenciaRepositorio.save(a);
+            Asistencia guardada = asistenciaRepositorio.save(a);
+            asistenciaBitmapServicio.quitar(matriculaAnterior, fechaAnterior);
+            asistenciaBitmapServicio.registrar(matriculaId(guardada), guardada.getFecha(), guardada.getPresente());
+            return guardada;
         }).orElse(null);
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheAplicacionConfig.ASISTENCIAS, key = "#id")
     public void eliminar(Long id) {
+        asistenciaRepositorio.findById(id).ifPresent(a ->
+                asistenciaBitmapServicio.quitar(matriculaId(a), a.getFecha()));
         asistenciaRepositorio.deleteById(id);
     }
+
+    /**
+     * Registra la asistencia de una sesión completa en una sola transacción.
+     *
+     * Es idempotente por (matrícula, fecha): las matrículas que ya tienen asistencia ese día se
+     * actualizan si cambió el valor y las demás se insertan, así que reenviar la misma petición no
+     * duplica filas. Las inserciones y actualizaciones van en lotes JDBC sin cargar entidades; los
+     * ids de las filas nuevas se reservan de asistencia_seq igual que lo hace Hibernate.
+     *
+     * @return cantidad de asistencias creadas, actualizadas y sin cambios
+     * @throws IllegalArgumentException si faltan datos, una matrícula aparece dos veces o no pertenece al curso
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheAplicacionConfig.ASISTENCIAS, allEntries = true)
+    public Map<String, Object> registrarSesion(AsistenciaMasivaDTO sesion) {
+        if (sesion.getCursoId() == null || sesion.getFecha() == null) {
+            throw new IllegalArgumentException("cursoId y fecha son obligatorios");
+        }
+        Map<Long, Boolean> estados = new HashMap<>();
+        for (Long id : Optional.ofNullable(sesion.getPresentes()).orElse(List.of())) {
+            if (estados.put(id, true) != null) {
+                throw new IllegalArgumentException("Matrícula repetida: " + id);
+            }
+        }
+        for (Long id : Optional.ofNullable(sesion.getAusentes()).orElse(List.of())) {
+            if (estados.put(id, false) != null) {
+                throw new IllegalArgumentException("Matrícula repetida o marcada como presente y ausente: " + id);
+            }
+        }
+
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        if (estados.isEmpty()) {
+            resultado.put("creadas", 0);
+            resultado.put("actualizadas", 0);
+            resultado.put("sinCambios", 0);
+            return resultado;
+        }
+
+        // Copia completa para los mapas de bits: estados se va vaciando al separar altas de cambios
+        Map<Long, Boolean> sesionCompleta = new HashMap<>(estados);
+
+        Set<Long> delCurso = new HashSet<>(matriculaRepositorio.filtrarPorCurso(sesion.getCursoId(), estados.keySet()));
+        if (delCurso.size() != estados.size()) {
+            List<Long> ajenas = estados.keySet().stream().filter(id -> !delCurso.contains(id)).sorted().toList();
+            throw new IllegalArgumentException("Matrículas que no pertenecen al curso: " + ajenas);
+        }
+
+        List<Object[]> actualizaciones = new ArrayList<>();
+        int sinCambios = 0;
+        for (Object[] fila : asistenciaRepositorio.buscarRegistradas(sesion.getFecha(), estados.keySet())) {
+            Long matriculaId = (Long) fila[1];
+            Boolean presente = estados.remove(matriculaId);
+            if (presente == null) {
+                // Fila duplicada anterior a la restricción única: ya se procesó la primera
+                continue;
+            }
+            if (presente.equals(fila[2])) {
+                sinCambios++;
+            } else {
+                actualizaciones.add(new Object[]{presente, fila[0]});
+            }
+        }
+
+        // Lo que queda en estados son matrículas sin asistencia registrada ese día
+        Date fecha = Date.valueOf(sesion.getFecha());
+        List<Object[]> inserciones = new ArrayList<>(estados.size());
+        if (!estados.isEmpty()) {
+            Iterator<Long> ids = reservarIds(estados.size()).iterator();
+            estados.forEach((matriculaId, presente) -> inserciones.add(new Object[]{ids.next(), fecha, presente, matriculaId}));
+            jdbcTemplate.batchUpdate("INSERT INTO asistencia (id, fecha, presente, matricula_id) VALUES (?, ?, ?, ?)", inserciones);
+        }
+        if (!actualizaciones.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE asistencia SET presente = ? WHERE id = ?", actualizaciones);
+        }
+        asistenciaBitmapServicio.registrar(sesionCompleta, sesion.getFecha());
+
+        resultado.put("creadas", inserciones.size());
+        resultado.put("actualizadas", actualizaciones.size());
+        resultado.put("sinCambios", sinCambios);
+        return resultado;
+    }
+
+    /**
+     * Reserva ids de asistencia_seq con el mismo esquema que el optimizador pooled de Hibernate:
+     * el valor v devuelto por nextval es el último id del bloque (v - IDS_POR_BLOQUE, v], así que
+     * nunca se solapa con los bloques que toma Hibernate.
+     */
+    private List<Long> reservarIds(int cantidad) {
+        List<Long> ids = new ArrayList<>(cantidad);
+        while (ids.size() < cantidad) {
+            int bloques = (cantidad - ids.size() + IDS_POR_BLOQUE - 1) / IDS_POR_BLOQUE;
+            for (Long alto : jdbcTemplate.queryForList(
+                    "SELECT nextval('asistencia_seq') FROM generate_series(1, ?)", Long.class, bloques)) {
+                // El primer valor de una secuencia nueva es 1: ese bloque solo tiene un id
+                for (long id = Math.max(1, alto - IDS_POR_BLOQUE + 1); id <= alto && ids.size() < cantidad; id++) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static Long matriculaId(Asistencia asistencia) {
+        return asistencia.getMatricula() != null ? asistencia.getMatricula().getId() : null;
+    }
 }
@@ -0,0 +1,300 @@
+package EduData.service;
+
+import EduData.dto.AgregadoNotaDTO;
+import EduData.entity.Estudiante;
+import EduData.entity.Matricula;
+import EduData.repository.CalificacionRepositorio;
+import EduData.repository.CursoRepositorio;
+import EduData.repository.EstudianteRepositorio;
+import EduData.repository.MatriculaRepositorio;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.utils.PdfMerger;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.Style;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Genera boletines de calificaciones para un grupo, un nivel o un curso completo.
+ *
+ * Los estudiantes se procesan por lotes: para cada lote se cargan las matrículas y las
+ * calificaciones con dos consultas IN, los boletines del lote se maquetan en paralelo y el
+ * resultado se escribe en orden en la salida, ya sea como ZIP (un PDF por estudiante) o como
+ * un único PDF con todos los boletines.
+ */
+@Service
+@Slf4j
+public class BoletinServicio {
+
+    public enum Formato {
+        ZIP, PDF
+    }
+
+    private static final DateTimeFormatter FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter FECHA_HORA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    // Los estilos no dependen del documento, así que se comparten entre todos los boletines
+    private static final Style TITULO = new Style().setFontSize(18).setBold().setTextAlignment(TextAlignment.CENTER);
+    private static final Style SECCION = new Style().setFontSize(13).setBold();
+    private static final Style ENCABEZADO = new Style().setBold();
+    private static final Style PIE = new Style().setFontSize(9).setTextAlignment(TextAlignment.RIGHT);
+    private static final float[] COLUMNAS_NOTAS = {3, 2, 1};
+
+    private final EstudianteRepositorio estudianteRepositorio;
+    private final CursoRepositorio cursoRepositorio;
+    private final MatriculaRepositorio matriculaRepositorio;
+    private final CalificacionRepositorio calificacionRepositorio;
+    private final AnaliticaCalificacionesServicio analiticaServicio;
+    private final EntityManager entityManager;
+    private final ExecutorService renderizado;
+    private final int tamanioLote;
+
+    public BoletinServicio(EstudianteRepositorio estudianteRepositorio,
+                           CursoRepositorio cursoRepositorio,
+                           MatriculaRepositorio matriculaRepositorio,
+                           CalificacionRepositorio calificacionRepositorio,
+                           AnaliticaCalificacionesServicio analiticaServicio,
+                           EntityManager entityManager,
+                           @Value("${edudata.boletines.hilos:0}") int hilos,
+                           @Value("${edudata.boletines.tamanio-lote:64}") int tamanioLote) {
+        this.estudianteRepositorio = estudianteRepositorio;
+        this.cursoRepositorio = cursoRepositorio;
+        this.matriculaRepositorio = matriculaRepositorio;
+        this.calificacionRepositorio = calificacionRepositorio;
+        this.analiticaServicio = analiticaServicio;
+        this.entityManager = entityManager;
+        this.tamanioLote = Math.max(1, tamanioLote);
+        // 0 = un hilo por núcleo
+        this.renderizado = Executors.newFixedThreadPool(
+                hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void detener() {
+        renderizado.shutdownNow();
+    }
+
+    /**
+     * Devuelve los estudiantes de un grupo, un nivel o un curso. Se debe indicar exactamente un filtro.
+     *
+     * @throws IllegalArgumentException si no hay exactamente un filtro o el curso no existe
+     */
+    public List<Estudiante> seleccionar(String grupo, String nivel, Long cursoId) {
+        int filtros = (grupo != null ? 1 : 0) + (nivel != null ? 1 : 0) + (cursoId != null ? 1 : 0);
+        if (filtros != 1) {
+            throw new IllegalArgumentException("Indique exactamente uno de: grupo, nivel o cursoId");
+        }
+        if (grupo != null) {
+            return estudianteRepositorio.findByGrupoOrderByApellidoAscNombreAsc(grupo);
+        }
+        if (nivel != null) {
+            return estudianteRepositorio.findByNivelOrderByApellidoAscNombreAsc(nivel);
+        }
+        if (!cursoRepositorio.existsById(cursoId)) {
+            throw new IllegalArgumentException("Curso no encontrado: " + cursoId);
+        }
+        return estudianteRepositorio.buscarPorCurso(cursoId);
+    }
+
+    public void escribir(List<Estudiante> estudiantes, Formato formato, OutputStream salida) throws Exception {
+        long inicio = System.currentTimeMillis();
+        if (formato == Formato.ZIP) {
+            escribirZip(estudiantes, salida);
+        } else {
+            escribirPdfUnico(estudiantes, salida);
+        }
+        log.info("{} boletines generados en formato {} en {} ms",
+                estudiantes.size(), formato, System.currentTimeMillis() - inicio);
+    }
+
+    private void escribirZip(List<Estudiante> estudiantes, OutputStream salida) throws Exception {
+        ZipOutputStream zip = new ZipOutputStream(salida);
+        for (int desde = 0; desde < estudiantes.size(); desde += tamanioLote) {
+            List<Estudiante> lote = estudiantes.subList(desde, Math.min(desde + tamanioLote, estudiantes.size()));
+            List<byte[]> pdfs = renderizarLote(lote);
+            for (int i = 0; i < lote.size(); i++) {
+                zip.putNextEntry(new ZipEntry(nombreArchivo(lote.get(i))));
+                zip.write(pdfs.get(i));
+                zip.closeEntry();
+            }
+            zip.flush();
+        }
+        // finish() y no close(): la salida pertenece a quien llamó
+        zip.finish();
+    }
+
+    private void escribirPdfUnico(List<Estudiante> estudiantes, OutputStream salida) throws Exception {
+        PdfWriter writer = new PdfWriter(salida);
+        writer.setCloseStream(false);
+        // Smart mode reutiliza en el PDF final las fuentes y recursos idénticos de cada boletín
+        writer.setSmartMode(true);
+        PdfDocument destino = new PdfDocument(writer);
+        PdfMerger merger = new PdfMerger(destino);
+
+        for (int desde = 0; desde < estudiantes.size(); desde += tamanioLote) {
+            List<Estudiante> lote = estudiantes.subList(desde, Math.min(desde + tamanioLote, estudiantes.size()));
+            for (byte[] pdf : renderizarLote(lote)) {
+                PdfDocument origen = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf)));
+                merger.merge(origen, 1, origen.getNumberOfPages());
+                // Escribe las páginas ya copiadas para no acumular el documento completo en memoria
+                destino.flushCopiedObjects(origen);
+                origen.close();
+            }
+        }
+
+        if (destino.getNumberOfPages() == 0) {
+            // Un PDF sin páginas no es válido
+            destino.addNewPage();
+        }
+        destino.close();
+    }
+
+    /**
+     * Carga los datos del lote con dos consultas y maqueta sus boletines en paralelo.
+     * El resultado conserva el orden del lote.
+     */
+    private List<byte[]> renderizarLote(List<Estudiante> lote) throws Exception {
+        List<Long> estudianteIds = lote.stream().map(Estudiante::getId).toList();
+
+        Map<Long, List<CursoBoletin>> cursosPorEstudiante = new HashMap<>();
+        Map<Long, CursoBoletin> cursosPorMatricula = new HashMap<>();
+        for (Matricula matricula : matriculaRepositorio.buscarPorEstudiantes(estudianteIds)) {
+            CursoBoletin curso = new CursoBoletin(
+                    matricula.getCurso().getNombre(),
+                    matricula.getCurso().getCodigo(),
+                    matricula.getCurso().getDocente() != null ? matricula.getCurso().getDocente().getNombre() : null,
+                    matricula.getAnio(),
+                    new ArrayList<>());
+            cursosPorMatricula.put(matricula.getId(), curso);
+            cursosPorEstudiante.computeIfAbsent(matricula.getEstudiante().getId(), id -> new ArrayList<>()).add(curso);
+        }
+        if (!cursosPorMatricula.isEmpty()) {
+            for (Object[] fila : calificacionRepositorio.buscarPorMatriculas(cursosPorMatricula.keySet())) {
+                cursosPorMatricula.get((Long) fila[0]).notas()
+                        .add(new Nota((String) fila[1], (Double) fila[2], (LocalDate) fila[3]));
+            }
+        }
+        // Los hilos de maquetación solo leen datos ya cargados; se libera el contexto de persistencia
+        entityManager.clear();
+
+        List<Future<byte[]>> tareas = new ArrayList<>(lote.size());
+        for (Estudiante estudiante : lote) {
+            List<CursoBoletin> cursos = cursosPorEstudiante.getOrDefault(estudiante.getId(), List.of());
+            tareas.add(renderizado.submit(() -> renderizar(estudiante, cursos)));
+        }
+        List<byte[]> pdfs = new ArrayList<>(lote.size());
+        try {
+            for (Future<byte[]> tarea : tareas) {
+                pdfs.add(tarea.get());
+            }
+        } catch (ExecutionException e) {
+            tareas.forEach(t -> t.cancel(true));
+            throw (e.getCause() instanceof Exception causa) ? causa : e;
+        }
+        return pdfs;
+    }
+
+    private byte[] renderizar(Estudiante estudiante, List<CursoBoletin> cursos) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document(new PdfDocument(new PdfWriter(baos)));
+
+        document.add(new Paragraph("BOLETÍN DE CALIFICACIONES").addStyle(TITULO));
+        document.add(new Paragraph(texto(estudiante.getNombre()) + " " + texto(estudiante.getApellido()))
+                .setTextAlignment(TextAlignment.CENTER)
+                .setFontSize(14));
+        document.add(new Paragraph("Identificación: " + texto(estudiante.getIdentificacion()) +
+                "    Nivel: " + texto(estudiante.getNivel()) +
+                "    Grupo: " + texto(estudiante.getGrupo())));
+
+        if (cursos.isEmpty()) {
+            document.add(new Paragraph("El estudiante no tiene matrículas registradas."));
+        }
+
+        double sumaPromedios = 0;
+        int cursosConNotas = 0;
+        for (CursoBoletin curso : cursos) {
+            document.add(new Paragraph(texto(curso.nombre()) + " (" + texto(curso.codigo()) + ") - " + curso.anio())
+                    .addStyle(SECCION));
+            if (curso.docente() != null) {
+                document.add(new Paragraph("Docente: " + curso.docente()));
+            }
+
+            Table tabla = new Table(UnitValue.createPercentArray(COLUMNAS_NOTAS));
+            tabla.setWidth(UnitValue.createPercentValue(100));
+            tabla.addHeaderCell(new Cell().add(new Paragraph("Evaluación").addStyle(ENCABEZADO)));
+            tabla.addHeaderCell(new Cell().add(new Paragraph("Fecha").addStyle(ENCABEZADO)));
+            tabla.addHeaderCell(new Cell().add(new Paragraph("Nota").addStyle(ENCABEZADO)));
+
+            // Cada nota es una fila de cantidad 1: el promedio se pondera por tipo como en las analíticas
+            List<AgregadoNotaDTO> conValor = new ArrayList<>(curso.notas().size());
+            for (Nota nota : curso.notas()) {
+                tabla.addCell(new Cell().add(new Paragraph(texto(nota.tipo()))));
+                tabla.addCell(new Cell().add(new Paragraph(nota.fecha() != null ? nota.fecha().format(FECHA) : "")));
+                tabla.addCell(new Cell().add(new Paragraph(nota.valor() != null ? String.format("%.2f", nota.valor()) : "")));
+                if (nota.valor() != null) {
+                    conValor.add(new AgregadoNotaDTO(null, null, nota.tipo(), nota.valor(), 1L, nota.valor(), nota.valor()));
+                }
+            }
+            Double promedio = analiticaServicio.promedio(conValor);
+            if (promedio != null) {
+                tabla.addCell(new Cell(1, 2).add(new Paragraph("Promedio").addStyle(ENCABEZADO)));
+                tabla.addCell(new Cell().add(new Paragraph(String.format("%.2f", promedio)).addStyle(ENCABEZADO)));
+                sumaPromedios += promedio;
+                cursosConNotas++;
+            }
+            document.add(tabla);
+        }
+
+        if (cursosConNotas > 0) {
+            document.add(new Paragraph("Promedio general: " + String.format("%.2f", sumaPromedios / cursosConNotas))
+                    .addStyle(SECCION)
+                    .setTextAlignment(TextAlignment.RIGHT));
+        }
+
+        document.add(new Paragraph("Fecha de generación: " + LocalDateTime.now().format(FECHA_HORA)).addStyle(PIE));
+        document.close();
+        return baos.toByteArray();
+    }
+
+    private static String nombreArchivo(Estudiante estudiante) {
+        String nombre = texto(estudiante.getApellido()) + "_" + texto(estudiante.getNombre());
+        return "boletin_" + nombre.replaceAll("[^A-Za-z0-9_-]", "") + "_" + estudiante.getId() + ".pdf";
+    }
+
+    private static String texto(String valor) {
+        return valor != null ? valor : "";
+    }
+
+    private record CursoBoletin(String nombre, String codigo, String docente, Integer anio, List<Nota> notas) {
+    }
+
+    private record Nota(String tipo, Double valor, LocalDate fecha) {
+    }
+}
@@ -0,0 +1,49 @@
+package EduData.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches locales de los servicios (PDFs, traducciones NLQ, usuarios autenticados): Caffeine acotado
+ * en entradas, con expiración opcional tras la escritura y con estadísticas, y el mismo resumen de
+ * aciertos y fallos para todas. Caffeine es seguro entre hilos y expulsa las entradas menos útiles,
+ * así que los servicios no necesitan candados propios.
+ */
+final class CachesLocales {
+
+    private CachesLocales() {
+    }
+
+    /**
+     * @param ttl expiración tras la escritura, o null para que las entradas solo salgan por tamaño
+     */
+    static <K, V> Cache<K, V> acotada(long maxEntradas, Duration ttl) {
+        Caffeine<Object, Object> constructor = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .recordStats();
+        if (ttl != null) {
+            constructor.expireAfterWrite(ttl);
+        }
+        return constructor.build();
+    }
+
+    /**
+     * Aciertos, fallos y expulsiones (por tamaño o por TTL) contados por Caffeine en cada búsqueda.
+     */
+    static Map<String, Object> estadisticas(Cache<?, ?> cache, long maxEntradas) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("aciertos", stats.hitCount());
+        resumen.put("fallos", stats.missCount());
+        resumen.put("tasaAciertos", stats.requestCount() == 0 ? 0.0 : stats.hitRate());
+        resumen.put("expulsiones", stats.evictionCount());
+        resumen.put("entradas", cache.estimatedSize());
+        resumen.put("maxEntradas", maxEntradas);
+        return resumen;
+    }
+}
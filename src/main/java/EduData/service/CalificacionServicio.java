@@ -1,9 +1,14 @@
 package EduData.service;
 
+import EduData.config.CacheAplicacionConfig;
 import EduData.entity.Calificacion;
+import EduData.entity.Matricula;
 import EduData.repository.CalificacionRepositorio;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,29 +19,57 @@ public class CalificacionServicio {
     @Autowired
     private CalificacionRepositorio calificacionRepositorio;
 
+    @Autowired
+    private ResumenCalificacionServicio resumenServicio;
+
     public List<Calificacion> obtenerTodas() {
-        return calificacionRepositorio.findAll();
+        return calificacionRepositorio.listarConRelaciones();
     }
 
+    @Cacheable(cacheNames = CacheAplicacionConfig.CALIFICACIONES, key = "#id", unless = "#result == null")
     public Optional<Calificacion> obtenerPorId(Long id) {
         return calificacionRepositorio.findById(id);
     }
 
+    // Las operaciones de escritura actualizan el resumen por matrícula en la misma transacción
+
+    @Transactional
     public Calificacion crear(Calificacion calificacion) {
-        return calificacionRepositorio.save(calificacion);
+        Calificacion guardada = calificacionRepositorio.save(calificacion);
+        resumenServicio.registrarAlta(idMatricula(guardada.getMatricula()), guardada.getValor());
+        return guardada;
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheAplicacionConfig.CALIFICACIONES, key = "#id")
     public Calificacion actualizar(Long id, Calificacion calificacionActualizada) {
         return calificacionRepositorio.findById(id).map(c -> {
+            Long matriculaAnterior = idMatricula(c.getMatricula());
+            Double valorAnterior = c.getValor();
+
             c.setTipo(calificacionActualizada.getTipo());
             c.setValor(calificacionActualizada.getValor());
             c.setFecha(calificacionActualizada.getFecha());
             c.setMatricula(calificacionActualizada.getMatricula());
-            return calificacionRepositorio.save(c);
+            Calificacion guardada = calificacionRepositorio.saveAndFlush(c);
+
+            resumenServicio.registrarBaja(matriculaAnterior, valorAnterior);
+            resumenServicio.registrarAlta(idMatricula(guardada.getMatricula()), guardada.getValor());
+            return guardada;
         }).orElse(null);
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheAplicacionConfig.CALIFICACIONES, key = "#id")
     public void eliminar(Long id) {
-        calificacionRepositorio.deleteById(id);
+        calificacionRepositorio.findById(id).ifPresent(c -> {
+            calificacionRepositorio.delete(c);
+            calificacionRepositorio.flush();
+            resumenServicio.registrarBaja(idMatricula(c.getMatricula()), c.getValor());
+        });
+    }
+
+    private static Long idMatricula(Matricula matricula) {
+        return matricula != null ? matricula.getId() : null;
     }
 }
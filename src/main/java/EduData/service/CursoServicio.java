@@ -1,8 +1,13 @@
 package EduData.service;
 
+import EduData.config.CacheAplicacionConfig;
+import EduData.dto.CursoDTO;
 import EduData.entity.Curso;
 import EduData.repository.CursoRepositorio;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -14,18 +19,32 @@ public class CursoServicio {
     @Autowired
     private CursoRepositorio cursoRepositorio;
 
+    @Cacheable(cacheNames = CacheAplicacionConfig.LISTADOS, key = "'cursos'")
     public List<Curso> obtenerTodos() {
-        return cursoRepositorio.findAll();
+        return cursoRepositorio.listarConDocente();
     }
 
+    @Cacheable(cacheNames = CacheAplicacionConfig.LISTADOS, key = "'cursosPlanos'")
+    public List<CursoDTO> obtenerTodosPlanos() {
+        return cursoRepositorio.listarPlano();
+    }
+
+    @Cacheable(cacheNames = CacheAplicacionConfig.CURSOS, key = "#id", unless = "#result == null")
     public Optional<Curso> obtenerPorId(Long id) {
-        return cursoRepositorio.findById(id);
+        return cursoRepositorio.buscarConDocente(id);
     }
 
+    @CacheEvict(cacheNames = CacheAplicacionConfig.LISTADOS, allEntries = true)
     public Curso crear(Curso curso) {
         return cursoRepositorio.save(curso);
     }
 
+    // Las matrículas, calificaciones y asistencias cacheadas llevan el curso anidado
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheAplicacionConfig.CURSOS, key = "#id"),
+        @CacheEvict(cacheNames = {CacheAplicacionConfig.LISTADOS, CacheAplicacionConfig.MATRICULAS,
+                CacheAplicacionConfig.CALIFICACIONES, CacheAplicacionConfig.ASISTENCIAS}, allEntries = true)
+    })
     public Curso actualizar(Long id, Curso cursoActualizado) {
         return cursoRepositorio.findById(id).map(curso -> {
             curso.setNombre(cursoActualizado.getNombre());
@@ -37,6 +56,11 @@ public class CursoServicio {
         }).orElse(null);
     }
 
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheAplicacionConfig.CURSOS, key = "#id"),
+        @CacheEvict(cacheNames = {CacheAplicacionConfig.LISTADOS, CacheAplicacionConfig.MATRICULAS,
+                CacheAplicacionConfig.CALIFICACIONES, CacheAplicacionConfig.ASISTENCIAS}, allEntries = true)
+    })
     public void eliminar(Long id) {
         cursoRepositorio.deleteById(id);
     }
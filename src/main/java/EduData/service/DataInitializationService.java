@@ -1,10 +1,12 @@
 package EduData.service;
 
+import EduData.config.AlineadorSecuencias;
 import EduData.entity.Usuario;
 import EduData.repository.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.DependsOn;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -13,6 +15,7 @@ import java.time.LocalDateTime;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@DependsOn(AlineadorSecuencias.NOMBRE)
 public class DataInitializationService implements CommandLineRunner {
 
     private final UsuarioRepository usuarioRepository;
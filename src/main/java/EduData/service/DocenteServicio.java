@@ -1,8 +1,12 @@
 package EduData.service;
 
+import EduData.config.CacheAplicacionConfig;
 import EduData.entity.Docente;
 import EduData.repository.DocenteRepositorio;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -14,18 +18,28 @@ public class DocenteServicio {
     @Autowired
     private DocenteRepositorio docenteRepositorio;
 
+    @Cacheable(cacheNames = CacheAplicacionConfig.LISTADOS, key = "'docentes'")
     public List<Docente> obtenerTodos() {
         return docenteRepositorio.findAll();
     }
 
+    @Cacheable(cacheNames = CacheAplicacionConfig.DOCENTES, key = "#id", unless = "#result == null")
     public Optional<Docente> obtenerPorId(Long id) {
         return docenteRepositorio.findById(id);
     }
 
+    @CacheEvict(cacheNames = CacheAplicacionConfig.LISTADOS, allEntries = true)
     public Docente crear(Docente docente) {
         return docenteRepositorio.save(docente);
     }
 
+    // El docente va anidado en los cursos, y a través de ellos en matrículas, calificaciones y asistencias
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheAplicacionConfig.DOCENTES, key = "#id"),
+        @CacheEvict(cacheNames = {CacheAplicacionConfig.LISTADOS, CacheAplicacionConfig.CURSOS,
+                CacheAplicacionConfig.MATRICULAS, CacheAplicacionConfig.CALIFICACIONES,
+                CacheAplicacionConfig.ASISTENCIAS}, allEntries = true)
+    })
     public Docente actualizar(Long id, Docente docenteActualizado) {
         return docenteRepositorio.findById(id).map(docente -> {
             docente.setNombre(docenteActualizado.getNombre());
@@ -35,6 +49,12 @@ public class DocenteServicio {
         }).orElse(null);
     }
 
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheAplicacionConfig.DOCENTES, key = "#id"),
+        @CacheEvict(cacheNames = {CacheAplicacionConfig.LISTADOS, CacheAplicacionConfig.CURSOS,
+                CacheAplicacionConfig.MATRICULAS, CacheAplicacionConfig.CALIFICACIONES,
+                CacheAplicacionConfig.ASISTENCIAS}, allEntries = true)
+    })
     public void eliminar(Long id) {
         docenteRepositorio.deleteById(id);
     }
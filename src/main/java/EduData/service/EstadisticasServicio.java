@@ -0,0 +1,87 @@
+package EduData.service;
+
+import EduData.repository.CursoRepositorio;
+import EduData.repository.DocenteRepositorio;
+import EduData.repository.EstudianteRepositorio;
+import EduData.repository.MatriculaRepositorio;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Calcula los totales del dashboard con consultas COUNT en la base de datos.
+ * El resultado se guarda en memoria durante un TTL corto para que muchas
+ * aperturas simultáneas del dashboard compartan una sola lectura.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EstadisticasServicio {
+
+    private final EstudianteRepositorio estudianteRepositorio;
+    private final CursoRepositorio cursoRepositorio;
+    private final DocenteRepositorio docenteRepositorio;
+    private final MatriculaRepositorio matriculaRepositorio;
+
+    @Value("${edudata.estadisticas.ttl-ms:10000}")
+    private long ttlMs;
+
+    private volatile Map<String, Object> snapshot;
+    private volatile long snapshotCreado;
+    // ReentrantLock y no synchronized: con hilos virtuales, esperar las consultas dentro de un
+    // bloque synchronized fijaría el hilo de plataforma que lo transporta
+    private final ReentrantLock refresco = new ReentrantLock();
+
+    public Map<String, Object> obtenerEstadisticas() {
+        Map<String, Object> actual = snapshot;
+        if (actual != null && !expirado()) {
+            return actual;
+        }
+        refresco.lock();
+        try {
+            // Otro hilo pudo haber refrescado mientras esperábamos el candado
+            if (snapshot == null || expirado()) {
+                snapshot = calcular();
+                snapshotCreado = System.currentTimeMillis();
+            }
+            return snapshot;
+        } finally {
+            refresco.unlock();
+        }
+    }
+
+    private boolean expirado() {
+        return System.currentTimeMillis() - snapshotCreado >= ttlMs;
+    }
+
+    private Map<String, Object> calcular() {
+        log.debug("Recalculando estadísticas del sistema");
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalEstudiantes", estudianteRepositorio.count());
+        stats.put("totalCursos", cursoRepositorio.count());
+        stats.put("totalDocentes", docenteRepositorio.count());
+        stats.put("totalMatriculas", matriculaRepositorio.count());
+        stats.put("estudiantesPorEstado", agrupar(estudianteRepositorio.contarPorEstado()));
+        stats.put("estudiantesPorNivel", agrupar(estudianteRepositorio.contarPorNivel()));
+        stats.put("estudiantesPorGrupo", agrupar(estudianteRepositorio.contarPorGrupo()));
+        stats.put("cursosPorAnio", agrupar(cursoRepositorio.contarPorAnio()));
+        stats.put("generadoEn", System.currentTimeMillis());
+        return Collections.unmodifiableMap(stats);
+    }
+
+    private Map<String, Long> agrupar(List<Object[]> filas) {
+        Map<String, Long> conteos = new LinkedHashMap<>();
+        for (Object[] fila : filas) {
+            String clave = fila[0] != null ? fila[0].toString() : "Sin definir";
+            conteos.merge(clave, ((Number) fila[1]).longValue(), Long::sum);
+        }
+        return conteos;
+    }
+}
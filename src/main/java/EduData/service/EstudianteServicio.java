@@ -1,19 +1,40 @@
 package EduData.service;
 
 
+import EduData.config.CacheAplicacionConfig;
+import EduData.dto.PaginaDTO;
 import EduData.entity.Estudiante;
 import EduData.repository.EstudianteRepositorio;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
 
 @Service
 public class EstudianteServicio {
 
+    private static final Set<String> ORDENES_PERMITIDOS = Set.of("id", "apellido", "matriculaAnio");
+
     private final EstudianteRepositorio repositorio;
 
+    @Value("${edudata.paginacion.tamanio-defecto:50}")
+    private int tamanioDefecto = 50;
+
+    @Value("${edudata.paginacion.tamanio-maximo:500}")
+    private int tamanioMaximo = 500;
+
     public EstudianteServicio(EstudianteRepositorio repositorio) {
         this.repositorio = repositorio;
     }
@@ -22,6 +43,45 @@ public class EstudianteServicio {
         return repositorio.findAll();
     }
 
+    /**
+     * Devuelve una página de estudiantes usando paginación keyset.
+     * El cursor es opaco para el cliente: codifica el orden, el último id y el valor
+     * de la columna de orden de la última fila entregada. Los estudiantes sin valor en la
+     * columna de orden van al final, ordenados por id.
+     */
+    public PaginaDTO<Estudiante> getStudentsPage(String cursor, Integer tamanio, String orden) {
+        String campo = (orden == null || orden.isBlank()) ? "id" : orden;
+        if (!ORDENES_PERMITIDOS.contains(campo)) {
+            throw new IllegalArgumentException("Orden no soportado: " + orden);
+        }
+
+        int limite = tamanio == null ? tamanioDefecto : Math.max(1, Math.min(tamanio, tamanioMaximo));
+        // Se pide una fila extra para saber si existe una página siguiente sin hacer COUNT
+        Pageable ventana = PageRequest.of(0, limite + 1);
+
+        String[] posicion = decodificarCursor(cursor, campo);
+        Long ultimoId = posicion == null ? 0L : Long.valueOf(posicion[0]);
+
+        List<Estudiante> filas = switch (campo) {
+            case "apellido" -> conNulosAlFinal(posicion, limite + 1,
+                    () -> repositorio.buscarDespuesDeApellido(
+                            posicion == null ? "" : posicion[1], ultimoId, ventana),
+                    repositorio::buscarSinApellidoDespuesDeId);
+            case "matriculaAnio" -> conNulosAlFinal(posicion, limite + 1,
+                    () -> repositorio.buscarDespuesDeMatriculaAnio(
+                            posicion == null ? Integer.MIN_VALUE : Integer.valueOf(posicion[1]), ultimoId, ventana),
+                    repositorio::buscarSinMatriculaAnioDespuesDeId);
+            default -> repositorio.buscarDespuesDeId(ultimoId, ventana);
+        };
+
+        boolean hayMas = filas.size() > limite;
+        List<Estudiante> contenido = hayMas ? new ArrayList<>(filas.subList(0, limite)) : filas;
+        String siguienteCursor = hayMas ? codificarCursor(campo, contenido.get(contenido.size() - 1)) : null;
+
+        return new PaginaDTO<>(contenido, contenido.size(), campo, siguienteCursor, hayMas);
+    }
+
+    @Cacheable(cacheNames = CacheAplicacionConfig.ESTUDIANTES, key = "#id", unless = "#result == null")
     public Optional<Estudiante> getStudentById(Long id) {
         return repositorio.findById(id);
     }
@@ -30,14 +90,82 @@ public class EstudianteServicio {
         return repositorio.save(estudiante);
     }
 
+    // Las matrículas, calificaciones y asistencias cacheadas llevan el estudiante anidado
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheAplicacionConfig.ESTUDIANTES, key = "#id"),
+        @CacheEvict(cacheNames = {CacheAplicacionConfig.MATRICULAS, CacheAplicacionConfig.CALIFICACIONES,
+                CacheAplicacionConfig.ASISTENCIAS}, allEntries = true)
+    })
     public Estudiante updateStudent(Long id, Estudiante updated) {
         return repositorio.findById(id).map(existing -> {
             updated.setId(existing.getId());
+            // El cuerpo no suele traer la versión: se parte de la actual y gana la última escritura
+            updated.setVersion(existing.getVersion());
             return repositorio.save(updated);
         }).orElseThrow(() -> new RuntimeException("Estudiante no encontrado"));
     }
 
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheAplicacionConfig.ESTUDIANTES, key = "#id"),
+        @CacheEvict(cacheNames = {CacheAplicacionConfig.MATRICULAS, CacheAplicacionConfig.CALIFICACIONES,
+                CacheAplicacionConfig.ASISTENCIAS}, allEntries = true)
+    })
     public void deleteStudent(Long id) {
         repositorio.deleteById(id);
     }
+
+    /**
+     * Primero las filas con valor en la columna de orden, a partir del cursor; si no llenan la
+     * ventana, las filas sin valor ordenadas por id. Un cursor sin valor ya está en ese segundo tramo.
+     */
+    private List<Estudiante> conNulosAlFinal(String[] posicion, int ventana,
+                                             Supplier<List<Estudiante>> conValor,
+                                             BiFunction<Long, Pageable, List<Estudiante>> sinValor) {
+        boolean enNulos = posicion != null && posicion[1] == null;
+        List<Estudiante> filas = enNulos ? new ArrayList<>() : new ArrayList<>(conValor.get());
+        if (filas.size() < ventana) {
+            Long desde = enNulos ? Long.valueOf(posicion[0]) : 0L;
+            filas.addAll(sinValor.apply(desde, PageRequest.of(0, ventana - filas.size())));
+        }
+        return filas;
+    }
+
+    private String codificarCursor(String campo, Estudiante ultimo) {
+        Object valor = switch (campo) {
+            case "apellido" -> ultimo.getApellido();
+            case "matriculaAnio" -> ultimo.getMatriculaAnio();
+            default -> "";
+        };
+        // Sin valor en la columna de orden el cursor solo lleva el id: "campo:id"
+        String crudo = campo + ":" + ultimo.getId() + (valor != null ? ":" + valor : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(crudo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return {id, valor} de la última fila vista (valor null si no tenía), o null si no hay cursor
+     */
+    private String[] decodificarCursor(String cursor, String campo) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String crudo = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = crudo.split(":", 3);
+            boolean sinValor = partes.length == 2 && !campo.equals("id");
+            if ((partes.length != 3 && !sinValor) || !partes[0].equals(campo)) {
+                throw new IllegalArgumentException("El cursor no corresponde al orden solicitado");
+            }
+            Long.parseLong(partes[1]);
+            if (sinValor) {
+                return new String[]{partes[1], null};
+            }
+            if (campo.equals("matriculaAnio")) {
+                Integer.parseInt(partes[2]);
+            }
+            return new String[]{partes[1], partes[2]};
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException también es IllegalArgumentException
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
 }
@@ -0,0 +1,249 @@
+package EduData.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Volcado completo de una tabla en CSV o NDJSON.
+ *
+ * Las filas se leen con un cursor JDBC de solo avance (fetch size fijo, dentro de una transacción
+ * de solo lectura para que PostgreSQL use un cursor de servidor) y se escriben en la salida a medida
+ * que llegan, sin pasar por entidades ni por el contexto de persistencia. La memoria usada no
+ * depende del tamaño de la tabla.
+ */
+@Service
+@Slf4j
+public class ExportacionServicio {
+
+    public enum Entidad {
+        ESTUDIANTES("estudiantes",
+                "SELECT id, identificacion, nombre, apellido, correo, fecha_nacimiento, genero, telefono, direccion, " +
+                "matricula_anio, estado, nivel, grupo FROM estudiante ORDER BY id",
+                List.of("id", "identificacion", "nombre", "apellido", "correo", "fechaNacimiento", "genero", "telefono",
+                        "direccion", "matriculaAnio", "estado", "nivel", "grupo")),
+        CURSOS("cursos",
+                "SELECT c.id, c.codigo, c.nombre, c.descripcion, c.anio, c.docente_id, d.email " +
+                "FROM curso c LEFT JOIN docente d ON d.id = c.docente_id ORDER BY c.id",
+                List.of("id", "codigo", "nombre", "descripcion", "anio", "docenteId", "docenteEmail")),
+        // identificacion y codigo permiten volver a importar el archivo en POST /api/importacion/matriculas
+        MATRICULAS("matriculas",
+                "SELECT m.id, m.anio, m.estudiante_id, e.identificacion, m.curso_id, c.codigo " +
+                "FROM matricula m JOIN estudiante e ON e.id = m.estudiante_id JOIN curso c ON c.id = m.curso_id " +
+                "ORDER BY m.id",
+                List.of("id", "anio", "estudianteId", "identificacion", "cursoId", "codigo")),
+        CALIFICACIONES("calificaciones",
+                "SELECT id, matricula_id, tipo, valor, fecha FROM calificacion ORDER BY id",
+                List.of("id", "matriculaId", "tipo", "valor", "fecha")),
+        ASISTENCIAS("asistencias",
+                "SELECT id, matricula_id, fecha, presente FROM asistencia ORDER BY id",
+                List.of("id", "matriculaId", "fecha", "presente"));
+
+        private final String archivo;
+        private final String sql;
+        private final List<String> campos;
+
+        Entidad(String archivo, String sql, List<String> campos) {
+            this.archivo = archivo;
+            this.sql = sql;
+            this.campos = campos;
+        }
+    }
+
+    public enum Formato {
+        CSV("text/csv;charset=UTF-8", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String tipoContenido;
+        private final String extension;
+
+        Formato(String tipoContenido, String extension) {
+            this.tipoContenido = tipoContenido;
+            this.extension = extension;
+        }
+
+        /**
+         * @throws IllegalArgumentException si el formato no es csv ni ndjson
+         */
+        public static Formato de(String formato) {
+            String valor = formato == null ? "csv" : formato.trim().toLowerCase(Locale.ROOT);
+            return switch (valor) {
+                case "csv" -> CSV;
+                case "ndjson", "jsonl" -> NDJSON;
+                default -> throw new IllegalArgumentException("Formato no soportado: " + formato + ". Use csv o ndjson");
+            };
+        }
+
+        public String tipoContenido() {
+            return tipoContenido;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaccion;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public ExportacionServicio(DataSource dataSource,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${edudata.exportacion.fetch-size:1000}") int fetchSize) {
+        // JdbcTemplate propio para no cambiar el fetch size del compartido
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.transaccion.setReadOnly(true);
+    }
+
+    public String nombreArchivo(Entidad entidad, Formato formato, boolean gzip) {
+        return entidad.archivo + "." + formato.extension + (gzip ? ".gz" : "");
+    }
+
+    /**
+     * Escribe todas las filas de la entidad en la salida. No cierra la salida.
+     *
+     * @return número de filas escritas
+     */
+    public long exportar(Entidad entidad, Formato formato, boolean gzip, OutputStream salida) throws IOException {
+        long inicio = System.currentTimeMillis();
+        GZIPOutputStream comprimida = gzip ? new GZIPOutputStream(salida, 64 * 1024) : null;
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(comprimida != null ? comprimida : salida, StandardCharsets.UTF_8), 64 * 1024);
+        EscritorFilas escritor = formato == Formato.CSV
+                ? new EscritorCsv(writer, entidad.campos)
+                : new EscritorNdjson(jsonFactory.createGenerator(writer), entidad.campos);
+
+        long[] filas = {0};
+        try {
+            transaccion.executeWithoutResult(status -> jdbcTemplate.query(entidad.sql, (RowCallbackHandler) rs -> {
+                Object[] valores = new Object[entidad.campos.size()];
+                for (int i = 0; i < valores.length; i++) {
+                    valores[i] = rs.getObject(i + 1);
+                }
+                try {
+                    escritor.fila(valores);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                filas[0]++;
+            }));
+        } catch (UncheckedIOException e) {
+            // Normalmente el cliente cerró la conexión a mitad de la descarga
+            throw e.getCause();
+        }
+        escritor.terminar();
+        writer.flush();
+        if (comprimida != null) {
+            comprimida.finish();
+        }
+        log.info("Exportación de {} en {}: {} filas en {} ms",
+                entidad, formato, filas[0], System.currentTimeMillis() - inicio);
+        return filas[0];
+    }
+
+    private interface EscritorFilas {
+        void fila(Object[] valores) throws IOException;
+
+        void terminar() throws IOException;
+    }
+
+    private static final class EscritorCsv implements EscritorFilas {
+        private final Writer writer;
+
+        private EscritorCsv(Writer writer, List<String> campos) throws IOException {
+            this.writer = writer;
+            writer.write(String.join(",", campos));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void fila(Object[] valores) throws IOException {
+            for (int i = 0; i < valores.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (valores[i] != null) {
+                    writer.write(escapar(texto(valores[i])));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void terminar() {
+        }
+
+        private static String escapar(String valor) {
+            if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+                return valor;
+            }
+            return '"' + valor.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static final class EscritorNdjson implements EscritorFilas {
+        private final JsonGenerator generador;
+        private final List<String> campos;
+
+        private EscritorNdjson(JsonGenerator generador, List<String> campos) {
+            this.generador = generador;
+            this.campos = campos;
+            // Una línea por objeto
+            generador.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void fila(Object[] valores) throws IOException {
+            generador.writeStartObject();
+            for (int i = 0; i < valores.length; i++) {
+                Object valor = valores[i];
+                generador.writeFieldName(campos.get(i));
+                if (valor == null) {
+                    generador.writeNull();
+                } else if (valor instanceof Boolean logico) {
+                    generador.writeBoolean(logico);
+                } else if (valor instanceof Number numero) {
+                    generador.writeNumber(numero.toString());
+                } else {
+                    generador.writeString(texto(valor));
+                }
+            }
+            generador.writeEndObject();
+            generador.writeRaw('\n');
+        }
+
+        @Override
+        public void terminar() throws IOException {
+            // Vuelca el buffer del generador sin cerrar el Writer, que pertenece a exportar()
+            generador.flush();
+        }
+    }
+
+    private static String texto(Object valor) {
+        if (valor instanceof Date fecha) {
+            return fecha.toLocalDate().toString();
+        }
+        if (valor instanceof Timestamp instante) {
+            return instante.toLocalDateTime().toString();
+        }
+        return valor.toString();
+    }
+}
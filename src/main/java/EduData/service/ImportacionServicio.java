@@ -0,0 +1,667 @@
+package EduData.service;
+
+import EduData.config.CacheAplicacionConfig;
+import EduData.dto.ErrorImportacionDTO;
+import EduData.dto.ResultadoImportacionDTO;
+import EduData.entity.Curso;
+import EduData.entity.Docente;
+import EduData.entity.Estudiante;
+import EduData.entity.Matricula;
+import EduData.repository.CursoRepositorio;
+import EduData.repository.DocenteRepositorio;
+import EduData.repository.EstudianteRepositorio;
+import EduData.repository.MatriculaRepositorio;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Importación masiva de estudiantes, cursos y matrículas desde CSV o JSON lines.
+ *
+ * El archivo se lee fila a fila del cuerpo de la petición. Cada fila se valida y sus referencias
+ * (identificación -> estudiante, código -> curso, email -> docente) se resuelven con mapas en
+ * memoria cargados una vez al empezar. Las filas válidas se guardan en lotes de tamanio-lote, cada
+ * uno en su propia transacción, y los INSERT van agrupados en lotes JDBC. Una fila inválida se
+ * informa con su número de línea y no detiene el resto del archivo; si un lote falla en la base,
+ * se reintentan sus filas una a una para aislar la que lo provocó.
+ */
+@Service
+@Slf4j
+public class ImportacionServicio {
+
+    public enum Entidad { ESTUDIANTES, CURSOS, MATRICULAS }
+
+    public enum Formato { CSV, JSONL }
+
+    private final EstudianteRepositorio estudianteRepositorio;
+    private final CursoRepositorio cursoRepositorio;
+    private final DocenteRepositorio docenteRepositorio;
+    private final MatriculaRepositorio matriculaRepositorio;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transaccion;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int tamanioLote;
+    private final int maxErrores;
+
+    public ImportacionServicio(EstudianteRepositorio estudianteRepositorio,
+                               CursoRepositorio cursoRepositorio,
+                               DocenteRepositorio docenteRepositorio,
+                               MatriculaRepositorio matriculaRepositorio,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${edudata.importacion.tamanio-lote:1000}") int tamanioLote,
+                               @Value("${edudata.importacion.max-errores:1000}") int maxErrores) {
+        this.estudianteRepositorio = estudianteRepositorio;
+        this.cursoRepositorio = cursoRepositorio;
+        this.docenteRepositorio = docenteRepositorio;
+        this.matriculaRepositorio = matriculaRepositorio;
+        this.entityManager = entityManager;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.tamanioLote = tamanioLote;
+        this.maxErrores = maxErrores;
+    }
+
+    /**
+     * Importa el contenido de entrada (UTF-8). Con CSV la primera fila es el encabezado y el
+     * separador puede ser coma o punto y coma; con JSON lines cada línea es un objeto.
+     *
+     * @throws IllegalArgumentException si al encabezado CSV le faltan columnas obligatorias
+     */
+    // Los cursos nuevos deben aparecer en el listado cacheado
+    @CacheEvict(cacheNames = CacheAplicacionConfig.LISTADOS, allEntries = true, condition = "#entidad.name() == 'CURSOS'")
+    public ResultadoImportacionDTO importar(Entidad entidad, Formato formato, InputStream entrada) throws IOException {
+        long inicio = System.currentTimeMillis();
+        BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8), 64 * 1024);
+        Resultado resultado = new Resultado();
+        try (FuenteFilas fuente = formato == Formato.CSV ? new FuenteCsv(lector) : new FuenteJsonl(lector)) {
+            Importador<?> importador = switch (entidad) {
+                case ESTUDIANTES -> new ImportadorEstudiantes();
+                case CURSOS -> new ImportadorCursos();
+                case MATRICULAS -> new ImportadorMatriculas();
+            };
+            procesar(importador, fuente, resultado);
+        }
+
+        long milisegundos = System.currentTimeMillis() - inicio;
+        log.info("Importación de {}: {} filas, {} insertadas, {} con error en {} ms",
+                entidad, resultado.filasLeidas, resultado.insertadas, resultado.conError, milisegundos);
+        return new ResultadoImportacionDTO(entidad.name(), resultado.filasLeidas, resultado.insertadas,
+                resultado.conError, resultado.errores, milisegundos);
+    }
+
+    private <T> void procesar(Importador<T> importador, FuenteFilas fuente, Resultado resultado) throws IOException {
+        fuente.validarColumnas(importador.obligatorias());
+        List<Pendiente<T>> lote = new ArrayList<>(tamanioLote);
+        Fila fila;
+        while ((fila = fuente.siguiente()) != null) {
+            resultado.filasLeidas++;
+            if (fila.error() != null) {
+                resultado.error(fila.linea(), fila.error());
+                continue;
+            }
+            try {
+                lote.add(new Pendiente<>(fila.linea(), importador.convertir(fila.valores())));
+            } catch (IllegalArgumentException e) {
+                resultado.error(fila.linea(), e.getMessage());
+                continue;
+            }
+            if (lote.size() >= tamanioLote) {
+                guardarLote(importador, lote, resultado);
+                lote.clear();
+            }
+        }
+        guardarLote(importador, lote, resultado);
+    }
+
+    private <T> void guardarLote(Importador<T> importador, List<Pendiente<T>> lote, Resultado resultado) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        Map<T, String> rechazadas = importador.rechazar(lote.stream().map(Pendiente::valor).toList());
+        List<Pendiente<T>> validas = new ArrayList<>(lote.size());
+        for (Pendiente<T> pendiente : lote) {
+            String motivo = rechazadas.get(pendiente.valor());
+            if (motivo != null) {
+                resultado.error(pendiente.linea(), motivo);
+            } else {
+                validas.add(pendiente);
+            }
+        }
+        if (validas.isEmpty()) {
+            return;
+        }
+
+        try {
+            guardarEnTransaccion(importador, validas.stream().map(Pendiente::valor).toList());
+            resultado.insertadas += validas.size();
+        } catch (DataAccessException | PersistenceException | TransactionException e) {
+            // Una fila rechazada por la base (por ejemplo una restricción única) deshace todo el
+            // lote: se reintentan las filas por separado para guardar las demás
+            entityManager.clear();
+            for (Pendiente<T> pendiente : validas) {
+                importador.reiniciar(pendiente.valor());
+                try {
+                    guardarEnTransaccion(importador, List.of(pendiente.valor()));
+                    resultado.insertadas++;
+                } catch (DataAccessException | PersistenceException | TransactionException individual) {
+                    resultado.error(pendiente.linea(), "Rechazada por la base de datos: " + causa(individual));
+                } finally {
+                    entityManager.clear();
+                }
+            }
+        } finally {
+            // Las entidades guardadas no se vuelven a usar: se sueltan del contexto de persistencia
+            entityManager.clear();
+        }
+    }
+
+    private <T> void guardarEnTransaccion(Importador<T> importador, List<T> valores) {
+        transaccion.executeWithoutResult(status -> {
+            importador.guardar(valores);
+            // Flush explícito: los errores de la base salen aquí y no como fallo del commit
+            entityManager.flush();
+        });
+    }
+
+    private static String causa(Throwable e) {
+        Throwable raiz = e;
+        while (raiz.getCause() != null && raiz.getCause() != raiz) {
+            raiz = raiz.getCause();
+        }
+        return raiz.getMessage();
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Importadores por entidad
+    // ---------------------------------------------------------------------------------------------
+
+    private interface Importador<T> {
+
+        Set<String> obligatorias();
+
+        /**
+         * Valida la fila y construye el valor a guardar.
+         *
+         * @throws IllegalArgumentException con el motivo si la fila no es válida
+         */
+        T convertir(Map<String, String> valores);
+
+        /**
+         * Filas del lote que no se deben guardar, con el motivo. Permite comprobar contra la base
+         * una vez por lote en lugar de una vez por fila.
+         */
+        default Map<T, String> rechazar(List<T> lote) {
+            return Map.of();
+        }
+
+        /**
+         * Se ejecuta dentro de la transacción del lote.
+         */
+        void guardar(List<T> lote);
+
+        /**
+         * Deja el valor como antes de guardar, para reintentarlo tras un rollback.
+         */
+        void reiniciar(T valor);
+    }
+
+    private final class ImportadorEstudiantes implements Importador<Estudiante> {
+
+        // Identificaciones y correos ya usados, en la base o en filas anteriores del archivo
+        private final Set<String> identificaciones = new HashSet<>();
+        private final Set<String> correos = new HashSet<>(estudianteRepositorio.correos());
+
+        private ImportadorEstudiantes() {
+            for (Object[] fila : estudianteRepositorio.idsPorIdentificacion()) {
+                identificaciones.add((String) fila[0]);
+            }
+        }
+
+        @Override
+        public Set<String> obligatorias() {
+            return Set.of("identificacion", "nombre", "apellido");
+        }
+
+        @Override
+        public Estudiante convertir(Map<String, String> valores) {
+            String identificacion = obligatorio(valores, "identificacion");
+            String correo = valores.get("correo");
+            if (correo != null && !correo.matches("[^@\\s]+@[^@\\s]+\\.[^@\\s]+")) {
+                throw new IllegalArgumentException("Correo inválido: " + correo);
+            }
+
+            Estudiante estudiante = new Estudiante();
+            estudiante.setIdentificacion(identificacion);
+            estudiante.setNombre(obligatorio(valores, "nombre"));
+            estudiante.setApellido(obligatorio(valores, "apellido"));
+            estudiante.setCorreo(correo);
+            estudiante.setFechaNacimiento(fecha(valores, "fechanacimiento"));
+            estudiante.setGenero(valores.get("genero"));
+            estudiante.setTelefono(valores.get("telefono"));
+            estudiante.setDireccion(valores.get("direccion"));
+            estudiante.setMatriculaAnio(entero(valores, "matriculaanio"));
+            estudiante.setEstado(valores.get("estado"));
+            estudiante.setNivel(valores.get("nivel"));
+            estudiante.setGrupo(valores.get("grupo"));
+
+            // Se reservan al final para no marcar como usados los valores de una fila inválida
+            if (identificaciones.contains(identificacion)) {
+                throw new IllegalArgumentException("Ya existe un estudiante con la identificación " + identificacion);
+            }
+            if (correo != null && correos.contains(correo)) {
+                throw new IllegalArgumentException("Ya existe un estudiante con el correo " + correo);
+            }
+            identificaciones.add(identificacion);
+            if (correo != null) {
+                correos.add(correo);
+            }
+            return estudiante;
+        }
+
+        @Override
+        public void guardar(List<Estudiante> lote) {
+            estudianteRepositorio.saveAll(lote);
+        }
+
+        @Override
+        public void reiniciar(Estudiante estudiante) {
+            estudiante.setId(null);
+        }
+    }
+
+    private final class ImportadorCursos implements Importador<Curso> {
+
+        private final Set<String> codigos = new HashSet<>();
+        private final Map<String, Long> docentesPorEmail = new HashMap<>();
+
+        private ImportadorCursos() {
+            for (Object[] fila : cursoRepositorio.idsPorCodigo()) {
+                codigos.add((String) fila[0]);
+            }
+            for (Object[] fila : docenteRepositorio.idsPorEmail()) {
+                docentesPorEmail.putIfAbsent(((String) fila[0]).toLowerCase(Locale.ROOT), (Long) fila[1]);
+            }
+        }
+
+        @Override
+        public Set<String> obligatorias() {
+            return Set.of("codigo", "nombre");
+        }
+
+        @Override
+        public Curso convertir(Map<String, String> valores) {
+            String codigo = obligatorio(valores, "codigo");
+            Curso curso = new Curso();
+            curso.setCodigo(codigo);
+            curso.setNombre(obligatorio(valores, "nombre"));
+            curso.setDescripcion(valores.get("descripcion"));
+            curso.setAnio(entero(valores, "anio"));
+
+            String email = valores.get("docenteemail");
+            if (email != null) {
+                Long docenteId = docentesPorEmail.get(email.toLowerCase(Locale.ROOT));
+                if (docenteId == null) {
+                    throw new IllegalArgumentException("No existe un docente con el email " + email);
+                }
+                // Basta una instancia con el id: Hibernate solo necesita la clave foránea
+                Docente docente = new Docente();
+                docente.setId(docenteId);
+                curso.setDocente(docente);
+            }
+
+            if (!codigos.add(codigo)) {
+                throw new IllegalArgumentException("Ya existe un curso con el código " + codigo);
+            }
+            return curso;
+        }
+
+        @Override
+        public void guardar(List<Curso> lote) {
+            cursoRepositorio.saveAll(lote);
+        }
+
+        @Override
+        public void reiniciar(Curso curso) {
+            curso.setId(null);
+        }
+    }
+
+    private final class ImportadorMatriculas implements Importador<Matricula> {
+
+        private final Map<String, Long> estudiantesPorIdentificacion = new HashMap<>();
+        private final Map<String, Long> cursosPorCodigo = new HashMap<>();
+        // Claves estudiante:curso:año ya vistas en el archivo
+        private final Set<String> claves = new HashSet<>();
+
+        private ImportadorMatriculas() {
+            for (Object[] fila : estudianteRepositorio.idsPorIdentificacion()) {
+                estudiantesPorIdentificacion.put((String) fila[0], (Long) fila[1]);
+            }
+            // Ordenado por id: si un código está repetido se usa el curso más antiguo
+            for (Object[] fila : cursoRepositorio.idsPorCodigo()) {
+                cursosPorCodigo.putIfAbsent((String) fila[0], (Long) fila[1]);
+            }
+        }
+
+        @Override
+        public Set<String> obligatorias() {
+            return Set.of("identificacion", "codigo", "anio");
+        }
+
+        @Override
+        public Matricula convertir(Map<String, String> valores) {
+            String identificacion = obligatorio(valores, "identificacion");
+            String codigo = obligatorio(valores, "codigo");
+            Integer anio = entero(valores, "anio");
+            if (anio == null) {
+                throw new IllegalArgumentException("Falta el campo obligatorio anio");
+            }
+            Long estudianteId = estudiantesPorIdentificacion.get(identificacion);
+            if (estudianteId == null) {
+                throw new IllegalArgumentException("No existe un estudiante con la identificación " + identificacion);
+            }
+            Long cursoId = cursosPorCodigo.get(codigo);
+            if (cursoId == null) {
+                throw new IllegalArgumentException("No existe un curso con el código " + codigo);
+            }
+            if (!claves.add(clave(estudianteId, cursoId, anio))) {
+                throw new IllegalArgumentException("Matrícula repetida en el archivo");
+            }
+
+            // Instancias con solo el id: Hibernate solo necesita las claves foráneas
+            Estudiante estudiante = new Estudiante();
+            estudiante.setId(estudianteId);
+            Curso curso = new Curso();
+            curso.setId(cursoId);
+
+            Matricula matricula = new Matricula();
+            matricula.setEstudiante(estudiante);
+            matricula.setCurso(curso);
+            matricula.setAnio(anio);
+            return matricula;
+        }
+
+        @Override
+        public Map<Matricula, String> rechazar(List<Matricula> lote) {
+            Set<Long> estudianteIds = new HashSet<>();
+            for (Matricula matricula : lote) {
+                estudianteIds.add(matricula.getEstudiante().getId());
+            }
+            Set<String> existentes = new HashSet<>();
+            for (Object[] fila : matriculaRepositorio.clavesPorEstudiantes(estudianteIds)) {
+                existentes.add(clave((Long) fila[0], (Long) fila[1], (Integer) fila[2]));
+            }
+            if (existentes.isEmpty()) {
+                return Map.of();
+            }
+            // Identidad de objeto: Matricula es @Data y dos filas iguales tendrían el mismo hashCode
+            Map<Matricula, String> rechazadas = new IdentityHashMap<>();
+            for (Matricula matricula : lote) {
+                if (existentes.contains(clave(matricula.getEstudiante().getId(), matricula.getCurso().getId(), matricula.getAnio()))) {
+                    rechazadas.put(matricula, "El estudiante ya está matriculado en el curso ese año");
+                }
+            }
+            return rechazadas;
+        }
+
+        @Override
+        public void guardar(List<Matricula> lote) {
+            matriculaRepositorio.saveAll(lote);
+        }
+
+        @Override
+        public void reiniciar(Matricula matricula) {
+            matricula.setId(null);
+        }
+
+        private static String clave(Long estudianteId, Long cursoId, Integer anio) {
+            return estudianteId + ":" + cursoId + ":" + anio;
+        }
+    }
+
+    private static String obligatorio(Map<String, String> valores, String campo) {
+        String valor = valores.get(campo);
+        if (valor == null) {
+            throw new IllegalArgumentException("Falta el campo obligatorio " + campo);
+        }
+        return valor;
+    }
+
+    private static Integer entero(Map<String, String> valores, String campo) {
+        String valor = valores.get(campo);
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El campo " + campo + " no es un número entero: " + valor);
+        }
+    }
+
+    private static LocalDate fecha(Map<String, String> valores, String campo) {
+        String valor = valores.get(campo);
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("El campo " + campo + " no es una fecha AAAA-MM-DD: " + valor);
+        }
+    }
+
+    /**
+     * Nombre de columna sin mayúsculas, guiones bajos ni espacios: "fecha_nacimiento",
+     * "FechaNacimiento" y "fechaNacimiento" son la misma columna.
+     */
+    private static String normalizarColumna(String nombre) {
+        return nombre.replace("\uFEFF", "").replace("_", "").replace(" ", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalizarValor(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        String limpio = valor.trim();
+        return limpio.isEmpty() ? null : limpio;
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Lectura de filas
+    // ---------------------------------------------------------------------------------------------
+
+    /**
+     * Una fila del archivo: sus valores por columna normalizada o el error que impidió leerla.
+     */
+    private record Fila(int linea, Map<String, String> valores, String error) {
+    }
+
+    private record Pendiente<T>(int linea, T valor) {
+    }
+
+    private interface FuenteFilas extends Closeable {
+
+        /**
+         * @throws IllegalArgumentException si el formato declara columnas y falta alguna obligatoria
+         */
+        void validarColumnas(Set<String> obligatorias);
+
+        Fila siguiente() throws IOException;
+    }
+
+    private static final class FuenteCsv implements FuenteFilas {
+
+        private final BufferedReader entrada;
+        private final LectorCsv lector;
+        private final List<String> columnas = new ArrayList<>();
+        private boolean terminado;
+
+        private FuenteCsv(BufferedReader entrada) throws IOException {
+            this.entrada = entrada;
+            this.lector = new LectorCsv(entrada, detectarSeparador(entrada));
+            List<String> encabezado = lector.siguiente();
+            if (encabezado == null) {
+                throw new IllegalArgumentException("El archivo está vacío");
+            }
+            for (String columna : encabezado) {
+                columnas.add(normalizarColumna(columna.trim()));
+            }
+        }
+
+        /**
+         * Punto y coma si el encabezado lo usa y no tiene comas (CSV exportado por Excel en español).
+         */
+        private static char detectarSeparador(BufferedReader entrada) throws IOException {
+            entrada.mark(8192);
+            String encabezado = entrada.readLine();
+            entrada.reset();
+            if (encabezado != null && encabezado.indexOf(';') >= 0 && encabezado.indexOf(',') < 0) {
+                return ';';
+            }
+            return ',';
+        }
+
+        @Override
+        public void validarColumnas(Set<String> obligatorias) {
+            List<String> faltantes = obligatorias.stream().filter(c -> !columnas.contains(c)).sorted().toList();
+            if (!faltantes.isEmpty()) {
+                throw new IllegalArgumentException("Faltan columnas obligatorias en el encabezado: " + faltantes);
+            }
+        }
+
+        @Override
+        public Fila siguiente() throws IOException {
+            while (!terminado) {
+                List<String> campos;
+                try {
+                    campos = lector.siguiente();
+                } catch (IllegalArgumentException e) {
+                    // Comillas sin cerrar: se consumió el resto del archivo
+                    terminado = true;
+                    return new Fila(lector.lineaRegistro(), null, e.getMessage());
+                }
+                if (campos == null) {
+                    terminado = true;
+                    return null;
+                }
+                if (campos.size() == 1 && campos.get(0).isBlank()) {
+                    continue;
+                }
+                if (campos.size() != columnas.size()) {
+                    return new Fila(lector.lineaRegistro(), null,
+                            "Se esperaban " + columnas.size() + " columnas y hay " + campos.size());
+                }
+                Map<String, String> valores = new HashMap<>();
+                Iterator<String> campo = campos.iterator();
+                for (String columna : columnas) {
+                    valores.put(columna, normalizarValor(campo.next()));
+                }
+                return new Fila(lector.lineaRegistro(), valores, null);
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            entrada.close();
+        }
+    }
+
+    private final class FuenteJsonl implements FuenteFilas {
+
+        private final BufferedReader entrada;
+        private int linea;
+
+        private FuenteJsonl(BufferedReader entrada) {
+            this.entrada = entrada;
+        }
+
+        @Override
+        public void validarColumnas(Set<String> obligatorias) {
+            // Cada objeto trae sus propios campos: los que falten se informan por fila
+        }
+
+        @Override
+        public Fila siguiente() throws IOException {
+            String texto;
+            while ((texto = entrada.readLine()) != null) {
+                linea++;
+                if (texto.isBlank()) {
+                    continue;
+                }
+                JsonNode nodo;
+                try {
+                    nodo = objectMapper.readTree(texto);
+                } catch (JsonProcessingException e) {
+                    return new Fila(linea, null, "JSON inválido: " + e.getOriginalMessage());
+                }
+                if (nodo == null || !nodo.isObject()) {
+                    return new Fila(linea, null, "Cada línea debe ser un objeto JSON");
+                }
+                Map<String, String> valores = new HashMap<>();
+                Iterator<Map.Entry<String, JsonNode>> campos = nodo.fields();
+                while (campos.hasNext()) {
+                    Map.Entry<String, JsonNode> campo = campos.next();
+                    JsonNode valor = campo.getValue();
+                    if (!valor.isNull() && !valor.isValueNode()) {
+                        return new Fila(linea, null, "El campo " + campo.getKey() + " debe ser un valor simple");
+                    }
+                    valores.put(normalizarColumna(campo.getKey()), valor.isNull() ? null : normalizarValor(valor.asText()));
+                }
+                return new Fila(linea, valores, null);
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            entrada.close();
+        }
+    }
+
+    /**
+     * Contadores de la importación y los primeros maxErrores errores.
+     */
+    private final class Resultado {
+        private final List<ErrorImportacionDTO> errores = new ArrayList<>();
+        private long filasLeidas;
+        private long insertadas;
+        private long conError;
+
+        private void error(int linea, String mensaje) {
+            conError++;
+            if (errores.size() < maxErrores) {
+                errores.add(new ErrorImportacionDTO(linea, mensaje));
+            }
+        }
+    }
+}
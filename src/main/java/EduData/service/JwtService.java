@@ -3,6 +3,7 @@ package EduData.service;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -10,7 +11,9 @@ import org.springframework.stereotype.Service;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Service
@@ -22,6 +25,24 @@ public class JwtService {
     @Value("${jwt.expiration}")
     private Long jwtExpiration;
 
+    @Value("${jwt.cache.max-entradas:10000}")
+    private int maxTokensEnCache;
+
+    private Key signInKey;
+    private JwtParser jwtParser;
+
+    // Tokens cuya firma ya se verificó; cada entrada se descarta al expirar el token
+    private final Map<String, Claims> claimsVerificados = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        // La clave y el parser son inmutables y thread-safe: se construyen una sola vez
+        signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -31,6 +52,29 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verifica la firma y la expiración del token y devuelve sus claims. Si el mismo token ya se
+     * verificó y no ha expirado, se devuelven los claims guardados sin volver a calcular el HMAC.
+     *
+     * @throws JwtException si el token no es válido o ya expiró
+     */
+    public Claims extractAllClaims(String token) {
+        Claims claims = claimsVerificados.get(token);
+        if (claims != null) {
+            if (!isExpired(claims)) {
+                return claims;
+            }
+            claimsVerificados.remove(token);
+        }
+
+        // parseClaimsJws lanza ExpiredJwtException si el token ya expiró
+        claims = jwtParser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null) {
+            guardarEnCache(token, claims);
+        }
+        return claims;
+    }
+
     public String generateToken(UserDetails userDetails) {
         return generateToken(new HashMap<>(), userDetails);
     }
@@ -55,29 +99,32 @@ public class JwtService {
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(extractAllClaims(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        return (username.equals(userDetails.getUsername())) && !isExpired(claims);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private void guardarEnCache(String token, Claims claims) {
+        if (claimsVerificados.size() >= maxTokensEnCache) {
+            // Primero se liberan los tokens expirados; si no basta, se descarta uno cualquiera
+            claimsVerificados.values().removeIf(this::isExpired);
+            Iterator<String> tokens = claimsVerificados.keySet().iterator();
+            while (claimsVerificados.size() >= maxTokensEnCache && tokens.hasNext()) {
+                tokens.next();
+                tokens.remove();
+            }
+        }
+        claimsVerificados.put(token, claims);
     }
 
     private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signInKey;
     }
 }
@@ -0,0 +1,102 @@
+package EduData.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector CSV incremental (RFC 4180): campos entre comillas con separadores, saltos de línea y
+ * comillas dobles escapadas. Lee carácter a carácter del Reader, así que solo guarda en memoria
+ * el registro en curso.
+ */
+final class LectorCsv {
+
+    private static final int FIN = -1;
+    private static final int NINGUNO = -2;
+
+    private final Reader entrada;
+    private final char separador;
+    private int linea = 1;
+    private int lineaRegistro;
+    private int devuelto = NINGUNO;
+
+    LectorCsv(Reader entrada, char separador) {
+        this.entrada = entrada;
+        this.separador = separador;
+    }
+
+    /**
+     * Campos del siguiente registro, o null al final del archivo.
+     *
+     * @throws IllegalArgumentException si el archivo termina dentro de un campo entre comillas
+     */
+    List<String> siguiente() throws IOException {
+        int c = leer();
+        if (c == FIN) {
+            return null;
+        }
+        lineaRegistro = linea;
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        while (true) {
+            if (entreComillas) {
+                if (c == FIN) {
+                    throw new IllegalArgumentException("Comillas sin cerrar en el registro de la línea " + lineaRegistro);
+                }
+                if (c == '"') {
+                    int siguiente = leer();
+                    if (siguiente == '"') {
+                        campo.append('"');
+                    } else {
+                        entreComillas = false;
+                        c = siguiente;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        linea++;
+                    }
+                    campo.append((char) c);
+                }
+            } else if (c == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n' || c == '\r' || c == FIN) {
+                if (c == '\r') {
+                    int siguiente = leer();
+                    if (siguiente != '\n') {
+                        devuelto = siguiente;
+                    }
+                }
+                if (c != FIN) {
+                    linea++;
+                }
+                campos.add(campo.toString());
+                return campos;
+            } else if (c == '"' && campo.isEmpty()) {
+                entreComillas = true;
+            } else {
+                campo.append((char) c);
+            }
+            c = leer();
+        }
+    }
+
+    /**
+     * Línea del archivo en la que empieza el último registro leído.
+     */
+    int lineaRegistro() {
+        return lineaRegistro;
+    }
+
+    private int leer() throws IOException {
+        if (devuelto != NINGUNO) {
+            int c = devuelto;
+            devuelto = NINGUNO;
+            return c;
+        }
+        return entrada.read();
+    }
+}
@@ -1,9 +1,17 @@
 package EduData.service;
 
+import EduData.config.CacheAplicacionConfig;
+import EduData.dto.MatriculaDTO;
 import EduData.entity.Matricula;
+import EduData.repository.AsistenciaBitmapRepositorio;
 import EduData.repository.MatriculaRepositorio;
+import EduData.repository.ResumenCalificacionRepositorio;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,18 +22,35 @@ public class MatriculaServicio {
     @Autowired
     private MatriculaRepositorio matriculaRepositorio;
 
+    @Autowired
+    private AsistenciaBitmapRepositorio asistenciaBitmapRepositorio;
+
+    @Autowired
+    private ResumenCalificacionRepositorio resumenCalificacionRepositorio;
+
     public List<Matricula> obtenerTodas() {
-        return matriculaRepositorio.findAll();
+        return matriculaRepositorio.listarConRelaciones();
+    }
+
+    public List<MatriculaDTO> obtenerTodasPlanas() {
+        return matriculaRepositorio.listarPlano();
     }
 
+    @Cacheable(cacheNames = CacheAplicacionConfig.MATRICULAS, key = "#id", unless = "#result == null")
     public Optional<Matricula> obtenerPorId(Long id) {
-        return matriculaRepositorio.findById(id);
+        return matriculaRepositorio.buscarConRelaciones(id);
     }
 
     public Matricula crear(Matricula matricula) {
         return matriculaRepositorio.save(matricula);
     }
 
+    // Las calificaciones y asistencias cacheadas llevan la matrícula anidada; la baja además las borra en cascada
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheAplicacionConfig.MATRICULAS, key = "#id"),
+        @CacheEvict(cacheNames = {CacheAplicacionConfig.CALIFICACIONES, CacheAplicacionConfig.ASISTENCIAS},
+                allEntries = true)
+    })
     public Matricula actualizar(Long id, Matricula matriculaActualizada) {
         return matriculaRepositorio.findById(id).map(m -> {
             m.setAnio(matriculaActualizada.getAnio());
@@ -35,7 +60,17 @@ public class MatriculaServicio {
         }).orElse(null);
     }
 
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheAplicacionConfig.MATRICULAS, key = "#id"),
+        @CacheEvict(cacheNames = {CacheAplicacionConfig.CALIFICACIONES, CacheAplicacionConfig.ASISTENCIAS},
+                allEntries = true)
+    })
+    @Transactional
     public void eliminar(Long id) {
+        // Los mapas de asistencia y el resumen de calificaciones solo guardan el id de la matrícula,
+        // sin clave foránea ni cascada
+        asistenciaBitmapRepositorio.borrarPorMatricula(id);
+        resumenCalificacionRepositorio.borrarPorMatricula(id);
         matriculaRepositorio.deleteById(id);
     }
 }
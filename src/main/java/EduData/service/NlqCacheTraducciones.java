@@ -0,0 +1,191 @@
+package EduData.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cache de traducciones pregunta → JPQL para NlqServiceMejorado.
+ *
+ * La clave es la pregunta normalizada (minúsculas, sin tildes, sin signos ni espacios repetidos)
+ * con los valores extraídos por extraerParametros() reemplazados por marcadores, de modo que
+ * "estudiantes del 2023" y "estudiantes del 2024" comparten la misma plantilla JPQL.
+ * Es una cache acotada con expiración por TTL.
+ */
+@Component
+public class NlqCacheTraducciones {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SIGNOS = Pattern.compile("[¿?¡!.,;:\"']");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+    private static final Pattern MARCADOR = Pattern.compile("\\{\\{[^}]*}}");
+    private static final Pattern NUMERO = Pattern.compile("\\d+");
+    private static final Pattern PALABRAS_GENERO = Pattern.compile("\\b(masculin|femenin|hombre|mujer)\\w*");
+
+    private final int maxEntradas;
+    private final long ttlMinutos;
+    private final Cache<String, String> entradas;
+
+    public NlqCacheTraducciones(
+            @Value("${edudata.nlq.cache.max-entradas:500}") int maxEntradas,
+            @Value("${edudata.nlq.cache.ttl-minutos:60}") long ttlMinutos) {
+        this.maxEntradas = maxEntradas;
+        this.ttlMinutos = ttlMinutos;
+        this.entradas = CachesLocales.acotada(maxEntradas, Duration.ofMinutes(ttlMinutos));
+    }
+
+    /**
+     * Busca el JPQL para la pregunta, primero por su forma con marcadores y luego por la forma literal.
+     *
+     * @return el JPQL con los parámetros actuales ya sustituidos, o null si no hay entrada vigente
+     */
+    public String buscar(String pregunta, Map<String, String> parametros) {
+        String normalizada = normalizar(pregunta);
+        String plantillaPregunta = plantillaPregunta(normalizada, parametros);
+
+        String plantillaJpql = entradas.getIfPresent(plantillaPregunta);
+        if (plantillaJpql == null && !plantillaPregunta.equals(normalizada)) {
+            plantillaJpql = entradas.getIfPresent(normalizada);
+        }
+        return plantillaJpql != null ? sustituir(plantillaJpql, parametros) : null;
+    }
+
+    /**
+     * Guarda el JPQL generado. Si todos los parámetros aparecen en el JPQL se guarda como plantilla
+     * reutilizable para otros valores; si no, solo se reutiliza para la misma pregunta literal.
+     */
+    public void guardar(String pregunta, Map<String, String> parametros, String jpql) {
+        String normalizada = normalizar(pregunta);
+        String plantillaJpql = plantillaJpql(jpql, parametros);
+        boolean generalizable = plantillaJpql != null;
+
+        if (generalizable) {
+            entradas.put(plantillaPregunta(normalizada, parametros), plantillaJpql);
+        } else {
+            entradas.put(normalizada, jpql);
+        }
+    }
+
+    /**
+     * Los aciertos y fallos se cuentan por búsqueda: una pregunta que no está como plantilla se
+     * busca también en su forma literal.
+     */
+    public Map<String, Object> estadisticas() {
+        Map<String, Object> stats = CachesLocales.estadisticas(entradas, maxEntradas);
+        stats.put("ttlMinutos", ttlMinutos);
+        return stats;
+    }
+
+    static String normalizar(String pregunta) {
+        String sinTildes = MARCAS_DIACRITICAS.matcher(
+                Normalizer.normalize(pregunta.toLowerCase(), Normalizer.Form.NFD)).replaceAll("");
+        String sinSignos = SIGNOS.matcher(sinTildes).replaceAll(" ");
+        return ESPACIOS.matcher(sinSignos).replaceAll(" ").trim();
+    }
+
+    private String plantillaPregunta(String normalizada, Map<String, String> parametros) {
+        String plantilla = normalizada;
+        if (parametros.containsKey("genero")) {
+            plantilla = PALABRAS_GENERO.matcher(plantilla).replaceAll("{genero}");
+        }
+        if (parametros.containsKey("anio")) {
+            plantilla = plantilla.replaceAll("\\b" + parametros.get("anio") + "\\b", "{anio}");
+        }
+        if (parametros.containsKey("nombre")) {
+            String nombre = Pattern.quote(normalizar(parametros.get("nombre")));
+            plantilla = plantilla.replaceAll("\\b" + nombre + "\\b", "{nombre}");
+        }
+        return plantilla;
+    }
+
+    /**
+     * Reemplaza cada valor por su marcador solo dentro de los literales entre comillas simples o, si
+     * es numérico, como número suelto fuera de ellos. Devuelve null si algún valor no aparece en esas
+     * posiciones o aparece en cualquier otra (un nombre "Mat" dentro de "Matricula", por ejemplo):
+     * reemplazarlo rompería la plantilla para las preguntas siguientes.
+     */
+    static String plantillaJpql(String jpql, Map<String, String> parametros) {
+        String plantilla = jpql;
+        for (Map.Entry<String, String> parametro : parametros.entrySet()) {
+            String valor = parametro.getValue();
+            if (valor == null || valor.isEmpty()) {
+                return null;
+            }
+            String marcador = "{{" + parametro.getKey() + "}}";
+            String marcadorMinuscula = "{{" + parametro.getKey() + "|min}}";
+            String valorMinuscula = valor.toLowerCase();
+            Pattern numeroSuelto = NUMERO.matcher(valor).matches()
+                    ? Pattern.compile("(?<![\\w.])" + Pattern.quote(valor) + "(?![\\w.])")
+                    : null;
+
+            List<String> partes = dividirLiterales(plantilla);
+            boolean reemplazado = false;
+            for (int i = 0; i < partes.size(); i++) {
+                String parte = partes.get(i);
+                String nueva;
+                if (i % 2 == 1) {
+                    // Dentro de un literal
+                    nueva = parte.replace(valor, marcador).replace(valorMinuscula, marcadorMinuscula);
+                } else if (numeroSuelto != null) {
+                    nueva = numeroSuelto.matcher(parte).replaceAll(Matcher.quoteReplacement(marcador));
+                } else {
+                    nueva = parte;
+                }
+                // Sin contar los marcadores ya puestos, el valor no debe quedar en ningún otro sitio
+                if (MARCADOR.matcher(nueva).replaceAll("").toLowerCase().contains(valorMinuscula)) {
+                    return null;
+                }
+                reemplazado |= !nueva.equals(parte);
+                partes.set(i, nueva);
+            }
+            if (!reemplazado) {
+                return null;
+            }
+            plantilla = String.join("'", partes);
+        }
+        return plantilla;
+    }
+
+    /**
+     * Parte el JPQL por las comillas simples que abren y cierran literales: las posiciones impares son
+     * el contenido de los literales (con las comillas escapadas '' intactas). Unir las partes con "'"
+     * devuelve el texto original.
+     */
+    private static List<String> dividirLiterales(String jpql) {
+        List<String> partes = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean enLiteral = false;
+        for (int i = 0; i < jpql.length(); i++) {
+            char c = jpql.charAt(i);
+            if (c != '\'') {
+                actual.append(c);
+            } else if (enLiteral && i + 1 < jpql.length() && jpql.charAt(i + 1) == '\'') {
+                actual.append("''");
+                i++;
+            } else {
+                partes.add(actual.toString());
+                actual.setLength(0);
+                enLiteral = !enLiteral;
+            }
+        }
+        partes.add(actual.toString());
+        return partes;
+    }
+
+    private String sustituir(String plantillaJpql, Map<String, String> parametros) {
+        String jpql = plantillaJpql;
+        for (Map.Entry<String, String> parametro : parametros.entrySet()) {
+            jpql = jpql.replace("{{" + parametro.getKey() + "}}", parametro.getValue())
+                    .replace("{{" + parametro.getKey() + "|min}}", parametro.getValue().toLowerCase());
+        }
+        return jpql;
+    }
+}
@@ -0,0 +1,235 @@
+package EduData.service;
+
+import EduData.entity.Asistencia;
+import EduData.entity.Calificacion;
+import EduData.entity.Curso;
+import EduData.entity.Docente;
+import EduData.entity.Estudiante;
+import EduData.entity.Matricula;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Convierte los resultados de las consultas NLQ a mapas serializables.
+ *
+ * Los mapeadores de cada entidad se registran una sola vez al arrancar y llaman directamente
+ * a los getters, en lugar de buscar cada campo con reflexión por cada valor de cada fila.
+ * Los proxies de Hibernate son subclases de la entidad, así que se resuelven subiendo por la
+ * jerarquía y el resultado se recuerda por clase concreta.
+ */
+@Component
+public class NlqConversorResultados {
+
+    private static final Mapeador DESCONOCIDO = new Mapeador(null, null);
+
+    private final Map<Class<?>, Mapeador> registrados = new HashMap<>();
+    private final Map<Class<?>, Mapeador> porClaseConcreta = new ConcurrentHashMap<>();
+
+    public NlqConversorResultados() {
+        registrar(Estudiante.class,
+                (estudiante, item) -> {
+                    item.put("id", estudiante.getId());
+                    item.put("identificacion", estudiante.getIdentificacion());
+                    item.put("nombre", estudiante.getNombre());
+                    item.put("apellido", estudiante.getApellido());
+                    item.put("correo", estudiante.getCorreo());
+                    item.put("genero", estudiante.getGenero());
+                    item.put("matriculaAnio", estudiante.getMatriculaAnio());
+                    item.put("estado", estudiante.getEstado());
+                },
+                (estudiante, fila) -> {
+                    fila.put("estudiante_id", estudiante.getId());
+                    fila.put("estudiante_nombre", estudiante.getNombre());
+                    fila.put("estudiante_apellido", estudiante.getApellido());
+                    fila.put("estudiante_correo", estudiante.getCorreo());
+                    fila.put("estudiante_identificacion", estudiante.getIdentificacion());
+                });
+
+        registrar(Docente.class,
+                (docente, item) -> {
+                    item.put("id", docente.getId());
+                    item.put("nombre", docente.getNombre());
+                    item.put("email", docente.getEmail());
+                    item.put("especialidad", docente.getEspecialidad());
+                },
+                (docente, fila) -> {
+                    fila.put("docente_id", docente.getId());
+                    fila.put("docente_nombre", docente.getNombre());
+                    fila.put("docente_email", docente.getEmail());
+                    fila.put("docente_especialidad", docente.getEspecialidad());
+                });
+
+        registrar(Curso.class,
+                (curso, item) -> {
+                    item.put("id", curso.getId());
+                    item.put("nombre", curso.getNombre());
+                    item.put("codigo", curso.getCodigo());
+                    item.put("descripcion", curso.getDescripcion());
+                    item.put("anio", curso.getAnio());
+
+                    // Manejar la relación con docente de forma segura
+                    try {
+                        Docente docente = curso.getDocente();
+                        if (docente != null) {
+                            if (docente.getNombre() != null) {
+                                item.put("docente", docente.getNombre());
+                            }
+                            if (docente.getEmail() != null) {
+                                item.put("docenteEmail", docente.getEmail());
+                            }
+                        } else {
+                            item.put("docente", "Sin asignar");
+                        }
+                    } catch (RuntimeException docenteException) {
+                        item.put("docente", "Error al cargar docente");
+                    }
+                },
+                (curso, fila) -> {
+                    fila.put("curso_id", curso.getId());
+                    fila.put("curso_nombre", curso.getNombre());
+                    fila.put("curso_codigo", curso.getCodigo());
+                    fila.put("curso_descripcion", curso.getDescripcion());
+                });
+
+        registrar(Matricula.class,
+                (matricula, item) -> {
+                    item.put("id", matricula.getId());
+                    item.put("anio", matricula.getAnio());
+
+                    // Manejar las relaciones de forma segura
+                    try {
+                        Estudiante estudiante = matricula.getEstudiante();
+                        if (estudiante != null) {
+                            if (estudiante.getNombre() != null && estudiante.getApellido() != null) {
+                                item.put("estudiante", estudiante.getNombre() + " " + estudiante.getApellido());
+                            }
+                            if (estudiante.getId() != null) {
+                                item.put("estudianteId", estudiante.getId());
+                            }
+                        }
+                    } catch (RuntimeException estException) {
+                        item.put("estudiante", "Error al cargar estudiante");
+                    }
+
+                    try {
+                        Curso curso = matricula.getCurso();
+                        if (curso != null) {
+                            if (curso.getNombre() != null) {
+                                item.put("curso", curso.getNombre());
+                            }
+                            if (curso.getId() != null) {
+                                item.put("cursoId", curso.getId());
+                            }
+                        }
+                    } catch (RuntimeException cursoException) {
+                        item.put("curso", "Error al cargar curso");
+                    }
+                },
+                (matricula, fila) -> {
+                    fila.put("matricula_id", matricula.getId());
+                    fila.put("matricula_anio", matricula.getAnio());
+                });
+
+        registrar(Calificacion.class,
+                (calificacion, item) -> {
+                    item.put("id", calificacion.getId());
+                    item.put("tipo", calificacion.getTipo());
+                    item.put("valor", calificacion.getValor());
+                    item.put("fecha", calificacion.getFecha());
+                    item.put("matriculaId", idMatricula(calificacion.getMatricula()));
+                },
+                (calificacion, fila) -> {
+                    fila.put("calificacion_id", calificacion.getId());
+                    fila.put("calificacion_tipo", calificacion.getTipo());
+                    fila.put("calificacion_valor", calificacion.getValor());
+                    fila.put("calificacion_fecha", calificacion.getFecha());
+                });
+
+        registrar(Asistencia.class,
+                (asistencia, item) -> {
+                    item.put("id", asistencia.getId());
+                    item.put("fecha", asistencia.getFecha());
+                    item.put("presente", asistencia.getPresente());
+                    item.put("matriculaId", idMatricula(asistencia.getMatricula()));
+                },
+                (asistencia, fila) -> {
+                    fila.put("asistencia_id", asistencia.getId());
+                    fila.put("asistencia_fecha", asistencia.getFecha());
+                    fila.put("asistencia_presente", asistencia.getPresente());
+                });
+    }
+
+    public Map<String, Object> convertir(Object resultado) {
+        if (resultado instanceof Number) {
+            // Para consultas COUNT, SUM, etc.
+            return Map.of("resultado", resultado);
+        }
+        if (resultado instanceof String) {
+            // Para consultas SELECT campo
+            return Map.of("valor", resultado);
+        }
+
+        Map<String, Object> item = new HashMap<>();
+        if (resultado instanceof Object[] array) {
+            // Para consultas que devuelven varias columnas como SELECT e, c
+            for (int i = 0; i < array.length; i++) {
+                if (array[i] == null) {
+                    item.put("campo_" + i, "N/A");
+                    continue;
+                }
+                Mapeador mapeador = buscar(array[i].getClass());
+                if (mapeador == DESCONOCIDO) {
+                    item.put("campo_" + i, array[i].toString());
+                } else {
+                    mapeador.enFila().accept(array[i], item);
+                }
+            }
+            return item;
+        }
+
+        Mapeador mapeador = buscar(resultado.getClass());
+        if (mapeador == DESCONOCIDO) {
+            item.put("valor", resultado.toString());
+            item.put("tipo", resultado.getClass().getSimpleName());
+            return item;
+        }
+        try {
+            mapeador.completo().accept(resultado, item);
+        } catch (RuntimeException e) {
+            item.put("error", "Error convirtiendo " + resultado.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+        return item;
+    }
+
+    private Mapeador buscar(Class<?> clase) {
+        return porClaseConcreta.computeIfAbsent(clase, c -> {
+            for (Class<?> actual = c; actual != null; actual = actual.getSuperclass()) {
+                Mapeador mapeador = registrados.get(actual);
+                if (mapeador != null) {
+                    return mapeador;
+                }
+            }
+            return DESCONOCIDO;
+        });
+    }
+
+    private <T> void registrar(Class<T> tipo,
+                               BiConsumer<T, Map<String, Object>> completo,
+                               BiConsumer<T, Map<String, Object>> enFila) {
+        registrados.put(tipo, new Mapeador(
+                (entidad, destino) -> completo.accept(tipo.cast(entidad), destino),
+                (entidad, destino) -> enFila.accept(tipo.cast(entidad), destino)));
+    }
+
+    private static Long idMatricula(Matricula matricula) {
+        return matricula != null ? matricula.getId() : null;
+    }
+
+    private record Mapeador(BiConsumer<Object, Map<String, Object>> completo,
+                            BiConsumer<Object, Map<String, Object>> enFila) {
+    }
+}
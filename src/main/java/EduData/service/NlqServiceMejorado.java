@@ -2,44 +2,32 @@ package EduData.service;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 @Service
+@Slf4j
 public class NlqServiceMejorado {
 
-    @Value("${spring.ai.openai.api-key}")
-    private String apiKey;
-
-    @Value("${server.url:https://edudata-backend.onrender.com}")
-    private String serverUrl;
-
-    private final EntityManager entityManager;
-    private final ObjectMapper objectMapper;
-
-    public NlqServiceMejorado(EntityManager entityManager) {
-        this.entityManager = entityManager;
-        this.objectMapper = new ObjectMapper();
-    }
-
-    public List<Map<String, Object>> answer(String pregunta) {
-        System.out.println("=== INICIANDO CONSULTA NLQ MEJORADA ===");
-        System.out.println("Pregunta recibida: " + pregunta);
-        
-        // Detectar si la pregunta necesita parámetros y extraerlos
-        Map<String, String> parametros = extraerParametros(pregunta);
-        System.out.println("Parámetros extraídos: " + parametros);
-        
-        String promptTemplate = """
+    private static final String PROMPT_TEMPLATE = """
             Eres un asistente experto que transforma preguntas en lenguaje natural a JPQL.
             
             ENTIDADES DISPONIBLES:
@@ -94,340 +82,385 @@ public class NlqServiceMejorado {
             IMPORTANTE: Devuelve SOLO la consulta JPQL, sin explicaciones.
             
             Pregunta: """;
+
+    @Value("${spring.ai.openai.api-key}")
+    private String apiKey;
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final NlqCacheTraducciones cacheTraducciones;
+    private final NlqTraductorLocal traductorLocal;
+    private final WebClient openRouterClient;
+    private final NlqConversorResultados conversorResultados;
+    private final TransactionTemplate transaccionLectura;
+    private final Scheduler planificadorBloqueante;
+    private final int maxFilas;
+    private final int fetchSize;
+
+    public NlqServiceMejorado(EntityManager entityManager,
+                              NlqCacheTraducciones cacheTraducciones,
+                              NlqTraductorLocal traductorLocal,
+                              @Qualifier("openRouterWebClient") WebClient openRouterClient,
+                              NlqConversorResultados conversorResultados,
+                              PlatformTransactionManager transactionManager,
+                              @Qualifier("planificadorBloqueante") Scheduler planificadorBloqueante,
+                              @Value("${edudata.nlq.max-filas:5000}") int maxFilas,
+                              @Value("${edudata.nlq.fetch-size:500}") int fetchSize) {
+        this.entityManager = entityManager;
+        // Fechas como "2024-01-31" en las líneas NDJSON, igual que en las respuestas de Spring MVC
+        this.objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.cacheTraducciones = cacheTraducciones;
+        this.traductorLocal = traductorLocal;
+        this.openRouterClient = openRouterClient;
+        this.conversorResultados = conversorResultados;
+        this.transaccionLectura = new TransactionTemplate(transactionManager);
+        this.transaccionLectura.setReadOnly(true);
+        this.planificadorBloqueante = planificadorBloqueante;
+        this.maxFilas = maxFilas;
+        this.fetchSize = Math.max(1, fetchSize);
+    }
+
+    public Map<String, Object> estadisticasCache() {
+        Map<String, Object> stats = new LinkedHashMap<>(cacheTraducciones.estadisticas());
+        stats.put("resueltasLocalmente", traductorLocal.getResueltas());
+        stats.put("derivadasAIa", traductorLocal.getDerivadas());
+        return stats;
+    }
+
+    public List<Map<String, Object>> answer(String pregunta) {
+        log.debug("Consulta NLQ: {}", pregunta);
+        
+        // Detectar si la pregunta necesita parámetros y extraerlos
+        Map<String, String> parametros = extraerParametros(pregunta);
+        log.debug("Parámetros extraídos: {}", parametros);
         
-        String prompt = promptTemplate + pregunta;
+        String jpqlSinIa = traducirSinIa(pregunta, parametros);
+        if (jpqlSinIa != null) {
+            return ejecutarConsulta(jpqlSinIa);
+        }
         
-        System.out.println("Prompt generado correctamente");
+        List<Map<String, Object>> errorConfiguracion = verificarApiKey();
+        if (errorConfiguracion != null) {
+            return errorConfiguracion;
+        }
 
         try {
-            System.out.println("=== LLAMANDO A OPENROUTER ===");
-            System.out.println("Server URL configurada: " + serverUrl);
-            System.out.println("API Key verificación - Existe: " + (apiKey != null));
-            System.out.println("API Key verificación - No vacía: " + (apiKey != null && !apiKey.trim().isEmpty()));
-            
-            // Debug más detallado de la API key
-            if (apiKey != null) {
-                System.out.println("API Key longitud: " + apiKey.length());
-                System.out.println("API Key primeros 10 caracteres: " + (apiKey.length() > 10 ? apiKey.substring(0, 10) + "..." : apiKey));
-            }
-            
-            if (apiKey == null || apiKey.trim().isEmpty()) {
-                System.err.println("ERROR: API Key no configurada");
-                System.err.println("Valor actual de apiKey: '" + apiKey + "'");
-                return List.of(Map.of("error", "API Key de OpenRouter no configurada. Verifica application.properties"));
-            }
+            String responseJson = llamarOpenRouter(pregunta).block();
+            return procesarRespuesta(pregunta, parametros, responseJson);
+        } catch (Exception e) {
+            return errorGeneral(e);
+        }
+    }
 
-            // Limpiar la API key de posibles espacios o caracteres extraños
-            String cleanApiKey = apiKey.trim();
-            System.out.println("API Key limpia longitud: " + cleanApiKey.length());
+    /**
+     * Versión no bloqueante de {@link #answer(String)}: la llamada a OpenRouter no ocupa ningún hilo
+     * mientras se espera la respuesta, y la consulta JPQL (que sí bloquea) se ejecuta en el
+     * planificador bloqueante (boundedElastic, o hilos virtuales según HilosVirtualesConfig) en
+     * lugar de en un hilo de Tomcat.
+     */
+    public Mono<List<Map<String, Object>>> answerAsync(String pregunta) {
+        Map<String, String> parametros = extraerParametros(pregunta);
+        
+        String jpqlSinIa = traducirSinIa(pregunta, parametros);
+        if (jpqlSinIa != null) {
+            return Mono.fromCallable(() -> ejecutarConsulta(jpqlSinIa))
+                    .subscribeOn(planificadorBloqueante);
+        }
+        
+        List<Map<String, Object>> errorConfiguracion = verificarApiKey();
+        if (errorConfiguracion != null) {
+            return Mono.just(errorConfiguracion);
+        }
 
-            WebClient client = WebClient.builder()
-                    .baseUrl("https://openrouter.ai")
-                    .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + cleanApiKey)
-                    .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                    .defaultHeader("HTTP-Referer", serverUrl) // Referer dinámico según entorno
-                    .defaultHeader("X-Title", "EduData") // Opcional pero recomendado
-                    .build();
+        return llamarOpenRouter(pregunta)
+                .publishOn(planificadorBloqueante)
+                .map(responseJson -> procesarRespuesta(pregunta, parametros, responseJson))
+                .onErrorResume(e -> Mono.just(errorGeneral(e)));
+    }
 
-            String escapedPrompt = prompt.replace("\"", "\\\"").replace("\n", "\\n").replace("\r", "");
-            
-            String requestBody = "{" +
-                    "\"model\": \"openai/gpt-4o\"," +
-                    "\"messages\": [" +
-                    "{\"role\": \"user\", \"content\": \"" + escapedPrompt + "\"}" +
-                    "]," +
-                    "\"max_tokens\": 1000," +
-                    "\"temperature\": 0.1" +
-                    "}";
-
-            System.out.println("=== DEBUG REQUEST ===");
-            System.out.println("Authorization header: Bearer " + (cleanApiKey.length() > 10 ? cleanApiKey.substring(0, 10) + "..." : cleanApiKey));
-            System.out.println("Request URL: https://openrouter.ai/api/v1/chat/completions");
-            System.out.println("HTTP-Referer: " + serverUrl);
-
-            String responseJson = client.post()
-                    .uri("/api/v1/chat/completions")
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(),
-                            response -> {
-                                System.err.println("=== ERROR RESPONSE STATUS ===");
-                                System.err.println("Status: " + response.statusCode());
-                                System.err.println("Headers: " + response.headers().asHttpHeaders());
-                                
-                                return response.bodyToMono(String.class)
-                                        .doOnNext(errorBody -> {
-                                            System.err.println("=== ERROR RESPONSE BODY ===");
-                                            System.err.println(errorBody);
-                                        })
-                                        .flatMap(errorBody -> Mono.error(new RuntimeException("Error al llamar a OpenRouter: " + errorBody)));
-                            })
-                    .bodyToMono(String.class)
-                    .block();
-
-            System.out.println("=== RESPUESTA DE OPENROUTER RECIBIDA ===");
-
-            @SuppressWarnings("unchecked")
-            Map<String, Object> response = (Map<String, Object>) objectMapper.readValue(responseJson, Map.class);
-            @SuppressWarnings("unchecked")
-            List<Map<?, ?>> choices = (List<Map<?, ?>>) response.get("choices");
-            Map<?, ?> choice = choices.get(0);
-            Map<?, ?> message = (Map<?, ?>) choice.get("message");
-            String jpql = message.get("content").toString().trim();
-
-            // Limpiar la respuesta de posibles marcadores de código
-            jpql = jpql.replaceAll("```sql", "").replaceAll("```jpql", "").replaceAll("```", "").trim();
-
-            System.out.println("=== JPQL GENERADO POR LA IA ===");
-            System.out.println("JPQL: " + jpql);
+    /**
+     * Variante de {@link #answer(String)} para resultados grandes: escribe cada fila en formato NDJSON
+     * sobre la salida a medida que se lee de la base de datos, con el mismo límite de filas que
+     * answer() pero sin mantener el resultado completo en memoria.
+     */
+    public void answerStream(String pregunta, OutputStream salida) throws IOException {
+        log.debug("Consulta NLQ en stream: {}", pregunta);
+        Map<String, String> parametros = extraerParametros(pregunta);
+
+        String jpqlSinIa = traducirSinIa(pregunta, parametros);
+        if (jpqlSinIa != null) {
+            ejecutarConsultaEnStream(jpqlSinIa, salida);
+            return;
+        }
+
+        List<Map<String, Object>> errorConfiguracion = verificarApiKey();
+        if (errorConfiguracion != null) {
+            escribirLinea(salida, errorConfiguracion.get(0));
+            salida.flush();
+            return;
+        }
+
+        String jpql;
+        try {
+            jpql = extraerJpql(llamarOpenRouter(pregunta).block());
+        } catch (Exception e) {
+            escribirLinea(salida, errorGeneral(e).get(0));
+            salida.flush();
+            return;
+        }
+
+        Map<String, Object> errorValidacion = validarJpql(jpql);
+        if (errorValidacion != null) {
+            escribirLinea(salida, errorValidacion);
+            salida.flush();
+            return;
+        }
+
+        if (ejecutarConsultaEnStream(jpql, salida)) {
+            cacheTraducciones.guardar(pregunta, parametros, jpql);
+        }
+    }
+
+    /**
+     * Intenta obtener el JPQL sin llamar a la IA: primero con el traductor local y luego con la cache.
+     */
+    private String traducirSinIa(String pregunta, Map<String, String> parametros) {
+        // Las preguntas con forma conocida se traducen localmente sin llamar a la IA
+        String jpqlLocal = traductorLocal.traducir(pregunta);
+        if (jpqlLocal != null) {
+            log.debug("JPQL resuelto localmente: {}", jpqlLocal);
+            return jpqlLocal;
+        }
+        
+        // Si la pregunta (o una equivalente con otros valores) ya fue traducida, no se llama a la IA
+        String jpqlEnCache = cacheTraducciones.buscar(pregunta, parametros);
+        if (jpqlEnCache != null) {
+            log.debug("JPQL obtenido de la cache: {}", jpqlEnCache);
+        }
+        return jpqlEnCache;
+    }
+
+    private List<Map<String, Object>> verificarApiKey() {
+        if (apiKey == null || apiKey.trim().isEmpty()) {
+            log.error("API Key de OpenRouter no configurada");
+            return List.of(Map.of("error", "API Key de OpenRouter no configurada. Verifica application.properties"));
+        }
+        return null;
+    }
+
+    private Mono<String> llamarOpenRouter(String pregunta) {
+        String prompt = PROMPT_TEMPLATE + pregunta;
+        String escapedPrompt = prompt.replace("\"", "\\\"").replace("\n", "\\n").replace("\r", "");
+        
+        String requestBody = "{" +
+                "\"model\": \"openai/gpt-4o\"," +
+                "\"messages\": [" +
+                "{\"role\": \"user\", \"content\": \"" + escapedPrompt + "\"}" +
+                "]," +
+                "\"max_tokens\": 1000," +
+                "\"temperature\": 0.1" +
+                "}";
+
+        log.debug("Llamando a OpenRouter");
+
+        // El cliente es un bean compartido (ver OpenRouterConfig): reutiliza conexiones y TLS
+        return openRouterClient.post()
+                .uri("/api/v1/chat/completions")
+                .bodyValue(requestBody)
+                .retrieve()
+                .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(),
+                        response -> {
+                            return response.bodyToMono(String.class)
+                                    .doOnNext(errorBody -> log.warn("OpenRouter respondió {}: {}",
+                                            response.statusCode(), errorBody))
+                                    .flatMap(errorBody -> Mono.error(new RuntimeException("Error al llamar a OpenRouter: " + errorBody)));
+                        })
+                .bodyToMono(String.class);
+    }
+
+    private List<Map<String, Object>> procesarRespuesta(String pregunta, Map<String, String> parametros, String responseJson) {
+        try {
+            String jpql = extraerJpql(responseJson);
 
             // Validar JPQL antes de ejecutar
-            if (jpql.contains(":") && jpql.matches(".*:[a-zA-Z][a-zA-Z0-9]*.*")) {
-                System.err.println("ERROR: La consulta contiene parámetros nombrados sin resolver");
-                return List.of(Map.of(
-                        "error", "La consulta generada contiene parámetros no resueltos.",
-                        "jpql", jpql,
-                        "sugerencia", "Intenta ser más específico. Ejemplo: 'estudiantes del año 2024' en lugar de 'estudiantes de un año específico'"
-                ));
+            Map<String, Object> errorValidacion = validarJpql(jpql);
+            if (errorValidacion != null) {
+                return List.of(errorValidacion);
             }
 
-            // Ejecutar JPQL
-            return ejecutarConsulta(jpql);
+            // Ejecutar JPQL y guardar la traducción solo si la consulta funcionó
+            List<Map<String, Object>> resultados = ejecutarConsulta(jpql);
+            if (!esRespuestaDeError(resultados)) {
+                cacheTraducciones.guardar(pregunta, parametros, jpql);
+            }
+            return resultados;
 
         } catch (Exception e) {
-            System.err.println("=== ERROR GENERAL ===");
-            System.err.println("Error: " + e.getMessage());
-            e.printStackTrace();
-            
-            return List.of(Map.of(
-                    "error", "Error en el servicio: " + e.getMessage(),
-                    "sugerencia", "Intenta con preguntas más simples como '¿cuántos estudiantes hay?' o 'estudiantes del 2024'"
-            ));
+            return errorGeneral(e);
+        }
+    }
+
+    private String extraerJpql(String responseJson) throws Exception {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> response = (Map<String, Object>) objectMapper.readValue(responseJson, Map.class);
+        @SuppressWarnings("unchecked")
+        List<Map<?, ?>> choices = (List<Map<?, ?>>) response.get("choices");
+        Map<?, ?> choice = choices.get(0);
+        Map<?, ?> message = (Map<?, ?>) choice.get("message");
+        String jpql = message.get("content").toString().trim();
+
+        // Limpiar la respuesta de posibles marcadores de código
+        jpql = jpql.replaceAll("```sql", "").replaceAll("```jpql", "").replaceAll("```", "").trim();
+
+        log.debug("JPQL generado por la IA: {}", jpql);
+        return jpql;
+    }
+
+    private Map<String, Object> validarJpql(String jpql) {
+        if (jpql.contains(":") && jpql.matches(".*:[a-zA-Z][a-zA-Z0-9]*.*")) {
+            log.warn("La consulta generada contiene parámetros nombrados sin resolver: {}", jpql);
+            return Map.of(
+                    "error", "La consulta generada contiene parámetros no resueltos.",
+                    "jpql", jpql,
+                    "sugerencia", "Intenta ser más específico. Ejemplo: 'estudiantes del año 2024' en lugar de 'estudiantes de un año específico'"
+            );
         }
+        return null;
+    }
+
+    private List<Map<String, Object>> errorGeneral(Throwable e) {
+        log.error("Error en la consulta NLQ", e);
+        
+        return List.of(Map.of(
+                "error", "Error en el servicio: " + e.getMessage(),
+                "sugerencia", "Intenta con preguntas más simples como '¿cuántos estudiantes hay?' o 'estudiantes del 2024'"
+        ));
     }
 
     private List<Map<String, Object>> ejecutarConsulta(String jpql) {
         try {
-            System.out.println("=== EJECUTANDO JPQL ===");
+            log.debug("Ejecutando JPQL: {}", jpql);
             Query query = entityManager.createQuery(jpql);
+            // Se pide una fila más que el límite para saber si hubo truncamiento
+            query.setMaxResults(maxFilas + 1);
             List<?> resultados = query.getResultList();
             
-            System.out.println("Resultados obtenidos: " + resultados.size() + " registros");
+            log.debug("Resultados obtenidos: {} registros", resultados.size());
+            
+            boolean truncado = resultados.size() > maxFilas;
+            int filas = truncado ? maxFilas : resultados.size();
             
             // Convertir resultados a Maps para evitar problemas de serialización
-            List<Map<String, Object>> resultadosConvertidos = new ArrayList<>();
+            List<Map<String, Object>> resultadosConvertidos = new ArrayList<>(filas + 1);
             
-            for (Object resultado : resultados) {
-                Map<String, Object> item = convertirResultado(resultado);
+            for (int i = 0; i < filas; i++) {
+                Map<String, Object> item = conversorResultados.convertir(resultados.get(i));
                 resultadosConvertidos.add(item);
             }
             
+            if (truncado) {
+                resultadosConvertidos.add(Map.of(
+                        "truncado", true,
+                        "maxFilas", maxFilas,
+                        "aviso", "Se muestran solo las primeras " + maxFilas + " filas. Use /api/nlq/pregunta/stream o una pregunta más específica."
+                ));
+            }
+            
             return resultadosConvertidos;
             
         } catch (Exception e) {
-            System.err.println("=== ERROR EJECUTANDO JPQL ===");
-            System.err.println("Error: " + e.getMessage());
-            e.printStackTrace();
-            
-            // Proporcionar mensajes de error más específicos
-            String mensajeError = e.getMessage();
-            String sugerencia = "Verifica que la consulta sea válida.";
-            
-            if (mensajeError.contains("could not resolve property")) {
-                sugerencia = "La propiedad especificada no existe en la entidad. Verifica los nombres de los campos.";
-            } else if (mensajeError.contains("No data found")) {
-                sugerencia = "No se encontraron datos que coincidan con tu consulta. Prueba inicializando datos de prueba primero.";
-            } else if (mensajeError.contains("unexpected token")) {
-                sugerencia = "Error de sintaxis en la consulta. Intenta reformular tu pregunta.";
-            }
-            
-            return List.of(Map.of(
-                    "error", "Error ejecutando consulta: " + mensajeError,
-                    "jpql", jpql,
-                    "sugerencia", sugerencia,
-                    "ayuda", "Si no tienes datos, usa el botón 'Inicializar Datos de Prueba' para crear información de ejemplo."
-            ));
+            return List.of(errorEjecucion(jpql, e));
         }
     }
 
-    private Map<String, Object> convertirResultado(Object resultado) {
-        Map<String, Object> item = new HashMap<>();
-        
-        if (resultado instanceof Number) {
-            // Para consultas COUNT, SUM, etc.
-            return Map.of("resultado", resultado);
-        } else if (resultado instanceof String) {
-            // Para consultas SELECT campo
-            return Map.of("valor", resultado);
-        } else if (resultado instanceof Object[]) {
-            // Para consultas que devuelven múltiples campos como SELECT e.nombre, c.nombre
-            Object[] array = (Object[]) resultado;
-            Map<String, Object> fila = new HashMap<>();
-            
-            // Mapear los valores del array a nombres descriptivos
-            for (int i = 0; i < array.length; i++) {
-                if (array[i] != null) {
-                    // Intentar determinar el tipo de dato y asignar nombre apropiado
-                    if (array[i].getClass().getSimpleName().equals("Estudiante")) {
-                        var estudiante = array[i];
-                        fila.put("estudiante_id", getFieldValue(estudiante, "id"));
-                        fila.put("estudiante_nombre", getFieldValue(estudiante, "nombre"));
-                        fila.put("estudiante_apellido", getFieldValue(estudiante, "apellido"));
-                        fila.put("estudiante_correo", getFieldValue(estudiante, "correo"));
-                        fila.put("estudiante_identificacion", getFieldValue(estudiante, "identificacion"));
-                    } else if (array[i].getClass().getSimpleName().equals("Curso")) {
-                        var curso = array[i];
-                        fila.put("curso_id", getFieldValue(curso, "id"));
-                        fila.put("curso_nombre", getFieldValue(curso, "nombre"));
-                        fila.put("curso_codigo", getFieldValue(curso, "codigo"));
-                        fila.put("curso_descripcion", getFieldValue(curso, "descripcion"));
-                    } else if (array[i].getClass().getSimpleName().equals("Matricula")) {
-                        var matricula = array[i];
-                        fila.put("matricula_id", getFieldValue(matricula, "id"));
-                        fila.put("matricula_anio", getFieldValue(matricula, "anio"));
-                    } else {
-                        // Para otros tipos de datos
-                        fila.put("campo_" + i, array[i].toString());
-                    }
-                } else {
-                    fila.put("campo_" + i, "N/A");
-                }
-            }
-            return fila;
-        } else if (resultado.getClass().getSimpleName().equals("Estudiante")) {
-            // Convertir Estudiante a Map
-            try {
-                var estudiante = resultado;
-                item.put("id", getFieldValue(estudiante, "id"));
-                item.put("identificacion", getFieldValue(estudiante, "identificacion"));
-                item.put("nombre", getFieldValue(estudiante, "nombre"));
-                item.put("apellido", getFieldValue(estudiante, "apellido"));
-                item.put("correo", getFieldValue(estudiante, "correo"));
-                item.put("genero", getFieldValue(estudiante, "genero"));
-                item.put("matriculaAnio", getFieldValue(estudiante, "matriculaAnio"));
-                item.put("estado", getFieldValue(estudiante, "estado"));
-            } catch (Exception e) {
-                item.put("error", "Error convirtiendo estudiante: " + e.getMessage());
-            }
-        } else if (resultado.getClass().getSimpleName().equals("Docente")) {
-            // Convertir Docente a Map
-            try {
-                var docente = resultado;
-                item.put("id", getFieldValue(docente, "id"));
-                item.put("nombre", getFieldValue(docente, "nombre"));
-                item.put("email", getFieldValue(docente, "email"));
-                item.put("especialidad", getFieldValue(docente, "especialidad"));
-            } catch (Exception e) {
-                item.put("error", "Error convirtiendo docente: " + e.getMessage());
-            }
-        } else if (resultado.getClass().getSimpleName().equals("Curso")) {
-            // Convertir Curso a Map
-            try {
-                var curso = resultado;
-                item.put("id", getFieldValue(curso, "id"));
-                item.put("nombre", getFieldValue(curso, "nombre"));
-                item.put("codigo", getFieldValue(curso, "codigo"));
-                item.put("descripcion", getFieldValue(curso, "descripcion"));
-                item.put("anio", getFieldValue(curso, "anio"));
-                
-                // Manejar la relación con docente de forma más segura
-                try {
-                    Object docente = getFieldValue(curso, "docente");
-                    if (docente != null && !docente.toString().equals("N/A") && !docente.toString().contains("Relación no cargada")) {
-                        Object nombreDocente = getFieldValue(docente, "nombre");
-                        Object emailDocente = getFieldValue(docente, "email");
-                        if (nombreDocente != null && !nombreDocente.equals("N/A")) {
-                            item.put("docente", nombreDocente);
-                        }
-                        if (emailDocente != null && !emailDocente.equals("N/A")) {
-                            item.put("docenteEmail", emailDocente);
-                        }
-                    } else {
-                        item.put("docente", "Sin asignar");
-                    }
-                } catch (Exception docenteException) {
-                    item.put("docente", "Error al cargar docente");
-                }
-                
-            } catch (Exception e) {
-                item.put("error", "Error convirtiendo curso: " + e.getMessage());
-            }
-        } else if (resultado.getClass().getSimpleName().equals("Matricula")) {
-            // Convertir Matricula a Map
-            try {
-                var matricula = resultado;
-                item.put("id", getFieldValue(matricula, "id"));
-                item.put("anio", getFieldValue(matricula, "anio"));
-                
-                // Manejar las relaciones de forma más segura
-                try {
-                    Object estudiante = getFieldValue(matricula, "estudiante");
-                    if (estudiante != null && !estudiante.toString().equals("N/A") && !estudiante.toString().contains("Relación no cargada")) {
-                        Object nombreEst = getFieldValue(estudiante, "nombre");
-                        Object apellidoEst = getFieldValue(estudiante, "apellido");
-                        Object idEst = getFieldValue(estudiante, "id");
-                        
-                        if (nombreEst != null && apellidoEst != null && !nombreEst.equals("N/A") && !apellidoEst.equals("N/A")) {
-                            item.put("estudiante", nombreEst + " " + apellidoEst);
-                        }
-                        if (idEst != null && !idEst.equals("N/A")) {
-                            item.put("estudianteId", idEst);
-                        }
-                    }
-                } catch (Exception estException) {
-                    item.put("estudiante", "Error al cargar estudiante");
-                }
-                
-                try {
-                    Object curso = getFieldValue(matricula, "curso");
-                    if (curso != null && !curso.toString().equals("N/A") && !curso.toString().contains("Relación no cargada")) {
-                        Object nombreCurso = getFieldValue(curso, "nombre");
-                        Object idCurso = getFieldValue(curso, "id");
-                        
-                        if (nombreCurso != null && !nombreCurso.equals("N/A")) {
-                            item.put("curso", nombreCurso);
+    /**
+     * Ejecuta la consulta escribiendo cada fila como una línea JSON (NDJSON) a medida que se lee
+     * del cursor, sin materializar la lista completa. La última línea es un resumen con el total
+     * de filas leídas y si el resultado se truncó en maxFilas.
+     *
+     * @return false si la consulta falló (la línea de error ya se escribió en la salida)
+     */
+    private boolean ejecutarConsultaEnStream(String jpql, OutputStream salida) throws IOException {
+        log.debug("Ejecutando JPQL en stream: {}", jpql);
+        long[] escaneadas = {0};
+        boolean[] truncado = {false};
+        boolean correcta = true;
+        try {
+            // La transacción de solo lectura mantiene abierto el cursor y permite que el driver use fetchSize
+            transaccionLectura.executeWithoutResult(status -> {
+                Query query = entityManager.createQuery(jpql);
+                query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+                query.setHint(HibernateHints.HINT_READ_ONLY, true);
+                query.setMaxResults(maxFilas + 1);
+
+                try (Stream<?> resultados = query.getResultStream()) {
+                    Iterator<?> iterador = resultados.iterator();
+                    while (iterador.hasNext()) {
+                        Object resultado = iterador.next();
+                        if (escaneadas[0] == maxFilas) {
+                            truncado[0] = true;
+                            break;
                         }
-                        if (idCurso != null && !idCurso.equals("N/A")) {
-                            item.put("cursoId", idCurso);
+                        escaneadas[0]++;
+                        escribirLinea(salida, conversorResultados.convertir(resultado));
+                        if (escaneadas[0] % fetchSize == 0) {
+                            // Liberar las entidades ya enviadas para que el contexto de persistencia no crezca
+                            entityManager.clear();
+                            salida.flush();
                         }
                     }
-                } catch (Exception cursoException) {
-                    item.put("curso", "Error al cargar curso");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
                 }
-                
-            } catch (Exception e) {
-                item.put("error", "Error convirtiendo matricula: " + e.getMessage());
-            }
-        } else {
-            // Para otros tipos de resultados
-            item.put("valor", resultado.toString());
-            item.put("tipo", resultado.getClass().getSimpleName());
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (Exception e) {
+            escribirLinea(salida, errorEjecucion(jpql, e));
+            correcta = false;
         }
-        
-        return item;
+
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("filasEscaneadas", escaneadas[0]);
+        resumen.put("truncado", truncado[0]);
+        resumen.put("maxFilas", maxFilas);
+        escribirLinea(salida, Map.of("resumen", resumen));
+        salida.flush();
+        return correcta;
     }
 
-    private Object getFieldValue(Object obj, String fieldName) {
-        try {
-            var field = obj.getClass().getDeclaredField(fieldName);
-            field.setAccessible(true);
-            Object value = field.get(obj);
-            
-            // Verificar si es una proxy de Hibernate no inicializada
-            if (value != null && value.getClass().getName().contains("HibernateProxy")) {
-                try {
-                    // Intentar acceder a una propiedad simple para forzar la inicialización
-                    value.toString();
-                } catch (Exception hibernateException) {
-                    // Si falla la inicialización lazy, devolver información básica
-                    return "N/A (Relación no cargada)";
-                }
-            }
-            
-            return value;
-        } catch (Exception e) {
-            return "N/A";
+    private void escribirLinea(OutputStream salida, Map<String, Object> fila) throws IOException {
+        salida.write(objectMapper.writeValueAsBytes(fila));
+        salida.write('\n');
+    }
+
+    private Map<String, Object> errorEjecucion(String jpql, Exception e) {
+        log.error("Error ejecutando JPQL: {}", jpql, e);
+        
+        // Proporcionar mensajes de error más específicos
+        String mensajeError = e.getMessage();
+        String sugerencia = "Verifica que la consulta sea válida.";
+        
+        if (mensajeError.contains("could not resolve property")) {
+            sugerencia = "La propiedad especificada no existe en la entidad. Verifica los nombres de los campos.";
+        } else if (mensajeError.contains("No data found")) {
+            sugerencia = "No se encontraron datos que coincidan con tu consulta. Prueba inicializando datos de prueba primero.";
+        } else if (mensajeError.contains("unexpected token")) {
+            sugerencia = "Error de sintaxis en la consulta. Intenta reformular tu pregunta.";
         }
+        
+        return Map.of(
+                "error", "Error ejecutando consulta: " + mensajeError,
+                "jpql", jpql,
+                "sugerencia", sugerencia,
+                "ayuda", "Si no tienes datos, usa el botón 'Inicializar Datos de Prueba' para crear información de ejemplo."
+        );
+    }
+
+    private boolean esRespuestaDeError(List<Map<String, Object>> resultados) {
+        return resultados.size() == 1 && resultados.get(0).containsKey("error");
     }
 
     private Map<String, String> extraerParametros(String pregunta) {
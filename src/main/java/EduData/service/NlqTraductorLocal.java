@@ -0,0 +1,285 @@
+package EduData.service;
+
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Traductor local de preguntas frecuentes a JPQL, sin llamar a la IA.
+ *
+ * Reconoce las formas más comunes (conteos, listados, filtros por año, género y nombre,
+ * cursos de un estudiante) con una gramática de patrones sobre la pregunta normalizada.
+ * Si queda cualquier palabra que no entiende devuelve null y la pregunta sigue a la IA,
+ * así un falso positivo es menos probable que una respuesta equivocada.
+ */
+@Component
+public class NlqTraductorLocal {
+
+    private static final String LETRAS = "[a-zñ]+";
+
+    // Filtros que se extraen de la pregunta antes de reconocer la forma
+    private static final Pattern FILTRO_ANIO = Pattern.compile("\\b(?:del|de|en el|en|ano|año|del ano|del año) (\\d{4})\\b");
+    private static final Pattern FILTRO_GENERO = Pattern.compile("\\b(masculin|femenin|hombre|mujer)[a-z]*\\b");
+    private static final Pattern FILTRO_NOMBRE = Pattern.compile(
+            "\\b(?:llamad[oa]s?|de nombre|con nombre|que se llaman?|se llaman?) (" + LETRAS + ")(?: (" + LETRAS + "))?$");
+
+    // Palabras de relleno que no cambian el significado
+    private static final Pattern RELLENO = Pattern.compile(
+            "\\b(?:hay|existen|registrad[oa]s|en total|en el sistema|actualmente|por favor)\\b");
+
+    private static final String ESTUDIANTES = "(?:estudiantes?|alumnos?)";
+    private static final String DOCENTES = "(?:docentes?|profesor(?:es)?)";
+    private static final String CURSOS = "(?:cursos?|materias?|asignaturas?)";
+    private static final String MATRICULAS = "(?:matriculas?|inscripciones?)";
+    private static final String ENTIDAD = "(" + ESTUDIANTES + "|" + DOCENTES + "|" + CURSOS + "|" + MATRICULAS + ")";
+
+    private static final Pattern CONTEO = Pattern.compile(
+            "^(?:cuant[oa]s|numero de|total de|cantidad de) " + ENTIDAD + "$");
+    private static final Pattern LISTADO = Pattern.compile(
+            "^(?:(?:muestrame|muestra|mostrar|lista|listar|ver|dame|cuales son|que) )?(?:(?:todos|todas) )?(?:(?:los|las) )?"
+                    + ENTIDAD + "$");
+    private static final Pattern CURSOS_DE_ESTUDIANTE = Pattern.compile(
+            "^(?:(?:que|cuales|muestra|mostrar|ver) )?(?:los )?cursos (?:que )?(?:tiene|ve|lleva|toma) (" + LETRAS + ")(?: (" + LETRAS + "))?$"
+                    + "|^en que cursos? esta (" + LETRAS + ")(?: (" + LETRAS + "))?$");
+    private static final Pattern DATOS_DE_ESTUDIANTE = Pattern.compile(
+            "^(?:(?:ver|muestra|mostrar|dame) )?(?:los )?(?:datos|informacion)(?: completos| completa)? (?:de|del)(?: (?:el|la))?(?: estudiante| alumno)? ("
+                    + LETRAS + ")(?: (" + LETRAS + "))?$");
+    private static final Pattern ESTUDIANTES_CON_CURSOS = Pattern.compile(
+            "^(?:(?:muestrame|muestra|mostrar|ver) )?(?:"
+                    + "(?:los )?estudiantes (?:y sus cursos|con (?:sus )?cursos)"
+                    + "|(?:en )?que curso (?:tiene|esta) cada estudiante"
+                    + "|relacion estudiante curso"
+                    + ")$");
+    // Palabras que nunca se aceptan como nombre propio ("datos de los cursos", "cursos que tiene cada estudiante")
+    private static final Pattern NO_ES_NOMBRE = Pattern.compile(
+            ENTIDAD + "|los|las|el|la|un|una|todos|todas|cada|mis|sus|que|con|del|de|en|y");
+
+    private static final Pattern ESTUDIANTES_MATRICULADOS = Pattern.compile(
+            "^(?:que )?estudiantes (?:matriculados|(?:que )?estan (?:en|matriculados en) (?:los )?cursos)$");
+
+    private final AtomicLong resueltas = new AtomicLong();
+    private final AtomicLong derivadas = new AtomicLong();
+
+    /**
+     * @return la consulta JPQL equivalente, o null si la pregunta no tiene una forma conocida
+     */
+    public String traducir(String pregunta) {
+        String jpql = reconocer(pregunta);
+        (jpql != null ? resueltas : derivadas).incrementAndGet();
+        return jpql;
+    }
+
+    public long getResueltas() {
+        return resueltas.get();
+    }
+
+    public long getDerivadas() {
+        return derivadas.get();
+    }
+
+    private String reconocer(String pregunta) {
+        if (pregunta == null || pregunta.isBlank()) {
+            return null;
+        }
+        Texto texto = Texto.de(pregunta);
+
+        Matcher m = CURSOS_DE_ESTUDIANTE.matcher(texto.plano);
+        if (m.matches()) {
+            int grupo = m.group(1) != null ? 1 : 3;
+            if (!sonNombresPropios(m.group(grupo), m.group(grupo + 1))) {
+                return null;
+            }
+            return "SELECT c FROM Matricula m JOIN m.curso c LEFT JOIN FETCH c.docente JOIN m.estudiante e WHERE "
+                    + filtroNombreApellido("e", texto.fragmento(m, grupo), texto.fragmento(m, grupo + 1));
+        }
+        m = DATOS_DE_ESTUDIANTE.matcher(texto.plano);
+        if (m.matches()) {
+            if (!sonNombresPropios(m.group(1), m.group(2))) {
+                return null;
+            }
+            return "SELECT e FROM Estudiante e WHERE "
+                    + filtroNombreApellido("e", texto.fragmento(m, 1), texto.fragmento(m, 2));
+        }
+        if (ESTUDIANTES_CON_CURSOS.matcher(texto.plano).matches()) {
+            return "SELECT e, c FROM Matricula m JOIN m.estudiante e JOIN m.curso c";
+        }
+        if (ESTUDIANTES_MATRICULADOS.matcher(texto.plano).matches()) {
+            return "SELECT DISTINCT e FROM Matricula m JOIN m.estudiante e";
+        }
+
+        // Formas con filtros opcionales: se retiran los filtros y se reconoce lo que queda
+        String anio = null;
+        String genero = null;
+        String nombre = null;
+        String apellido = null;
+
+        m = FILTRO_ANIO.matcher(texto.plano);
+        if (m.find()) {
+            anio = m.group(1);
+            texto = texto.sin(m.start(), m.end());
+        }
+        m = FILTRO_GENERO.matcher(texto.plano);
+        if (m.find()) {
+            genero = m.group(1).startsWith("masculin") || m.group(1).equals("hombre") ? "Masculino" : "Femenino";
+            texto = texto.sin(m.start(), m.end());
+        }
+        m = FILTRO_NOMBRE.matcher(texto.plano);
+        if (m.find()) {
+            if (!sonNombresPropios(m.group(1), m.group(2))) {
+                return null;
+            }
+            nombre = texto.fragmento(m, 1);
+            apellido = texto.fragmento(m, 2);
+            texto = texto.sin(m.start(), m.end());
+        }
+        String resto = RELLENO.matcher(texto.plano).replaceAll(" ").replaceAll("\\s+", " ").trim();
+
+        boolean conteo;
+        Matcher forma = CONTEO.matcher(resto);
+        if (forma.matches()) {
+            conteo = true;
+        } else {
+            forma = LISTADO.matcher(resto);
+            if (!forma.matches()) {
+                return null;
+            }
+            conteo = false;
+        }
+        return construir(entidad(forma.group(1)), conteo, anio, genero, nombre, apellido);
+    }
+
+    private String construir(String entidad, boolean conteo, String anio, String genero, String nombre, String apellido) {
+        StringBuilder where = new StringBuilder();
+        String alias;
+        String select;
+
+        // Solo Estudiante tiene género y apellido; Matricula no tiene nombre
+        if (genero != null && !entidad.equals("Estudiante")) {
+            return null;
+        }
+        if (apellido != null && !entidad.equals("Estudiante")) {
+            return null;
+        }
+        if (nombre != null && entidad.equals("Matricula")) {
+            return null;
+        }
+
+        switch (entidad) {
+            case "Estudiante" -> {
+                alias = "e";
+                select = conteo ? "SELECT COUNT(e) FROM Estudiante e" : "SELECT e FROM Estudiante e";
+                if (anio != null) {
+                    agregar(where, "e.matriculaAnio = " + anio);
+                }
+                if (genero != null) {
+                    agregar(where, "e.genero = '" + genero + "'");
+                }
+            }
+            case "Docente" -> {
+                alias = "d";
+                select = conteo ? "SELECT COUNT(d) FROM Docente d" : "SELECT d FROM Docente d";
+                if (anio != null) {
+                    return null;
+                }
+            }
+            case "Curso" -> {
+                alias = "c";
+                select = conteo ? "SELECT COUNT(c) FROM Curso c" : "SELECT c FROM Curso c LEFT JOIN FETCH c.docente";
+                if (anio != null) {
+                    agregar(where, "c.anio = " + anio);
+                }
+            }
+            default -> {
+                alias = "m";
+                select = conteo ? "SELECT COUNT(m) FROM Matricula m"
+                        : "SELECT m FROM Matricula m LEFT JOIN FETCH m.estudiante LEFT JOIN FETCH m.curso";
+                if (anio != null) {
+                    agregar(where, "m.anio = " + anio);
+                }
+            }
+        }
+        if (nombre != null) {
+            agregar(where, filtroNombreApellido(alias, nombre, apellido));
+        }
+        return where.length() == 0 ? select : select + " WHERE " + where;
+    }
+
+    private static void agregar(StringBuilder where, String condicion) {
+        if (where.length() > 0) {
+            where.append(" AND ");
+        }
+        where.append(condicion);
+    }
+
+    private static boolean sonNombresPropios(String nombre, String apellido) {
+        return !NO_ES_NOMBRE.matcher(nombre).matches()
+                && (apellido == null || !NO_ES_NOMBRE.matcher(apellido).matches());
+    }
+
+    private static String filtroNombreApellido(String alias, String nombre, String apellido) {
+        String filtro = "LOWER(" + alias + ".nombre) LIKE '%" + nombre + "%'";
+        if (apellido != null) {
+            filtro += " AND LOWER(" + alias + ".apellido) LIKE '%" + apellido + "%'";
+        }
+        return filtro;
+    }
+
+    private static String entidad(String palabra) {
+        if (palabra.matches(ESTUDIANTES)) return "Estudiante";
+        if (palabra.matches(DOCENTES)) return "Docente";
+        if (palabra.matches(CURSOS)) return "Curso";
+        return "Matricula";
+    }
+
+    /**
+     * Dos versiones alineadas carácter a carácter de la pregunta: "plano" sin tildes, usado para
+     * reconocer palabras clave, y "original" con tildes, del que se toman los nombres propios
+     * para que 'María' siga coincidiendo en la base de datos.
+     */
+    private record Texto(String plano, String original) {
+
+        static Texto de(String pregunta) {
+            String nfc = Normalizer.normalize(pregunta, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+            StringBuilder plano = new StringBuilder(nfc.length());
+            StringBuilder original = new StringBuilder(nfc.length());
+            boolean espacioPendiente = false;
+            for (int i = 0; i < nfc.length(); i++) {
+                char c = nfc.charAt(i);
+                if (!Character.isLetterOrDigit(c)) {
+                    espacioPendiente = plano.length() > 0;
+                    continue;
+                }
+                if (espacioPendiente) {
+                    plano.append(' ');
+                    original.append(' ');
+                    espacioPendiente = false;
+                }
+                char base = c == 'ñ' ? c : Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).charAt(0);
+                plano.append(base);
+                original.append(c);
+            }
+            return new Texto(plano.toString(), original.toString());
+        }
+
+        String fragmento(Matcher m, int grupo) {
+            return m.group(grupo) == null ? null : original.substring(m.start(grupo), m.end(grupo));
+        }
+
+        /**
+         * Quita un fragmento de ambas versiones. Los espacios están en las mismas posiciones
+         * en las dos, así que compactarlos las mantiene alineadas.
+         */
+        Texto sin(int inicio, int fin) {
+            return new Texto(compactar(plano.substring(0, inicio) + " " + plano.substring(fin)),
+                    compactar(original.substring(0, inicio) + " " + original.substring(fin)));
+        }
+
+        private static String compactar(String texto) {
+            return texto.replaceAll(" +", " ").trim();
+        }
+    }
+}
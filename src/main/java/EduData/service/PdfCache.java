@@ -0,0 +1,108 @@
+package EduData.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * Cache de PDFs generados, indexada por ETag.
+ *
+ * El ETag se deriva de la versión de los datos en la base, no del contenido del PDF: la columna
+ * @Version de Estudiante y, para el listado, una huella de la tabla (ver
+ * EstudianteRepositorio.versionDatos). Así se puede responder 304 sin volver a generar el
+ * documento, el ETag sobrevive a los reinicios y coincide entre instancias, y cubre los cambios
+ * hechos por cualquier vía. Cuando los datos cambian el ETag cambia, y las entradas viejas dejan
+ * de pedirse y salen al llenarse la cache.
+ */
+@Component
+public class PdfCache {
+
+    private final int maxEntradas;
+    private final int maxBytesEntrada;
+    private final Cache<String, byte[]> entradas;
+
+    public PdfCache(
+            @Value("${edudata.pdf.cache.max-entradas:200}") int maxEntradas,
+            @Value("${edudata.pdf.cache.max-bytes-entrada:5242880}") int maxBytesEntrada) {
+        this.maxEntradas = maxEntradas;
+        this.maxBytesEntrada = maxBytesEntrada;
+        this.entradas = CachesLocales.acotada(maxEntradas, null);
+    }
+
+    /**
+     * ETag del listado completo: el total cambia con las bajas, el id máximo con las altas y la
+     * suma de versiones con las modificaciones.
+     */
+    public String etagListado(long total, Long maxId, Number sumaVersiones) {
+        return "\"l-" + total + "-" + maxId + "-" + sumaVersiones + "\"";
+    }
+
+    public String etagEstudiante(Long id, Long version) {
+        return "\"e-" + id + "-" + version + "\"";
+    }
+
+    public byte[] buscar(String etag) {
+        return entradas.getIfPresent(etag);
+    }
+
+    public void guardar(String etag, byte[] pdf) {
+        if (pdf.length > maxBytesEntrada) {
+            return;
+        }
+        entradas.put(etag, pdf);
+    }
+
+    /**
+     * Envuelve la salida para copiar lo escrito en un buffer acotado. Al cerrar la copia se
+     * guarda en la cache si el documento completo cupo en maxBytesEntrada; así el listado se
+     * sigue enviando en streaming y solo los PDFs pequeños ocupan memoria.
+     */
+    public OutputStream guardarAlEscribir(String etag, OutputStream salida) {
+        return new FilterOutputStream(salida) {
+            private ByteArrayOutputStream copia = new ByteArrayOutputStream();
+
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                copiar(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+                copiar(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                // No se cierra la salida original: pertenece al contenedor
+                flush();
+                if (copia != null) {
+                    guardar(etag, copia.toByteArray());
+                    copia = null;
+                }
+            }
+
+            private void copiar(byte[] b, int off, int len) {
+                if (copia == null) {
+                    return;
+                }
+                if (copia.size() + len > maxBytesEntrada) {
+                    copia = null;
+                    return;
+                }
+                copia.write(b, off, len);
+            }
+        };
+    }
+
+    public Map<String, Object> estadisticas() {
+        return CachesLocales.estadisticas(entradas, maxEntradas);
+    }
+}
@@ -10,10 +10,14 @@ import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.element.Cell;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
@@ -23,11 +27,38 @@ public class PdfService {
 
     private final EstudianteRepositorio estudianteRepositorio;
 
+    private final EntityManager entityManager;
+    private final PdfCache pdfCache;
+
+    @Value("${edudata.pdf.tamanio-lote:500}")
+    private int tamanioLote;
+
+    public String etagListado() {
+        Object[] version = estudianteRepositorio.versionDatos().get(0);
+        return pdfCache.etagListado(((Number) version[0]).longValue(), (Long) version[1], (Number) version[2]);
+    }
+
+    public String etagEstudiante(Long id) {
+        Long version = estudianteRepositorio.buscarVersion(id)
+                .orElseThrow(() -> new RuntimeException("Estudiante no encontrado"));
+        return pdfCache.etagEstudiante(id, version);
+    }
+
     public byte[] generateEstudiantesPdf() throws Exception {
-        List<Estudiante> estudiantes = estudianteRepositorio.findAll();
-        
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        PdfWriter writer = new PdfWriter(baos);
+        escribirEstudiantesPdf(baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Escribe el listado de estudiantes directamente en la salida. Los estudiantes se leen por
+     * lotes (paginación por id) y la tabla se crea en modo "large table" de iText, que envía las
+     * filas ya maquetadas al PDF en cada flush(); así la memoria usada no depende del número de
+     * estudiantes. La salida no se cierra: es responsabilidad de quien la abrió.
+     */
+    public void escribirEstudiantesPdf(OutputStream salida) throws Exception {
+        PdfWriter writer = new PdfWriter(salida);
+        writer.setCloseStream(false);
         PdfDocument pdfDoc = new PdfDocument(writer);
         Document document = new Document(pdfDoc);
 
@@ -44,8 +75,8 @@ public class PdfService {
 
         document.add(new Paragraph("\n"));
 
-        // Crear tabla
-        Table table = new Table(UnitValue.createPercentArray(new float[]{1, 2, 2, 2, 1, 1}));
+        // Crear tabla (largeTable = true: se agrega al documento antes de tener todas las filas)
+        Table table = new Table(UnitValue.createPercentArray(new float[]{1, 2, 2, 2, 1, 1}), true);
         table.setWidth(UnitValue.createPercentValue(100));
 
         // Headers
@@ -56,27 +87,40 @@ public class PdfService {
         table.addHeaderCell(new Cell().add(new Paragraph("Teléfono").setBold()));
         table.addHeaderCell(new Cell().add(new Paragraph("Estado").setBold()));
 
-        // Datos
-        for (Estudiante estudiante : estudiantes) {
-            table.addCell(new Cell().add(new Paragraph(estudiante.getId().toString())));
-            table.addCell(new Cell().add(new Paragraph(estudiante.getIdentificacion() != null ? estudiante.getIdentificacion() : "")));
-            table.addCell(new Cell().add(new Paragraph((estudiante.getNombre() != null ? estudiante.getNombre() : "") + " " + 
-                    (estudiante.getApellido() != null ? estudiante.getApellido() : ""))));
-            table.addCell(new Cell().add(new Paragraph(estudiante.getCorreo() != null ? estudiante.getCorreo() : "")));
-            table.addCell(new Cell().add(new Paragraph(estudiante.getTelefono() != null ? estudiante.getTelefono() : "")));
-            table.addCell(new Cell().add(new Paragraph(estudiante.getEstado() != null ? estudiante.getEstado() : "Activo")));
-        }
-
         document.add(table);
 
+        // Datos, un lote a la vez
+        long total = 0;
+        Long ultimoId = 0L;
+        List<Estudiante> lote;
+        do {
+            lote = estudianteRepositorio.buscarDespuesDeId(ultimoId, PageRequest.of(0, tamanioLote));
+            for (Estudiante estudiante : lote) {
+                table.addCell(new Cell().add(new Paragraph(estudiante.getId().toString())));
+                table.addCell(new Cell().add(new Paragraph(estudiante.getIdentificacion() != null ? estudiante.getIdentificacion() : "")));
+                table.addCell(new Cell().add(new Paragraph((estudiante.getNombre() != null ? estudiante.getNombre() : "") + " " + 
+                        (estudiante.getApellido() != null ? estudiante.getApellido() : ""))));
+                table.addCell(new Cell().add(new Paragraph(estudiante.getCorreo() != null ? estudiante.getCorreo() : "")));
+                table.addCell(new Cell().add(new Paragraph(estudiante.getTelefono() != null ? estudiante.getTelefono() : "")));
+                table.addCell(new Cell().add(new Paragraph(estudiante.getEstado() != null ? estudiante.getEstado() : "Activo")));
+            }
+            if (!lote.isEmpty()) {
+                ultimoId = lote.get(lote.size() - 1).getId();
+                total += lote.size();
+                table.flush();
+                // Con open-in-view el contexto de persistencia vive toda la petición: se libera cada lote
+                entityManager.clear();
+            }
+        } while (lote.size() == tamanioLote);
+
+        table.complete();
+
         // Pie de página
-        document.add(new Paragraph("\n\nTotal de estudiantes: " + estudiantes.size())
+        document.add(new Paragraph("\n\nTotal de estudiantes: " + total)
                 .setTextAlignment(TextAlignment.RIGHT)
                 .setBold());
 
         document.close();
-        
-        return baos.toByteArray();
     }
 
     public byte[] generateEstudiantePdf(Long id) throws Exception {
@@ -0,0 +1,238 @@
+package EduData.service;
+
+import EduData.dto.ReporteJobDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Cola de trabajos de generación de reportes.
+ *
+ * Los reportes se generan en un pool de hilos propio y acotado, fuera de los hilos de Tomcat, y
+ * se escriben en un directorio de spool local. El cliente recibe un id, consulta el estado y
+ * descarga el archivo cuando está listo. Cada usuario puede tener un número limitado de trabajos
+ * pendientes a la vez, y los archivos se borran tras el tiempo de retención (la purga se hace
+ * al encolar un trabajo nuevo).
+ *
+ * Cada instancia escribe en un subdirectorio "instancia-*" que crea al arrancar dentro de
+ * edudata.reportes.directorio y que borra al parar. Si el proceso muere sin parar, su
+ * subdirectorio queda huérfano: las demás instancias no lo tocan, porque no pueden distinguirlo
+ * del de una réplica viva que comparte el volumen.
+ */
+@Service
+@Slf4j
+public class ReporteJobServicio {
+
+    // <uuid> o <uuid>.part: los únicos nombres que crea generar()
+    private static final Pattern ARCHIVO_PROPIO = Pattern.compile("[0-9a-f]{8}(-[0-9a-f]{4}){3}-[0-9a-f]{12}(\\.part)?");
+
+    public enum Estado {
+        EN_COLA, PROCESANDO, COMPLETADO, ERROR
+    }
+
+    /**
+     * Escribe el contenido del reporte en la salida indicada.
+     */
+    @FunctionalInterface
+    public interface Generador {
+        void escribir(OutputStream salida) throws Exception;
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final Path directorio;
+    private final int maxPorUsuario;
+    private final long retencionMs;
+    private final Map<String, Trabajo> trabajos = new ConcurrentHashMap<>();
+
+    public ReporteJobServicio(
+            @Value("${edudata.reportes.hilos:2}") int hilos,
+            @Value("${edudata.reportes.max-en-cola:50}") int maxEnCola,
+            @Value("${edudata.reportes.max-por-usuario:2}") int maxPorUsuario,
+            @Value("${edudata.reportes.retencion-minutos:60}") long retencionMinutos,
+            @Value("${edudata.reportes.directorio:${java.io.tmpdir}/edudata-reportes}") String directorio) throws IOException {
+        this.maxPorUsuario = maxPorUsuario;
+        this.retencionMs = retencionMinutos * 60_000L;
+        // Subdirectorio propio de esta instancia: el directorio configurado puede ser compartido
+        // (/tmp, o un volumen de varias réplicas) y aquí nunca se borra nada que no sea nuestro
+        this.directorio = Files.createTempDirectory(Files.createDirectories(Paths.get(directorio)), "instancia-");
+
+        AtomicInteger contador = new AtomicInteger();
+        // AbortPolicy: con la cola llena se rechaza el trabajo en lugar de bloquear al hilo HTTP
+        this.executor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxEnCola),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "reportes-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Encola un reporte.
+     *
+     * @throws IllegalStateException si el usuario ya tiene el máximo de trabajos pendientes
+     * @throws RejectedExecutionException si la cola global está llena
+     */
+    public ReporteJobDTO enviar(String usuario, String tipo, String nombreArchivo, Generador generador) {
+        purgarVencidos();
+
+        Trabajo trabajo = new Trabajo(UUID.randomUUID().toString(), usuario, tipo, nombreArchivo);
+        // El conteo y el alta son atómicos para que dos peticiones simultáneas no superen el límite
+        synchronized (trabajos) {
+            long pendientes = trabajos.values().stream()
+                    .filter(t -> t.usuario.equals(usuario))
+                    .filter(t -> t.estado == Estado.EN_COLA || t.estado == Estado.PROCESANDO)
+                    .count();
+            if (pendientes >= maxPorUsuario) {
+                throw new IllegalStateException("Ya tiene " + pendientes + " reportes en proceso. Espere a que terminen.");
+            }
+            trabajos.put(trabajo.id, trabajo);
+        }
+
+        try {
+            executor.execute(() -> generar(trabajo, generador));
+        } catch (RejectedExecutionException e) {
+            trabajos.remove(trabajo.id);
+            throw e;
+        }
+        log.info("Reporte {} ({}) encolado para {}", trabajo.id, tipo, usuario);
+        return trabajo.aDto();
+    }
+
+    /**
+     * Devuelve el estado del trabajo si existe y pertenece al usuario.
+     */
+    public Optional<ReporteJobDTO> consultar(String id, String usuario) {
+        return buscar(id, usuario).map(Trabajo::aDto);
+    }
+
+    /**
+     * Devuelve el archivo generado si el trabajo está completado y pertenece al usuario.
+     */
+    public Optional<Path> archivo(String id, String usuario) {
+        return buscar(id, usuario)
+                .filter(t -> t.estado == Estado.COMPLETADO)
+                .map(t -> t.archivo);
+    }
+
+    public Map<String, Object> estadisticas() {
+        return Map.of(
+                "activos", executor.getActiveCount(),
+                "enCola", executor.getQueue().size(),
+                "hilos", executor.getMaximumPoolSize(),
+                "completados", executor.getCompletedTaskCount(),
+                "trabajosRegistrados", trabajos.size()
+        );
+    }
+
+    @PreDestroy
+    void detener() {
+        executor.shutdownNow();
+        // Los trabajos viven en memoria: al parar, sus archivos ya no se pueden descargar
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            archivos.filter(archivo -> ARCHIVO_PROPIO.matcher(archivo.getFileName().toString()).matches())
+                    .forEach(this::borrar);
+        } catch (IOException e) {
+            log.warn("No se pudo listar {}: {}", directorio, e.getMessage());
+        }
+        borrar(directorio);
+    }
+
+    private Optional<Trabajo> buscar(String id, String usuario) {
+        Trabajo trabajo = trabajos.get(id);
+        if (trabajo == null || !trabajo.usuario.equals(usuario)) {
+            return Optional.empty();
+        }
+        return Optional.of(trabajo);
+    }
+
+    private void generar(Trabajo trabajo, Generador generador) {
+        trabajo.estado = Estado.PROCESANDO;
+        Path parcial = directorio.resolve(trabajo.id + ".part");
+        Path destino = directorio.resolve(trabajo.id);
+        try {
+            try (OutputStream salida = new BufferedOutputStream(Files.newOutputStream(parcial))) {
+                generador.escribir(salida);
+            }
+            // El archivo solo es visible para la descarga cuando está completo
+            Files.move(parcial, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            trabajo.archivo = destino;
+            trabajo.estado = Estado.COMPLETADO;
+            log.info("Reporte {} generado ({} bytes)", trabajo.id, Files.size(destino));
+        } catch (Exception e) {
+            log.error("Error generando el reporte {}: ", trabajo.id, e);
+            borrar(parcial);
+            trabajo.error = e.getMessage();
+            trabajo.estado = Estado.ERROR;
+        } finally {
+            trabajo.terminado = LocalDateTime.now();
+        }
+    }
+
+    private void purgarVencidos() {
+        LocalDateTime limite = LocalDateTime.now().minus(Duration.ofMillis(retencionMs));
+        trabajos.values().removeIf(t -> {
+            if (t.terminado != null && t.terminado.isBefore(limite)) {
+                if (t.archivo != null) {
+                    borrar(t.archivo);
+                }
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void borrar(Path archivo) {
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            log.warn("No se pudo borrar {}: {}", archivo, e.getMessage());
+        }
+    }
+
+    private static final class Trabajo {
+        private final String id;
+        private final String usuario;
+        private final String tipo;
+        private final String nombreArchivo;
+        private final LocalDateTime creado = LocalDateTime.now();
+        private volatile Estado estado = Estado.EN_COLA;
+        private volatile LocalDateTime terminado;
+        private volatile String error;
+        private volatile Path archivo;
+
+        private Trabajo(String id, String usuario, String tipo, String nombreArchivo) {
+            this.id = id;
+            this.usuario = usuario;
+            this.tipo = tipo;
+            this.nombreArchivo = nombreArchivo;
+        }
+
+        private ReporteJobDTO aDto() {
+            return new ReporteJobDTO(id, tipo, estado.name(), creado, terminado, error, nombreArchivo);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package EduData.service;
+
+import EduData.dto.ResumenCalificacionDTO;
+import EduData.entity.ResumenCalificacion;
+import EduData.repository.CalificacionRepositorio;
+import EduData.repository.ResumenCalificacionRepositorio;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.query.NativeQuery;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Mantiene la tabla ResumenCalificacion (cantidad, suma, mínimo y máximo por matrícula).
+ *
+ * CalificacionServicio llama a registrarAlta/registrarBaja dentro de su propia transacción, de
+ * modo que el resumen nunca queda desfasado de las calificaciones. Los promedios de una
+ * matrícula, un curso o un estudiante se leen del resumen sin recorrer las calificaciones.
+ * Las calificaciones insertadas por otras vías (carga de datos, SQL directo) se incorporan con
+ * reconstruir().
+ */
+@Service
+@Slf4j
+public class ResumenCalificacionServicio {
+
+    private final ResumenCalificacionRepositorio resumenRepositorio;
+    private final CalificacionRepositorio calificacionRepositorio;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transaccion;
+
+    public ResumenCalificacionServicio(ResumenCalificacionRepositorio resumenRepositorio,
+                                       CalificacionRepositorio calificacionRepositorio,
+                                       EntityManager entityManager,
+                                       PlatformTransactionManager transactionManager) {
+        this.resumenRepositorio = resumenRepositorio;
+        this.calificacionRepositorio = calificacionRepositorio;
+        this.entityManager = entityManager;
+        this.transaccion = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Suma una nota al resumen de la matrícula. Debe llamarse dentro de una transacción.
+     */
+    public void registrarAlta(Long matriculaId, Double valor) {
+        if (matriculaId == null || valor == null) {
+            return;
+        }
+        resumenRepositorio.acumular(matriculaId, valor, LocalDateTime.now());
+    }
+
+    /**
+     * Resta una nota del resumen de la matrícula. Debe llamarse dentro de una transacción y
+     * después de borrar o modificar la calificación, para que el recálculo de extremos no la vea.
+     */
+    public void registrarBaja(Long matriculaId, Double valor) {
+        if (matriculaId == null || valor == null) {
+            return;
+        }
+        resumenRepositorio.restar(matriculaId, valor, LocalDateTime.now());
+        resumenRepositorio.recalcularExtremos(matriculaId, valor);
+    }
+
+    public Optional<ResumenCalificacionDTO> porMatricula(Long matriculaId) {
+        return resumenRepositorio.findById(matriculaId)
+                .map(r -> new ResumenCalificacionDTO(r.getMatriculaId(), r.getCantidad(),
+                        promedio(r.getSuma(), r.getCantidad()), r.getMinimo(), r.getMaximo(), r.getActualizado()));
+    }
+
+    public ResumenCalificacionDTO porCurso(Long cursoId) {
+        return desdeTotales(cursoId, resumenRepositorio.totalesPorCurso(cursoId));
+    }
+
+    public ResumenCalificacionDTO porEstudiante(Long estudianteId) {
+        return desdeTotales(estudianteId, resumenRepositorio.totalesPorEstudiante(estudianteId));
+    }
+
+    /**
+     * Vuelve a calcular el resumen completo desde las calificaciones con un INSERT ... SELECT agrupado.
+     *
+     * Puede ejecutarse con la API en marcha: la tabla se bloquea en modo EXCLUSIVE antes de borrarla,
+     * así que las altas y bajas concurrentes esperan al commit (las lecturas siguen). Una transacción
+     * que ya tocó el resumen termina antes de obtener el bloqueo y su calificación entra en el
+     * SELECT; una que aún no lo tocó aplica su cambio sobre el resumen reconstruido.
+     *
+     * @return número de matrículas con resumen
+     */
+    public int reconstruir() {
+        long inicio = System.currentTimeMillis();
+        Integer filas = transaccion.execute(status -> {
+            entityManager.createNativeQuery("LOCK TABLE resumen_calificacion IN EXCLUSIVE MODE")
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedEntityClass(ResumenCalificacion.class)
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM ResumenCalificacion").executeUpdate();
+            return entityManager.createQuery(
+                    "INSERT INTO ResumenCalificacion (matriculaId, cantidad, suma, minimo, maximo, actualizado) " +
+                    "SELECT c.matricula.id, COUNT(c.valor), SUM(c.valor), MIN(c.valor), MAX(c.valor), LOCAL DATETIME " +
+                    "FROM Calificacion c WHERE c.valor IS NOT NULL GROUP BY c.matricula.id")
+                    .executeUpdate();
+        });
+        log.info("Resumen de calificaciones reconstruido: {} matrículas en {} ms",
+                filas, System.currentTimeMillis() - inicio);
+        return filas != null ? filas : 0;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void reconstruirSiFalta() {
+        // Primera ejecución con la tabla nueva: se rellena a partir de las calificaciones existentes
+        if (resumenRepositorio.count() == 0 && calificacionRepositorio.count() > 0) {
+            reconstruir();
+        }
+    }
+
+    private ResumenCalificacionDTO desdeTotales(Long id, List<Object[]> resultado) {
+        Object[] fila = resultado.get(0);
+        long cantidad = ((Number) fila[0]).longValue();
+        Double suma = fila[1] != null ? ((Number) fila[1]).doubleValue() : null;
+        return new ResumenCalificacionDTO(id, cantidad, promedio(suma, cantidad),
+                (Double) fila[2], (Double) fila[3], (LocalDateTime) fila[4]);
+    }
+
+    private static Double promedio(Double suma, Long cantidad) {
+        if (suma == null || cantidad == null || cantidad == 0) {
+            return null;
+        }
+        return Math.round(suma / cantidad * 100.0) / 100.0;
+    }
+}
@@ -1,5 +1,6 @@
 package EduData.service;
 
+import EduData.config.CacheAplicacionConfig;
 import EduData.entity.Curso;
 import EduData.entity.Docente;
 import EduData.entity.Estudiante;
@@ -10,10 +11,12 @@ import EduData.repository.EstudianteRepositorio;
 import EduData.repository.MatriculaRepositorio;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -26,6 +29,8 @@ public class SampleDataService {
     private final CursoRepositorio cursoRepositorio;
     private final MatriculaRepositorio matriculaRepositorio;
 
+    // Los docentes y cursos se guardan con los repositorios: los listados cacheados no se enteran
+    @CacheEvict(cacheNames = CacheAplicacionConfig.LISTADOS, allEntries = true)
     @Transactional
     public void inicializarDatosPrueba() {
         try {
@@ -214,7 +219,8 @@ public class SampleDataService {
                 return;
             }
             
-            // Matricular estudiantes en cursos
+            // Matricular estudiantes en cursos; saveAll deja que Hibernate las inserte en lotes
+            List<Matricula> matriculas = new ArrayList<>();
             for (int i = 0; i < estudiantes.size(); i++) {
                 Estudiante estudiante = estudiantes.get(i);
                 
@@ -228,9 +234,10 @@ public class SampleDataService {
                     matricula.setAnio(2024);
                     matricula.setEstudiante(estudiante);
                     matricula.setCurso(curso);
-                    matriculaRepositorio.save(matricula);
+                    matriculas.add(matricula);
                 }
             }
+            matriculaRepositorio.saveAll(matriculas);
             
             log.info("Matrículas creadas: {}", matriculaRepositorio.count());
         }
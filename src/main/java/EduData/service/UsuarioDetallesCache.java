@@ -0,0 +1,76 @@
+package EduData.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache de usuarios autenticados para JwtAuthenticationFilter.
+ *
+ * Cada petición con JWT necesita el UserDetails del usuario; sin esta cache eso es una consulta
+ * a la tabla de usuarios por petición. Es una cache acotada con un TTL corto, de modo que un cambio
+ * de rol o de estado se aplica como mucho tras ttl-segundos aunque nadie invalide la entrada.
+ * El login sigue usando UserDetailsServiceImpl directamente para validar siempre la contraseña
+ * contra la base de datos.
+ */
+@Service
+public class UsuarioDetallesCache implements UserDetailsService {
+
+    private final UserDetailsServiceImpl delegado;
+    private final int maxEntradas;
+    private final long ttlSegundos;
+    private final Cache<String, UserDetails> entradas;
+    private final AtomicLong invalidaciones = new AtomicLong();
+
+    public UsuarioDetallesCache(
+            UserDetailsServiceImpl delegado,
+            @Value("${edudata.auth.cache.max-entradas:1000}") int maxEntradas,
+            @Value("${edudata.auth.cache.ttl-segundos:60}") long ttlSegundos) {
+        this.delegado = delegado;
+        this.maxEntradas = maxEntradas;
+        this.ttlSegundos = ttlSegundos;
+        this.entradas = CachesLocales.acotada(maxEntradas, Duration.ofSeconds(ttlSegundos));
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        UserDetails usuario = entradas.getIfPresent(username);
+        if (usuario == null) {
+            // Se consulta fuera de la cache: get(clave, función) haría la consulta dentro de un
+            // bloque synchronized, que con hilos virtuales fija el hilo portador. Los usuarios
+            // inexistentes no se guardan: la excepción se propaga igual que antes
+            usuario = delegado.loadUserByUsername(username);
+            entradas.put(username, usuario);
+        }
+        return usuario;
+    }
+
+    /**
+     * Descarta el usuario de la cache. Debe llamarse al eliminar un usuario o cambiar su rol,
+     * contraseña o estado para que la siguiente petición lo vuelva a leer de la base de datos.
+     */
+    public void invalidar(String username) {
+        if (entradas.asMap().remove(username) != null) {
+            invalidaciones.incrementAndGet();
+        }
+    }
+
+    public void invalidarTodo() {
+        invalidaciones.addAndGet(entradas.estimatedSize());
+        entradas.invalidateAll();
+    }
+
+    public Map<String, Object> estadisticas() {
+        Map<String, Object> stats = CachesLocales.estadisticas(entradas, maxEntradas);
+        stats.put("invalidaciones", invalidaciones.get());
+        stats.put("ttlSegundos", ttlSegundos);
+        return stats;
+    }
+}
@@ -0,0 +1,116 @@
+package EduData.repository;
+
+import EduData.entity.Estudiante;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Planes de PostgreSQL de las consultas keyset de estudiantes y de la búsqueda de matrículas por
+ * curso: cada una debe recorrer su índice, y las keyset además sin ordenar aparte. El SQL equivale al
+ * que genera Hibernate para las consultas de EstudianteRepositorio, con los parámetros en línea.
+ *
+ * Necesita Docker; sin él las pruebas se omiten.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class EstudianteRepositorioPlanTest {
+
+    private static final int ESTUDIANTES = 20_000;
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EstudianteRepositorio repositorio;
+
+    @BeforeEach
+    void cargarDatos() {
+        // Uno de cada 100 estudiantes sin apellido y uno de cada 50 sin año de matrícula
+        jdbcTemplate.update(
+                "INSERT INTO estudiante (id, identificacion, nombre, apellido, matricula_anio) " +
+                "SELECT g, 'E' || g, 'Nombre ' || g, " +
+                "CASE WHEN g % 100 = 0 THEN NULL ELSE 'Apellido ' || lpad((g % 5000)::text, 4, '0') END, " +
+                "CASE WHEN g % 50 = 0 THEN NULL ELSE 2000 + g % 25 END " +
+                "FROM generate_series(1, ?) g", ESTUDIANTES);
+        jdbcTemplate.update("INSERT INTO curso (id, nombre, codigo) " +
+                "SELECT g, 'Curso ' || g, 'C' || g FROM generate_series(1, 200) g");
+        jdbcTemplate.update("INSERT INTO matricula (id, estudiante_id, curso_id, anio) " +
+                "SELECT g, g, g % 200 + 1, 2024 FROM generate_series(1, ?) g", ESTUDIANTES);
+        jdbcTemplate.execute("ANALYZE estudiante");
+        jdbcTemplate.execute("ANALYZE curso");
+        jdbcTemplate.execute("ANALYZE matricula");
+    }
+
+    @Test
+    void paginaPorIdConLaClavePrimaria() {
+        String plan = plan("SELECT * FROM estudiante e WHERE e.id > 10000 ORDER BY e.id ASC LIMIT 21");
+
+        assertThat(plan).containsPattern("Index (Only )?Scan using estudiante_pkey").doesNotContain("Sort");
+    }
+
+    @Test
+    void paginaPorApellidoConElIndiceApellidoId() {
+        String plan = plan("SELECT * FROM estudiante e WHERE (e.apellido, e.id) > ('Apellido 2500', 0) " +
+                "ORDER BY e.apellido ASC, e.id ASC LIMIT 21");
+
+        assertThat(plan).containsPattern("Index (Only )?Scan using idx_estudiante_apellido_id").doesNotContain("Sort");
+    }
+
+    @Test
+    void paginaLosApellidosNulosConElMismoIndice() {
+        String plan = plan("SELECT * FROM estudiante e WHERE e.apellido IS NULL AND e.id > 5000 " +
+                "ORDER BY e.apellido ASC, e.id ASC LIMIT 21");
+
+        assertThat(plan).containsPattern("Index (Only )?Scan using idx_estudiante_apellido_id").doesNotContain("Sort");
+    }
+
+    @Test
+    void paginaPorAnioConElIndiceAnioId() {
+        String plan = plan("SELECT * FROM estudiante e WHERE (e.matricula_anio, e.id) > (2012, 0) " +
+                "ORDER BY e.matricula_anio ASC, e.id ASC LIMIT 21");
+
+        assertThat(plan).containsPattern("Index (Only )?Scan using idx_estudiante_matricula_anio").doesNotContain("Sort");
+    }
+
+    @Test
+    void buscaMatriculasDeUnCursoPorSuIndice() {
+        String plan = plan("SELECT * FROM matricula m WHERE m.curso_id = 7");
+
+        assertThat(plan).containsPattern("(Index (Only )?Scan using|Bitmap Index Scan on) idx_matricula_curso");
+    }
+
+    @Test
+    void lasConsultasKeysetDevuelvenLasFilasEnOrdenYLosNulosAlFinal() {
+        List<Estudiante> conApellido = repositorio.buscarDespuesDeApellido("Apellido 4999", 0L, PageRequest.of(0, 50));
+        List<Estudiante> sinApellido = repositorio.buscarSinApellidoDespuesDeId(0L, PageRequest.of(0, 50));
+
+        assertThat(conApellido).isNotEmpty().allSatisfy(e -> assertThat(e.getApellido()).isGreaterThanOrEqualTo("Apellido 4999"));
+        assertThat(conApellido).isSortedAccordingTo(Comparator.comparing(Estudiante::getApellido)
+                .thenComparing(Estudiante::getId));
+        assertThat(sinApellido).hasSize(50).allSatisfy(e -> assertThat(e.getApellido()).isNull());
+        assertThat(sinApellido).isSortedAccordingTo(Comparator.comparing(Estudiante::getId));
+    }
+
+    private String plan(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+}
@@ -0,0 +1,136 @@
+package EduData.repository;
+
+import EduData.config.PersistenciaConfig;
+import EduData.entity.Curso;
+import EduData.entity.Estudiante;
+import EduData.entity.Matricula;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inserción de 100.000 matrículas en PostgreSQL sin y con lotes JDBC.
+ *
+ * "Sin lotes" fija el tamaño de lote de la sesión en 1: un INSERT y un viaje a la base por fila,
+ * como ocurría con los ids IDENTITY (que además devolvían el id generado en cada INSERT, así que la
+ * cifra real de antes era algo peor). "Con lotes" usa el tamaño configurado en PersistenciaConfig.
+ * En ambos casos los ids salen de la secuencia pooled y el contexto se vacía cada tamanio-lote filas.
+ *
+ * Necesita Docker y se ejecuta con el perfil benchmark:
+ * mvn -Pbenchmark test -Dtest=InsercionLotesBenchmark
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PersistenciaConfig.class)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Tag("benchmark")
+@Slf4j
+class InsercionLotesBenchmark {
+
+    private static final int ESTUDIANTES = 1000;
+    private static final int CURSOS = 100;
+    private static final int MATRICULAS = ESTUDIANTES * CURSOS;
+    private static final int CALENTAMIENTO = 10_000;
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${edudata.jpa.tamanio-lote:50}")
+    private int tamanioLote;
+
+    @Test
+    void insertarCienMilMatriculas() {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        List<Long> estudiantes = new ArrayList<>(ESTUDIANTES);
+        List<Long> cursos = new ArrayList<>(CURSOS);
+        transaccion.executeWithoutResult(status -> {
+            for (int i = 0; i < ESTUDIANTES; i++) {
+                Estudiante estudiante = new Estudiante();
+                estudiante.setIdentificacion("E" + i);
+                estudiante.setNombre("Nombre " + i);
+                estudiante.setApellido("Apellido " + i);
+                entityManager.persist(estudiante);
+                estudiantes.add(estudiante.getId());
+            }
+            for (int i = 0; i < CURSOS; i++) {
+                Curso curso = new Curso();
+                curso.setNombre("Curso " + i);
+                curso.setCodigo("C" + i);
+                entityManager.persist(curso);
+                cursos.add(curso.getId());
+            }
+        });
+
+        // Calentamiento de la JVM y del pool de conexiones con ambas variantes
+        insertar(transaccion, estudiantes, cursos, CALENTAMIENTO, 1);
+        insertar(transaccion, estudiantes, cursos, CALENTAMIENTO, tamanioLote);
+
+        long sinLotes = insertar(transaccion, estudiantes, cursos, MATRICULAS, 1);
+        long conLotes = insertar(transaccion, estudiantes, cursos, MATRICULAS, tamanioLote);
+
+        log.info("{} matrículas sin lotes: {} ms ({} filas/s)", MATRICULAS, sinLotes, MATRICULAS * 1000L / sinLotes);
+        log.info("{} matrículas en lotes de {}: {} ms ({} filas/s)", MATRICULAS, tamanioLote, conLotes,
+                MATRICULAS * 1000L / conLotes);
+        assertThat(conLotes).isLessThan(sinLotes);
+    }
+
+    /**
+     * Inserta y confirma n matrículas con el tamaño de lote indicado, y las borra después.
+     *
+     * @return milisegundos de la inserción y el commit
+     */
+    private long insertar(TransactionTemplate transaccion, List<Long> estudiantes, List<Long> cursos,
+                          int n, int lote) {
+        long inicio = System.nanoTime();
+        transaccion.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(lote);
+            for (int i = 0; i < n; i++) {
+                Matricula matricula = new Matricula();
+                matricula.setAnio(2024);
+                matricula.setEstudiante(entityManager.getReference(Estudiante.class, estudiantes.get(i % ESTUDIANTES)));
+                matricula.setCurso(entityManager.getReference(Curso.class, cursos.get(i / ESTUDIANTES)));
+                entityManager.persist(matricula);
+                if ((i + 1) % tamanioLote == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+        long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+
+        transaccion.executeWithoutResult(status -> {
+            assertThat(entityManager.createQuery("SELECT COUNT(m) FROM Matricula m", Long.class).getSingleResult())
+                    .isEqualTo(n);
+            entityManager.createQuery("DELETE FROM Matricula").executeUpdate();
+        });
+        return Math.max(1, milisegundos);
+    }
+}
@@ -0,0 +1,82 @@
+package EduData.service;
+
+import EduData.dto.AgregadoNotaDTO;
+import EduData.dto.PromedioDTO;
+import EduData.repository.CalificacionRepositorio;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AnaliticaCalificacionesServicioTest {
+
+    // Un examen de 1.0 y diez quices de 5.0
+    private static final List<AgregadoNotaDTO> FILAS = List.of(
+            new AgregadoNotaDTO(1L, "Ana", "Examen", 1.0, 1L, 1.0, 1.0),
+            new AgregadoNotaDTO(1L, "Ana", "Quiz", 50.0, 10L, 5.0, 5.0));
+
+    @Test
+    void ponderaElPromedioDeCadaTipoYNoCadaNota() {
+        PromedioDTO promedio = servicio("examen=0.5,quiz=0.2", FILAS).promediosPorEstudiante(null).get(0);
+
+        // (0.5 · 1.0 + 0.2 · 5.0) / 0.7
+        assertThat(promedio.getPromedio()).isEqualTo(2.14);
+        assertThat(promedio.getCantidad()).isEqualTo(11L);
+        assertThat(promedio.getAprobado()).isFalse();
+    }
+
+    @Test
+    void sinPesosEsElPromedioSimpleDeLasNotas() {
+        PromedioDTO promedio = servicio("", FILAS).promediosPorEstudiante(null).get(0);
+
+        assertThat(promedio.getPromedio()).isEqualTo(4.64);
+        assertThat(promedio.getPromedioPorTipo()).containsEntry("Examen", 1.0).containsEntry("Quiz", 5.0);
+    }
+
+    @Test
+    void soloCuentanLosTiposPresentesYLosNoListadosPesanUno() {
+        List<AgregadoNotaDTO> filas = List.of(
+                new AgregadoNotaDTO(1L, "Ana", "quiz", 8.0, 2L, 4.0, 4.0),
+                new AgregadoNotaDTO(1L, "Ana", "Taller", 2.0, 1L, 2.0, 2.0));
+
+        PromedioDTO promedio = servicio("examen=0.5,quiz=0.2", filas).promediosPorEstudiante(null).get(0);
+
+        // (0.2 · 4.0 + 1 · 2.0) / 1.2; el examen ausente no entra en el denominador
+        assertThat(promedio.getPromedio()).isEqualTo(2.33);
+    }
+
+    @Test
+    void unTipoEscritoConDistintasMayusculasEsUnSoloTipo() {
+        List<AgregadoNotaDTO> filas = List.of(
+                new AgregadoNotaDTO(1L, "Ana", "Examen", 2.0, 1L, 2.0, 2.0),
+                new AgregadoNotaDTO(1L, "Ana", "examen", 4.0, 1L, 4.0, 4.0),
+                new AgregadoNotaDTO(1L, "Ana", "Quiz", 5.0, 1L, 5.0, 5.0));
+
+        PromedioDTO promedio = servicio("examen=0.5,quiz=0.5", filas).promediosPorEstudiante(null).get(0);
+
+        assertThat(promedio.getPromedio()).isEqualTo(4.0);
+        assertThat(promedio.getPromedioPorTipo()).containsOnly(entry("Examen", 3.0), entry("Quiz", 5.0));
+    }
+
+    @Test
+    void elPromedioDeNotasSueltasUsaLosMismosPesos() {
+        List<AgregadoNotaDTO> notas = List.of(
+                new AgregadoNotaDTO(null, null, "Examen", 2.0, 1L, 2.0, 2.0),
+                new AgregadoNotaDTO(null, null, "Quiz", 5.0, 1L, 5.0, 5.0),
+                new AgregadoNotaDTO(null, null, "Quiz", 5.0, 1L, 5.0, 5.0));
+
+        assertThat(servicio("examen=0.5,quiz=0.5", List.of()).promedio(notas)).isEqualTo(3.5);
+        assertThat(servicio("", List.of()).promedio(notas)).isEqualTo(4.0);
+        assertThat(servicio("", List.of()).promedio(List.of())).isNull();
+    }
+
+    private static AnaliticaCalificacionesServicio servicio(String pesos, List<AgregadoNotaDTO> filas) {
+        CalificacionRepositorio repositorio = mock(CalificacionRepositorio.class);
+        when(repositorio.agregarPorEstudiante(null)).thenReturn(filas);
+        return new AnaliticaCalificacionesServicio(repositorio, pesos, 3.0);
+    }
+}
@@ -0,0 +1,151 @@
+package EduData.service;
+
+import EduData.dto.ResumenAsistenciaDTO;
+import EduData.entity.AsistenciaBitmap;
+import EduData.repository.AsistenciaBitmapRepositorio;
+import EduData.repository.AsistenciaRepositorio;
+import EduData.service.AsistenciaBitmapServicio.Periodo;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AsistenciaBitmapServicioTest {
+
+    @Test
+    void elTreintaDeJunioEsElUltimoDiaDelPrimerSemestre() {
+        LocalDate junio30 = LocalDate.of(2024, 6, 30);
+        LocalDate julio1 = LocalDate.of(2024, 7, 1);
+
+        assertThat(Periodo.de(junio30)).isEqualTo(new Periodo(2024, 1));
+        assertThat(Periodo.de(junio30).indice(junio30)).isEqualTo(181);
+        assertThat(Periodo.de(julio1)).isEqualTo(new Periodo(2024, 2));
+        assertThat(Periodo.de(julio1).indice(julio1)).isZero();
+        assertThat(Periodo.de(LocalDate.of(2024, 12, 31)).indice(LocalDate.of(2024, 12, 31))).isEqualTo(183);
+    }
+
+    @Test
+    void losDiasSinRegistroNoCortanLasRachas() {
+        // Lunes ausente, jueves ausente, sábado presente: martes, miércoles y viernes sin clase
+        AsistenciaBitmap bitmap = bitmap(dias(0, 3, 5), dias(5));
+
+        ResumenAsistenciaDTO resumen = AsistenciaBitmapServicio.resumir(bitmap);
+
+        assertThat(resumen.getDiasRegistrados()).isEqualTo(3);
+        assertThat(resumen.getDiasPresente()).isEqualTo(1);
+        assertThat(resumen.getRachaAusenciasMaxima()).isEqualTo(2);
+        assertThat(resumen.getRachaAusenciasActual()).isZero();
+        assertThat(resumen.getRachaAsistenciaMaxima()).isEqualTo(1);
+    }
+
+    @Test
+    void lasAusenciasAlFinalDelSemestreSonLaRachaActual() {
+        AsistenciaBitmap bitmap = bitmap(dias(0, 1, 2, 179, 180, 181), dias(0, 1, 2));
+
+        ResumenAsistenciaDTO resumen = AsistenciaBitmapServicio.resumir(bitmap);
+
+        assertThat(resumen.getRachaAusenciasActual()).isEqualTo(3);
+        assertThat(resumen.getRachaAusenciasMaxima()).isEqualTo(3);
+        assertThat(resumen.getRachaAsistenciaMaxima()).isEqualTo(3);
+        assertThat(resumen.getTasaAsistencia()).isEqualTo(0.5);
+    }
+
+    @Test
+    void unPresenteSinDiaRegistradoNoCuenta() {
+        AsistenciaBitmap bitmap = bitmap(dias(1), dias(0, 1));
+
+        ResumenAsistenciaDTO resumen = AsistenciaBitmapServicio.resumir(bitmap);
+
+        assertThat(resumen.getDiasRegistrados()).isEqualTo(1);
+        assertThat(resumen.getDiasPresente()).isEqualTo(1);
+        assertThat(resumen.getTasaAsistencia()).isEqualTo(1.0);
+    }
+
+    @Test
+    void sinDiasRegistradosNoHayTasa() {
+        ResumenAsistenciaDTO resumen = AsistenciaBitmapServicio.resumir(bitmap(null, null));
+
+        assertThat(resumen.getDiasRegistrados()).isZero();
+        assertThat(resumen.getTasaAsistencia()).isNull();
+        assertThat(resumen.getRachaAusenciasActual()).isZero();
+    }
+
+    @Test
+    void migrarSeparaLosSemestresYGuardaPorLotes() {
+        AsistenciaBitmapRepositorio bitmapRepositorio = mock(AsistenciaBitmapRepositorio.class);
+        AsistenciaRepositorio asistenciaRepositorio = mock(AsistenciaRepositorio.class);
+        EntityManager entityManager = mock(EntityManager.class);
+        List<AsistenciaBitmap> guardados = new ArrayList<>();
+        // El lote se vacía después de guardarlo: se copia en el momento de la llamada
+        doAnswer(invocacion -> {
+            invocacion.<Iterable<AsistenciaBitmap>>getArgument(0).forEach(guardados::add);
+            return null;
+        }).when(bitmapRepositorio).saveAll(any());
+        when(asistenciaRepositorio.recorrerParaMigracion()).thenReturn(Stream.of(
+                fila(1L, LocalDate.of(2024, 6, 28), true),
+                fila(1L, LocalDate.of(2024, 6, 30), false),
+                fila(1L, LocalDate.of(2024, 7, 1), true),
+                fila(1L, LocalDate.of(2024, 7, 2), null),
+                fila(2L, LocalDate.of(2024, 7, 1), false)));
+        AsistenciaBitmapServicio servicio = new AsistenciaBitmapServicio(bitmapRepositorio, asistenciaRepositorio,
+                entityManager, mock(PlatformTransactionManager.class), 2);
+
+        Map<String, Object> resultado = servicio.migrar();
+
+        assertThat(resultado).containsEntry("filasLeidas", 5L).containsEntry("mapas", 3L);
+        verify(bitmapRepositorio).borrarTodos();
+        verify(entityManager, times(2)).flush();
+        assertThat(guardados).hasSize(3);
+
+        AsistenciaBitmap primerSemestre = guardados.get(0);
+        assertThat(primerSemestre.getMatriculaId()).isEqualTo(1L);
+        assertThat(primerSemestre.getPeriodo()).isEqualTo(1);
+        assertThat(BitSet.valueOf(primerSemestre.getRegistrados())).isEqualTo(dias(179, 181));
+        assertThat(BitSet.valueOf(primerSemestre.getPresentes())).isEqualTo(dias(179));
+
+        AsistenciaBitmap segundoSemestre = guardados.get(1);
+        assertThat(segundoSemestre.getMatriculaId()).isEqualTo(1L);
+        assertThat(segundoSemestre.getPeriodo()).isEqualTo(2);
+        // El 2 de julio no tiene valor de presencia: queda sin registrar
+        assertThat(BitSet.valueOf(segundoSemestre.getRegistrados())).isEqualTo(dias(0));
+        assertThat(BitSet.valueOf(segundoSemestre.getPresentes())).isEqualTo(dias(0));
+
+        AsistenciaBitmap otraMatricula = guardados.get(2);
+        assertThat(otraMatricula.getMatriculaId()).isEqualTo(2L);
+        assertThat(BitSet.valueOf(otraMatricula.getRegistrados())).isEqualTo(dias(0));
+        assertThat(BitSet.valueOf(otraMatricula.getPresentes())).isEmpty();
+    }
+
+    private static AsistenciaBitmap bitmap(BitSet registrados, BitSet presentes) {
+        return new AsistenciaBitmap(1L, 1L, 2024, 1,
+                registrados != null ? registrados.toByteArray() : null,
+                presentes != null ? presentes.toByteArray() : null,
+                null);
+    }
+
+    private static BitSet dias(int... dias) {
+        BitSet bits = new BitSet();
+        for (int dia : dias) {
+            bits.set(dia);
+        }
+        return bits;
+    }
+
+    private static Object[] fila(Long matriculaId, LocalDate fecha, Boolean presente) {
+        return new Object[] {matriculaId, fecha, presente};
+    }
+}
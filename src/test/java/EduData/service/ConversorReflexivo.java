@@ -0,0 +1,192 @@
+package EduData.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Conversión de resultados NLQ tal como estaba en NlqServiceMejorado antes de NlqConversorResultados:
+ * despacho por getSimpleName() y lectura de cada campo con getDeclaredField/setAccessible.
+ * Solo se usa como referencia en NlqConversorResultadosTest y NlqConversorResultadosBenchmark.
+ */
+class ConversorReflexivo {
+
+    Map<String, Object> convertir(Object resultado) {
+        Map<String, Object> item = new HashMap<>();
+        
+        if (resultado instanceof Number) {
+            // Para consultas COUNT, SUM, etc.
+            return Map.of("resultado", resultado);
+        } else if (resultado instanceof String) {
+            // Para consultas SELECT campo
+            return Map.of("valor", resultado);
+        } else if (resultado instanceof Object[]) {
+            // Para consultas que devuelven múltiples campos como SELECT e.nombre, c.nombre
+            Object[] array = (Object[]) resultado;
+            Map<String, Object> fila = new HashMap<>();
+            
+            // Mapear los valores del array a nombres descriptivos
+            for (int i = 0; i < array.length; i++) {
+                if (array[i] != null) {
+                    // Intentar determinar el tipo de dato y asignar nombre apropiado
+                    if (array[i].getClass().getSimpleName().equals("Estudiante")) {
+                        var estudiante = array[i];
+                        fila.put("estudiante_id", getFieldValue(estudiante, "id"));
+                        fila.put("estudiante_nombre", getFieldValue(estudiante, "nombre"));
+                        fila.put("estudiante_apellido", getFieldValue(estudiante, "apellido"));
+                        fila.put("estudiante_correo", getFieldValue(estudiante, "correo"));
+                        fila.put("estudiante_identificacion", getFieldValue(estudiante, "identificacion"));
+                    } else if (array[i].getClass().getSimpleName().equals("Curso")) {
+                        var curso = array[i];
+                        fila.put("curso_id", getFieldValue(curso, "id"));
+                        fila.put("curso_nombre", getFieldValue(curso, "nombre"));
+                        fila.put("curso_codigo", getFieldValue(curso, "codigo"));
+                        fila.put("curso_descripcion", getFieldValue(curso, "descripcion"));
+                    } else if (array[i].getClass().getSimpleName().equals("Matricula")) {
+                        var matricula = array[i];
+                        fila.put("matricula_id", getFieldValue(matricula, "id"));
+                        fila.put("matricula_anio", getFieldValue(matricula, "anio"));
+                    } else {
+                        // Para otros tipos de datos
+                        fila.put("campo_" + i, array[i].toString());
+                    }
+                } else {
+                    fila.put("campo_" + i, "N/A");
+                }
+            }
+            return fila;
+        } else if (resultado.getClass().getSimpleName().equals("Estudiante")) {
+            // Convertir Estudiante a Map
+            try {
+                var estudiante = resultado;
+                item.put("id", getFieldValue(estudiante, "id"));
+                item.put("identificacion", getFieldValue(estudiante, "identificacion"));
+                item.put("nombre", getFieldValue(estudiante, "nombre"));
+                item.put("apellido", getFieldValue(estudiante, "apellido"));
+                item.put("correo", getFieldValue(estudiante, "correo"));
+                item.put("genero", getFieldValue(estudiante, "genero"));
+                item.put("matriculaAnio", getFieldValue(estudiante, "matriculaAnio"));
+                item.put("estado", getFieldValue(estudiante, "estado"));
+            } catch (Exception e) {
+                item.put("error", "Error convirtiendo estudiante: " + e.getMessage());
+            }
+        } else if (resultado.getClass().getSimpleName().equals("Docente")) {
+            // Convertir Docente a Map
+            try {
+                var docente = resultado;
+                item.put("id", getFieldValue(docente, "id"));
+                item.put("nombre", getFieldValue(docente, "nombre"));
+                item.put("email", getFieldValue(docente, "email"));
+                item.put("especialidad", getFieldValue(docente, "especialidad"));
+            } catch (Exception e) {
+                item.put("error", "Error convirtiendo docente: " + e.getMessage());
+            }
+        } else if (resultado.getClass().getSimpleName().equals("Curso")) {
+            // Convertir Curso a Map
+            try {
+                var curso = resultado;
+                item.put("id", getFieldValue(curso, "id"));
+                item.put("nombre", getFieldValue(curso, "nombre"));
+                item.put("codigo", getFieldValue(curso, "codigo"));
+                item.put("descripcion", getFieldValue(curso, "descripcion"));
+                item.put("anio", getFieldValue(curso, "anio"));
+                
+                // Manejar la relación con docente de forma más segura
+                try {
+                    Object docente = getFieldValue(curso, "docente");
+                    if (docente != null && !docente.toString().equals("N/A") && !docente.toString().contains("Relación no cargada")) {
+                        Object nombreDocente = getFieldValue(docente, "nombre");
+                        Object emailDocente = getFieldValue(docente, "email");
+                        if (nombreDocente != null && !nombreDocente.equals("N/A")) {
+                            item.put("docente", nombreDocente);
+                        }
+                        if (emailDocente != null && !emailDocente.equals("N/A")) {
+                            item.put("docenteEmail", emailDocente);
+                        }
+                    } else {
+                        item.put("docente", "Sin asignar");
+                    }
+                } catch (Exception docenteException) {
+                    item.put("docente", "Error al cargar docente");
+                }
+                
+            } catch (Exception e) {
+                item.put("error", "Error convirtiendo curso: " + e.getMessage());
+            }
+        } else if (resultado.getClass().getSimpleName().equals("Matricula")) {
+            // Convertir Matricula a Map
+            try {
+                var matricula = resultado;
+                item.put("id", getFieldValue(matricula, "id"));
+                item.put("anio", getFieldValue(matricula, "anio"));
+                
+                // Manejar las relaciones de forma más segura
+                try {
+                    Object estudiante = getFieldValue(matricula, "estudiante");
+                    if (estudiante != null && !estudiante.toString().equals("N/A") && !estudiante.toString().contains("Relación no cargada")) {
+                        Object nombreEst = getFieldValue(estudiante, "nombre");
+                        Object apellidoEst = getFieldValue(estudiante, "apellido");
+                        Object idEst = getFieldValue(estudiante, "id");
+                        
+                        if (nombreEst != null && apellidoEst != null && !nombreEst.equals("N/A") && !apellidoEst.equals("N/A")) {
+                            item.put("estudiante", nombreEst + " " + apellidoEst);
+                        }
+                        if (idEst != null && !idEst.equals("N/A")) {
+                            item.put("estudianteId", idEst);
+                        }
+                    }
+                } catch (Exception estException) {
+                    item.put("estudiante", "Error al cargar estudiante");
+                }
+                
+                try {
+                    Object curso = getFieldValue(matricula, "curso");
+                    if (curso != null && !curso.toString().equals("N/A") && !curso.toString().contains("Relación no cargada")) {
+                        Object nombreCurso = getFieldValue(curso, "nombre");
+                        Object idCurso = getFieldValue(curso, "id");
+                        
+                        if (nombreCurso != null && !nombreCurso.equals("N/A")) {
+                            item.put("curso", nombreCurso);
+                        }
+                        if (idCurso != null && !idCurso.equals("N/A")) {
+                            item.put("cursoId", idCurso);
+                        }
+                    }
+                } catch (Exception cursoException) {
+                    item.put("curso", "Error al cargar curso");
+                }
+                
+            } catch (Exception e) {
+                item.put("error", "Error convirtiendo matricula: " + e.getMessage());
+            }
+        } else {
+            // Para otros tipos de resultados
+            item.put("valor", resultado.toString());
+            item.put("tipo", resultado.getClass().getSimpleName());
+        }
+        
+        return item;
+    }
+
+    private Object getFieldValue(Object obj, String fieldName) {
+        try {
+            var field = obj.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            Object value = field.get(obj);
+            
+            // Verificar si es una proxy de Hibernate no inicializada
+            if (value != null && value.getClass().getName().contains("HibernateProxy")) {
+                try {
+                    // Intentar acceder a una propiedad simple para forzar la inicialización
+                    value.toString();
+                } catch (Exception hibernateException) {
+                    // Si falla la inicialización lazy, devolver información básica
+                    return "N/A (Relación no cargada)";
+                }
+            }
+            
+            return value;
+        } catch (Exception e) {
+            return "N/A";
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package EduData.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LectorCsvTest {
+
+    @Test
+    void unCampoEntreComillasConservaElCrlf() throws IOException {
+        LectorCsv lector = lector("a,\"x\r\ny\",b\r\nc,d,e\r\n");
+
+        assertThat(lector.siguiente()).containsExactly("a", "x\r\ny", "b");
+        assertThat(lector.lineaRegistro()).isEqualTo(1);
+        assertThat(lector.siguiente()).containsExactly("c", "d", "e");
+        assertThat(lector.lineaRegistro()).isEqualTo(3);
+        assertThat(lector.siguiente()).isNull();
+    }
+
+    @Test
+    void lasComillasDoblesSonUnaComillaEscapada() throws IOException {
+        LectorCsv lector = lector("\"di \"\"hola\"\"\",\"\"\"\",\"\"\n");
+
+        assertThat(lector.siguiente()).containsExactly("di \"hola\"", "\"", "");
+    }
+
+    @Test
+    void unaComillaEnMedioDelCampoEsLiteral() throws IOException {
+        assertThat(lector("ab\"c,d\n").siguiente()).containsExactly("ab\"c", "d");
+    }
+
+    @Test
+    void unRetornoDeCarroSueltoTerminaElRegistro() throws IOException {
+        LectorCsv lector = lector("a,b\rc,d\r");
+
+        assertThat(lector.siguiente()).containsExactly("a", "b");
+        assertThat(lector.siguiente()).containsExactly("c", "d");
+        assertThat(lector.lineaRegistro()).isEqualTo(2);
+        assertThat(lector.siguiente()).isNull();
+    }
+
+    @Test
+    void elUltimoRegistroPuedeNoTenerSaltoDeLinea() throws IOException {
+        LectorCsv lector = lector("a,b\nc,\"d\"");
+
+        assertThat(lector.siguiente()).containsExactly("a", "b");
+        assertThat(lector.siguiente()).containsExactly("c", "d");
+        assertThat(lector.siguiente()).isNull();
+    }
+
+    @Test
+    void unSeparadorFinalDejaUnCampoVacio() throws IOException {
+        assertThat(lector("a,\n").siguiente()).containsExactly("a", "");
+    }
+
+    @Test
+    void lasComillasSinCerrarIndicanLaLineaDondeEmpiezaElRegistro() throws IOException {
+        LectorCsv lector = lector("ok\nx,\"abc\ndef");
+
+        assertThat(lector.siguiente()).containsExactly("ok");
+        assertThatThrownBy(lector::siguiente)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("línea 2");
+    }
+
+    @Test
+    void cuentaLasLineasDeLosCamposMultilineaYLasLineasVacias() throws IOException {
+        LectorCsv lector = lector("uno\n\"dos\nlineas\"\n\ntres\n");
+
+        assertThat(lector.siguiente()).containsExactly("uno");
+        assertThat(lector.lineaRegistro()).isEqualTo(1);
+        assertThat(lector.siguiente()).containsExactly("dos\nlineas");
+        assertThat(lector.lineaRegistro()).isEqualTo(2);
+        assertThat(lector.siguiente()).containsExactly("");
+        assertThat(lector.lineaRegistro()).isEqualTo(4);
+        assertThat(lector.siguiente()).containsExactly("tres");
+        assertThat(lector.lineaRegistro()).isEqualTo(5);
+        assertThat(lector.siguiente()).isNull();
+    }
+
+    @Test
+    void usaElSeparadorIndicado() throws IOException {
+        LectorCsv lector = new LectorCsv(new StringReader("a;\"b;c\",d\n"), ';');
+
+        assertThat(lector.siguiente()).containsExactly("a", "b;c,d");
+    }
+
+    private static LectorCsv lector(String texto) {
+        return new LectorCsv(new StringReader(texto), ',');
+    }
+}
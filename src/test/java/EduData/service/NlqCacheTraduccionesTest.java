@@ -0,0 +1,57 @@
+package EduData.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NlqCacheTraduccionesTest {
+
+    @Test
+    void sustituyeSoloDentroDeLiteralesYNumerosSueltos() {
+        Map<String, String> parametros = new LinkedHashMap<>();
+        parametros.put("nombre", "Juan");
+        parametros.put("anio", "2024");
+
+        String plantilla = NlqCacheTraducciones.plantillaJpql(
+                "SELECT e FROM Estudiante e WHERE LOWER(e.nombre) LIKE '%juan%' AND e.matriculaAnio = 2024",
+                parametros);
+
+        assertThat(plantilla).isEqualTo(
+                "SELECT e FROM Estudiante e WHERE LOWER(e.nombre) LIKE '%{{nombre|min}}%' AND e.matriculaAnio = {{anio}}");
+    }
+
+    @Test
+    void noGeneralizaSiElValorApareceEnUnIdentificador() {
+        String jpql = "SELECT m FROM Matricula m JOIN m.estudiante e WHERE e.nombre LIKE '%Mat%'";
+
+        assertThat(NlqCacheTraducciones.plantillaJpql(jpql, Map.of("nombre", "Mat"))).isNull();
+    }
+
+    @Test
+    void noGeneralizaUnNumeroQueSoloApareceDentroDeOtro() {
+        String jpql = "SELECT e FROM Estudiante e WHERE e.id = 12024";
+
+        assertThat(NlqCacheTraducciones.plantillaJpql(jpql, Map.of("anio", "2024"))).isNull();
+    }
+
+    @Test
+    void respetaLasComillasEscapadas() {
+        String jpql = "SELECT e FROM Estudiante e WHERE e.apellido = 'O''Brien' AND e.nombre = 'Ana'";
+
+        assertThat(NlqCacheTraducciones.plantillaJpql(jpql, Map.of("nombre", "Ana")))
+                .isEqualTo("SELECT e FROM Estudiante e WHERE e.apellido = 'O''Brien' AND e.nombre = '{{nombre}}'");
+    }
+
+    @Test
+    void laPlantillaGuardadaSeReutilizaConOtroValor() {
+        NlqCacheTraducciones cache = new NlqCacheTraducciones(10, 60);
+        cache.guardar("estudiantes llamados Juan", Map.of("nombre", "Juan"),
+                "SELECT e FROM Estudiante e WHERE LOWER(e.nombre) LIKE '%juan%'");
+
+        assertThat(cache.buscar("estudiantes llamados Pedro", Map.of("nombre", "Pedro")))
+                .isEqualTo("SELECT e FROM Estudiante e WHERE LOWER(e.nombre) LIKE '%pedro%'");
+    }
+}
@@ -0,0 +1,109 @@
+package EduData.service;
+
+import EduData.entity.Curso;
+import EduData.entity.Docente;
+import EduData.entity.Matricula;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la conversión reflexiva anterior (ConversorReflexivo) con los mapeadores de
+ * NlqConversorResultados sobre un resultado NLQ típico: entidades sueltas, matrículas con sus
+ * relaciones y filas "SELECT e, c".
+ *
+ * Se ejecuta con el perfil benchmark: mvn -Pbenchmark test -Dtest=NlqConversorResultadosBenchmark
+ * El resultado es el tiempo medio por resultado completo (filas filas) en microsegundos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(0)
+@Tag("benchmark")
+public class NlqConversorResultadosBenchmark {
+
+    @Param({"1000"})
+    public int filas;
+
+    private final NlqConversorResultados conversor = new NlqConversorResultados();
+    private final ConversorReflexivo reflexivo = new ConversorReflexivo();
+
+    private List<Object> estudiantes;
+    private List<Object> matriculas;
+    private List<Object> filasCompuestas;
+
+    @Setup
+    public void preparar() {
+        estudiantes = new ArrayList<>(filas);
+        matriculas = new ArrayList<>(filas);
+        filasCompuestas = new ArrayList<>(filas);
+        Docente docente = NlqConversorResultadosTest.docente(1L);
+        for (long i = 1; i <= filas; i++) {
+            Curso curso = NlqConversorResultadosTest.curso(i % 20, docente);
+            Matricula matricula = NlqConversorResultadosTest.matricula(i,
+                    NlqConversorResultadosTest.estudiante(i), curso);
+            estudiantes.add(matricula.getEstudiante());
+            matriculas.add(matricula);
+            filasCompuestas.add(new Object[]{matricula.getEstudiante(), curso});
+        }
+    }
+
+    @Benchmark
+    public void estudiantesReflexivo(Blackhole salida) {
+        estudiantes.forEach(e -> salida.consume(reflexivo.convertir(e)));
+    }
+
+    @Benchmark
+    public void estudiantesMapeadores(Blackhole salida) {
+        estudiantes.forEach(e -> salida.consume(conversor.convertir(e)));
+    }
+
+    @Benchmark
+    public void matriculasReflexivo(Blackhole salida) {
+        matriculas.forEach(m -> salida.consume(reflexivo.convertir(m)));
+    }
+
+    @Benchmark
+    public void matriculasMapeadores(Blackhole salida) {
+        matriculas.forEach(m -> salida.consume(conversor.convertir(m)));
+    }
+
+    @Benchmark
+    public void filasCompuestasReflexivo(Blackhole salida) {
+        filasCompuestas.forEach(f -> salida.consume(reflexivo.convertir(f)));
+    }
+
+    @Benchmark
+    public void filasCompuestasMapeadores(Blackhole salida) {
+        filasCompuestas.forEach(f -> salida.consume(conversor.convertir(f)));
+    }
+
+    // Fork(0): el benchmark corre en la JVM de surefire, cuyo classpath no heredaría un fork
+    @Test
+    void ejecutar() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NlqConversorResultadosBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
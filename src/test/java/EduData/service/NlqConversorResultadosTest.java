@@ -0,0 +1,77 @@
+package EduData.service;
+
+import EduData.entity.Curso;
+import EduData.entity.Docente;
+import EduData.entity.Estudiante;
+import EduData.entity.Matricula;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NlqConversorResultadosTest {
+
+    private final NlqConversorResultados conversor = new NlqConversorResultados();
+    private final ConversorReflexivo reflexivo = new ConversorReflexivo();
+
+    @Test
+    void coincideConLaConversionReflexivaParaCadaEntidad() {
+        Docente docente = docente(3L);
+        Curso curso = curso(2L, docente);
+        Curso sinDocente = curso(4L, null);
+        Estudiante estudiante = estudiante(1L);
+        Matricula matricula = matricula(5L, estudiante, curso);
+
+        for (Object resultado : new Object[]{estudiante, docente, curso, sinDocente, matricula, 42L, "texto"}) {
+            assertThat(conversor.convertir(resultado)).isEqualTo(reflexivo.convertir(resultado));
+        }
+    }
+
+    @Test
+    void coincideConLaConversionReflexivaParaFilasDeVariasColumnas() {
+        Object[] fila = {estudiante(1L), curso(2L, docente(3L)), matricula(5L, null, null), null, 7};
+
+        assertThat(conversor.convertir(fila)).isEqualTo(reflexivo.convertir(fila));
+    }
+
+    static Estudiante estudiante(Long id) {
+        Estudiante estudiante = new Estudiante();
+        estudiante.setId(id);
+        estudiante.setIdentificacion("ID-" + id);
+        estudiante.setNombre("Nombre" + id);
+        estudiante.setApellido("Apellido" + id);
+        estudiante.setCorreo("estudiante" + id + "@edudata.test");
+        estudiante.setGenero(id % 2 == 0 ? "Femenino" : "Masculino");
+        estudiante.setMatriculaAnio(2024);
+        estudiante.setEstado("Activo");
+        return estudiante;
+    }
+
+    static Docente docente(Long id) {
+        Docente docente = new Docente();
+        docente.setId(id);
+        docente.setNombre("Docente" + id);
+        docente.setEmail("docente" + id + "@edudata.test");
+        docente.setEspecialidad("Matemáticas");
+        return docente;
+    }
+
+    static Curso curso(Long id, Docente docente) {
+        Curso curso = new Curso();
+        curso.setId(id);
+        curso.setNombre("Curso" + id);
+        curso.setCodigo("C-" + id);
+        curso.setDescripcion("Descripción del curso " + id);
+        curso.setAnio(2024);
+        curso.setDocente(docente);
+        return curso;
+    }
+
+    static Matricula matricula(Long id, Estudiante estudiante, Curso curso) {
+        Matricula matricula = new Matricula();
+        matricula.setId(id);
+        matricula.setAnio(2024);
+        matricula.setEstudiante(estudiante);
+        matricula.setCurso(curso);
+        return matricula;
+    }
+}
@@ -0,0 +1,89 @@
+package EduData.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NlqTraductorLocalTest {
+
+    private final NlqTraductorLocal traductor = new NlqTraductorLocal();
+
+    @Test
+    void traduceLosConteosSinImportarTildesNiSignos() {
+        assertThat(traductor.traducir("¿Cuántos estudiantes hay?")).isEqualTo("SELECT COUNT(e) FROM Estudiante e");
+        assertThat(traductor.traducir("numero de profesores")).isEqualTo("SELECT COUNT(d) FROM Docente d");
+        assertThat(traductor.traducir("cuantas matriculas hay en total")).isEqualTo("SELECT COUNT(m) FROM Matricula m");
+    }
+
+    @Test
+    void traduceLosListados() {
+        assertThat(traductor.traducir("muéstrame todos los cursos"))
+                .isEqualTo("SELECT c FROM Curso c LEFT JOIN FETCH c.docente");
+    }
+
+    @Test
+    void aplicaLosFiltrosDeAnioYGenero() {
+        assertThat(traductor.traducir("estudiantes del 2024"))
+                .isEqualTo("SELECT e FROM Estudiante e WHERE e.matriculaAnio = 2024");
+        assertThat(traductor.traducir("estudiantes masculinos"))
+                .isEqualTo("SELECT e FROM Estudiante e WHERE e.genero = 'Masculino'");
+        assertThat(traductor.traducir("cursos del 2024"))
+                .isEqualTo("SELECT c FROM Curso c LEFT JOIN FETCH c.docente WHERE c.anio = 2024");
+        assertThat(traductor.traducir("cuántos estudiantes femeninos hay del año 2023"))
+                .isEqualTo("SELECT COUNT(e) FROM Estudiante e WHERE e.matriculaAnio = 2023 AND e.genero = 'Femenino'");
+    }
+
+    @Test
+    void elFiltroDeNombreConservaLasTildes() {
+        assertThat(traductor.traducir("estudiantes llamados María"))
+                .isEqualTo("SELECT e FROM Estudiante e WHERE LOWER(e.nombre) LIKE '%maría%'");
+        assertThat(traductor.traducir("alumnos llamados juan perez"))
+                .isEqualTo("SELECT e FROM Estudiante e WHERE LOWER(e.nombre) LIKE '%juan%' AND LOWER(e.apellido) LIKE '%perez%'");
+        assertThat(traductor.traducir("cuántos estudiantes hay en el 2023 llamados Ana"))
+                .isEqualTo("SELECT COUNT(e) FROM Estudiante e WHERE e.matriculaAnio = 2023 AND LOWER(e.nombre) LIKE '%ana%'");
+    }
+
+    @Test
+    void traduceLosCursosDeUnEstudianteConSusJoins() {
+        assertThat(traductor.traducir("¿En qué cursos está María López?"))
+                .isEqualTo("SELECT c FROM Matricula m JOIN m.curso c LEFT JOIN FETCH c.docente JOIN m.estudiante e " +
+                        "WHERE LOWER(e.nombre) LIKE '%maría%' AND LOWER(e.apellido) LIKE '%lópez%'");
+        assertThat(traductor.traducir("cursos que tiene Juan"))
+                .isEqualTo("SELECT c FROM Matricula m JOIN m.curso c LEFT JOIN FETCH c.docente JOIN m.estudiante e " +
+                        "WHERE LOWER(e.nombre) LIKE '%juan%'");
+        assertThat(traductor.traducir("estudiantes y sus cursos"))
+                .isEqualTo("SELECT e, c FROM Matricula m JOIN m.estudiante e JOIN m.curso c");
+        assertThat(traductor.traducir("estudiantes matriculados"))
+                .isEqualTo("SELECT DISTINCT e FROM Matricula m JOIN m.estudiante e");
+    }
+
+    @Test
+    void lasPreguntasQueNoReconoceSiguenALaIa() {
+        assertThat(traductor.traducir("qué estudiantes tienen promedio mayor a 4")).isNull();
+        assertThat(traductor.traducir("cuantos estudiantes aprobaron")).isNull();
+        assertThat(traductor.traducir("")).isNull();
+        assertThat(traductor.traducir(null)).isNull();
+    }
+
+    @Test
+    void noAceptaFiltrosQueLaEntidadNoTiene() {
+        assertThat(traductor.traducir("docentes masculinos")).isNull();
+        assertThat(traductor.traducir("docentes del 2024")).isNull();
+        assertThat(traductor.traducir("matriculas llamadas ana")).isNull();
+    }
+
+    @Test
+    void noTomaPalabrasComunesComoNombres() {
+        assertThat(traductor.traducir("cursos que tiene cada estudiante")).isNull();
+        assertThat(traductor.traducir("estudiantes llamados los")).isNull();
+    }
+
+    @Test
+    void cuentaLasPreguntasResueltasYLasDerivadas() {
+        traductor.traducir("cuantos cursos hay");
+        traductor.traducir("estudiantes con mejor promedio en matemáticas");
+
+        assertThat(traductor.getResueltas()).isEqualTo(1);
+        assertThat(traductor.getDerivadas()).isEqualTo(1);
+    }
+}